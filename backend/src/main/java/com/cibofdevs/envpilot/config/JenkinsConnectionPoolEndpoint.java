@@ -0,0 +1,90 @@
+package com.cibofdevs.envpilot.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Jenkins connection pool usage: /actuator/jenkinspools lists leased, pending (waiting
+ * for a connection) and available (idle, kept alive) connections per Jenkins host, and
+ * the pool totals are published as jenkins.http.pool.connections metrics.
+ */
+@Component
+@Endpoint(id = "jenkinspools")
+public class JenkinsConnectionPoolEndpoint implements MeterBinder {
+
+    @Autowired
+    private PoolingAsyncClientConnectionManager jenkinsConnectionManager;
+
+    @Autowired
+    private PoolingHttpClientConnectionManager jenkinsBlockingConnectionManager;
+
+    @ReadOperation
+    public Map<String, Object> pools() {
+        Map<String, Object> hosts = new TreeMap<>();
+        addRoutes(hosts, "async", jenkinsConnectionManager);
+        addRoutes(hosts, "blocking", jenkinsBlockingConnectionManager);
+
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("async", toMap(jenkinsConnectionManager.getTotalStats()));
+        totals.put("blocking", toMap(jenkinsBlockingConnectionManager.getTotalStats()));
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("hosts", hosts);
+        result.put("totals", totals);
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindPool(registry, "async", jenkinsConnectionManager);
+        bindPool(registry, "blocking", jenkinsBlockingConnectionManager);
+    }
+
+    private void bindPool(MeterRegistry registry, String pool, ConnPoolControl<HttpRoute> connectionManager) {
+        bindGauge(registry, pool, "leased", connectionManager, PoolStats::getLeased);
+        bindGauge(registry, pool, "pending", connectionManager, PoolStats::getPending);
+        bindGauge(registry, pool, "available", connectionManager, PoolStats::getAvailable);
+    }
+
+    private void bindGauge(MeterRegistry registry, String pool, String state, ConnPoolControl<HttpRoute> connectionManager,
+                           ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("jenkins.http.pool.connections", connectionManager, manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("pool", pool)
+                .tag("state", state)
+                .description("Jenkins HTTP connections by state")
+                .register(registry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addRoutes(Map<String, Object> hosts, String pool, ConnPoolControl<HttpRoute> connectionManager) {
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            Map<String, Object> host = (Map<String, Object>) hosts.computeIfAbsent(route.getTargetHost().toURI(),
+                    key -> new HashMap<String, Object>());
+            host.put(pool, toMap(connectionManager.getStats(route)));
+        }
+    }
+
+    private Map<String, Object> toMap(PoolStats stats) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("leased", stats.getLeased());
+        map.put("pending", stats.getPending());
+        map.put("available", stats.getAvailable());
+        map.put("max", stats.getMax());
+        return map;
+    }
+}
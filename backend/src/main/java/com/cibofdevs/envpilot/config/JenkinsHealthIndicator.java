@@ -0,0 +1,50 @@
+package com.cibofdevs.envpilot.config;
+
+import com.cibofdevs.envpilot.service.JenkinsHealthProber;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * The "jenkins" component of /actuator/health, from JenkinsHealthProber's last snapshot,
+ * so a health check never waits on Jenkins. UP while at least one Jenkins server answers
+ * (or none is configured), DOWN when none does, UNKNOWN before the first probe round or
+ * when the last one is more than STALE_AFTER_ROUNDS rounds old.
+ */
+@Component
+public class JenkinsHealthIndicator implements HealthIndicator {
+
+    private static final int STALE_AFTER_ROUNDS = 3;
+
+    @Autowired
+    private JenkinsHealthProber jenkinsHealthProber;
+
+    @Override
+    public Health health() {
+        JenkinsHealthProber.Snapshot snapshot = jenkinsHealthProber.getSnapshot();
+        Map<String, Object> details = snapshot.health();
+        if (snapshot.probedAt() == 0) {
+            return Health.unknown().withDetail("status", "not probed yet").build();
+        }
+
+        Health.Builder builder;
+        long age = System.currentTimeMillis() - snapshot.probedAt();
+        if (age > STALE_AFTER_ROUNDS * JenkinsHealthProber.PROBE_INTERVAL_MS) {
+            builder = Health.unknown().withDetail("stale", true);
+        } else if ("not_configured".equals(details.get("status"))) {
+            builder = Health.up();
+        } else if (details.get("healthyServers") instanceof Integer healthyServers && healthyServers > 0) {
+            builder = Health.up();
+        } else {
+            builder = Health.down();
+        }
+        return builder
+            .withDetails(details)
+            .withDetail("issues", snapshot.issues().size())
+            .withDetail("probedAt", snapshot.probedAt())
+            .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.cibofdevs.envpilot.config;
+
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JenkinsHttpClientConfig {
+
+    // Connections are kept open between calls so status polls reuse them instead of
+    // paying a TCP + TLS handshake each time. Jenkins (Jetty) closes idle connections on
+    // its side after ~30s, so idle ones are reused for at most KEEP_ALIVE unless the
+    // server says otherwise, evicted after IDLE_EVICTION, and re-validated before reuse
+    // when idle for longer than VALIDATE_AFTER_INACTIVITY.
+    private static final TimeValue KEEP_ALIVE = TimeValue.ofSeconds(20);
+    private static final TimeValue IDLE_EVICTION = TimeValue.ofSeconds(30);
+    private static final TimeValue VALIDATE_AFTER_INACTIVITY = TimeValue.ofSeconds(5);
+    // Reconnect now and then even when busy, e.g. to follow DNS changes
+    private static final TimeValue CONNECTION_TIME_TO_LIVE = TimeValue.ofMinutes(10);
+
+    // Server-provided Keep-Alive timeout, capped at KEEP_ALIVE
+    private static final ConnectionKeepAliveStrategy KEEP_ALIVE_STRATEGY = (response, context) -> {
+        TimeValue serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+        return TimeValue.isPositive(serverKeepAlive) && serverKeepAlive.compareTo(KEEP_ALIVE) < 0 ? serverKeepAlive : KEEP_ALIVE;
+    };
+
+    private static ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofSeconds(10))
+                .setSocketTimeout(Timeout.ofSeconds(30))
+                .setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY)
+                .setTimeToLive(CONNECTION_TIME_TO_LIVE)
+                .build();
+    }
+
+    // One shared non-blocking client for every Jenkins call: requests are multiplexed
+    // over a couple of I/O reactor threads, so an in-flight call against a slow Jenkins
+    // costs a pooled connection rather than a parked Tomcat/scheduler thread. Limits are
+    // per route (Jenkins host); LIFO reuse keeps the pool at the few warm connections a
+    // host actually needs so the rest expire.
+    @Bean
+    public PoolingAsyncClientConnectionManager jenkinsConnectionManager() {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(200)
+                .setMaxConnPerRoute(20)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultConnectionConfig(connectionConfig())
+                .build();
+    }
+
+    // Pool for the blocking client below and the RestTemplates (see RestTemplateConfig)
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager jenkinsBlockingConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(50)
+                .setMaxConnPerRoute(10)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.STRICT)
+                .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoTimeout(Timeout.ofSeconds(30))
+                        .build())
+                .setDefaultConnectionConfig(connectionConfig())
+                .build();
+    }
+
+    /**
+     * Blocking client on the shared blocking pool with the given request defaults. The
+     * pool outlives the client, so closing one client doesn't close it for the others.
+     */
+    @SuppressWarnings("deprecation")
+    public static CloseableHttpClient blockingClient(PoolingHttpClientConnectionManager connectionManager,
+                                                     Timeout connectTimeout, Timeout responseTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setConnectionManagerShared(true)
+                .setKeepAliveStrategy(KEEP_ALIVE_STRATEGY)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_EVICTION)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setResponseTimeout(responseTimeout)
+                        .build())
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @SuppressWarnings("deprecation")
+    public CloseableHttpAsyncClient jenkinsHttpAsyncClient(PoolingAsyncClientConnectionManager jenkinsConnectionManager) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(jenkinsConnectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(Math.max(2, Runtime.getRuntime().availableProcessors()))
+                        .setSoTimeout(Timeout.ofSeconds(30))
+                        .build())
+                // Same limits the Jenkins RestTemplate used; per-request overrides (e.g.
+                // the short health-check timeouts) are applied by JenkinsClient.
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(Timeout.ofSeconds(10))
+                        .setResponseTimeout(Timeout.ofSeconds(30))
+                        .build())
+                .setKeepAliveStrategy(KEEP_ALIVE_STRATEGY)
+                .evictExpiredConnections()
+                .evictIdleConnections(IDLE_EVICTION)
+                // Jenkins session cookies are tied to the credential that obtained them
+                // (see JenkinsService.addCrumb), so never share them implicitly between
+                // projects through a client-wide cookie store.
+                .disableCookieManagement()
+                .build();
+        client.start();
+        return client;
+    }
+
+    // Blocking client for the few calls that stream a large body (console logs) to a
+    // consumer chunk by chunk. Reading those on a dedicated worker thread keeps a slow
+    // log viewer from stalling the async client's I/O threads, which every other
+    // Jenkins call shares.
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient jenkinsStreamingHttpClient(PoolingHttpClientConnectionManager jenkinsBlockingConnectionManager) {
+        return blockingClient(jenkinsBlockingConnectionManager, Timeout.ofSeconds(10), Timeout.ofSeconds(30));
+    }
+}
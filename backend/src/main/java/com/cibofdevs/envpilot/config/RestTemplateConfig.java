@@ -1,24 +1,28 @@
 package com.cibofdevs.envpilot.config;
 
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
-
 @Configuration
 public class RestTemplateConfig {
 
+    // Both templates run on the pooled keep-alive Jenkins connections (see
+    // JenkinsHttpClientConfig) instead of opening a new connection per request.
+
     // Long timeouts: used for actual Jenkins operations (trigger build, fetch logs)
     // which can legitimately take a while.
     @Bean
     @Primary
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, PoolingHttpClientConnectionManager jenkinsBlockingConnectionManager) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(30))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(JenkinsHttpClientConfig.blockingClient(
+                        jenkinsBlockingConnectionManager, Timeout.ofSeconds(10), Timeout.ofSeconds(30))))
                 .build();
     }
 
@@ -26,10 +30,10 @@ public class RestTemplateConfig {
     // unreachable Jenkins instance can't stall request threads (e.g. the analytics
     // dashboard) for many seconds.
     @Bean
-    public RestTemplate jenkinsHealthCheckRestTemplate(RestTemplateBuilder builder) {
+    public RestTemplate jenkinsHealthCheckRestTemplate(RestTemplateBuilder builder, PoolingHttpClientConnectionManager jenkinsBlockingConnectionManager) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(2))
-                .setReadTimeout(Duration.ofSeconds(3))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(JenkinsHttpClientConfig.blockingClient(
+                        jenkinsBlockingConnectionManager, Timeout.ofSeconds(2), Timeout.ofSeconds(3))))
                 .build();
     }
 }
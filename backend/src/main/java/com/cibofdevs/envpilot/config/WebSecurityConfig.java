@@ -1,6 +1,7 @@
 package com.cibofdevs.envpilot.config;
 
 import com.cibofdevs.envpilot.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -60,6 +61,9 @@ public class WebSecurityConfig implements WebMvcConfigurer {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
                 auth
+                    // Async controller results (CompletableFuture) are written back on an
+                    // ASYNC dispatch of a request that was already authorized on the way in
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers(
                         "/swagger-ui.html",
                         "/swagger-ui/**",
@@ -8,7 +8,8 @@ import com.cibofdevs.envpilot.repository.EnvironmentRepository;
 import com.cibofdevs.envpilot.repository.EnvironmentAssignmentRepository;
 import com.cibofdevs.envpilot.repository.ProjectRepository;
 import com.cibofdevs.envpilot.repository.UserRepository;
-import com.cibofdevs.envpilot.service.JenkinsService;
+import com.cibofdevs.envpilot.service.JenkinsClient;
+import com.cibofdevs.envpilot.service.JenkinsFanOutService;
 import com.cibofdevs.envpilot.service.DeploymentService;
 import com.cibofdevs.envpilot.model.EnvironmentAssignment;
 import com.cibofdevs.envpilot.service.UserDetailsServiceImpl;
@@ -28,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import com.cibofdevs.envpilot.model.DeploymentHistory;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -48,8 +50,11 @@ public class DashboardController {
     @Autowired
     private DeploymentHistoryRepository deploymentHistoryRepository;
 
+    // Recent builds are returned after this long even if some Jenkins servers are slow
+    private static final long RECENT_BUILDS_DEADLINE_MS = 8000;
+
     @Autowired
-    private JenkinsService jenkinsService;
+    private JenkinsFanOutService jenkinsFanOutService;
     
     @Autowired
     private DeploymentService deploymentService;
@@ -236,12 +241,11 @@ public class DashboardController {
             )
         )
     })
-    public ResponseEntity<Map<String, Object>> getRecentBuilds(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getRecentBuilds(
             @RequestParam(defaultValue = "10") int limit,
             Authentication authentication) {
         Map<String, Object> result = new HashMap<>();
-        List<Map<String, Object>> allBuilds = new ArrayList<>();
-        List<Project> jenkinsProjects = new ArrayList<>();
+        List<Project> jenkinsProjects;
 
         try {
             // Get user role and filter projects based on assignment
@@ -266,7 +270,7 @@ public class DashboardController {
             }
             
             // Filter projects with Jenkins configuration
-            List<Project> configuredProjects = allProjects.stream()
+            jenkinsProjects = allProjects.stream()
                 .filter(project -> project.getJenkinsUrl() != null && 
                                  !project.getJenkinsUrl().trim().isEmpty() &&
                                  project.getJenkinsJobName() != null && 
@@ -276,62 +280,39 @@ public class DashboardController {
                                  project.getJenkinsToken() != null && 
                                  !project.getJenkinsToken().trim().isEmpty())
                 .toList();
-
-            jenkinsProjects = configuredProjects;
-
-            // Get recent builds from each configured project
-            for (Project project : configuredProjects) {
-                try {
-                    Map<String, Object> projectBuilds = jenkinsService.getRecentBuilds(project, limit);
-                    if ((Boolean) projectBuilds.get("success") && projectBuilds.get("builds") != null) {
-                        List<Map<String, Object>> builds = (List<Map<String, Object>>) projectBuilds.get("builds");
-                        for (Map<String, Object> build : builds) {
-                            // For now, show all builds for projects the user has access to
-                            // This ensures builds are not lost due to missing user information
-                            // TODO: Implement proper user filtering when Jenkins properly stores triggeredByUserId
-                            
-                            // Add project information to each build
-                            build.put("projectId", project.getId());
-                            build.put("projectName", project.getName());
-                            build.put("projectJenkinsUrl", project.getJenkinsUrl());
-                            build.put("projectJenkinsJobName", project.getJenkinsJobName());
-                            allBuilds.add(build);
-                        }
-                    }
-                } catch (Exception e) {
-                    // Log error but continue with other projects
-                    System.err.println("Error fetching builds for project " + project.getName() + ": " + e.getMessage());
-                }
-            }
-
-            // Sort builds by timestamp (most recent first) and limit
-            allBuilds.sort((b1, b2) -> {
-                Long timestamp1 = (Long) b1.get("timestamp");
-                Long timestamp2 = (Long) b2.get("timestamp");
-                if (timestamp1 == null) timestamp1 = 0L;
-                if (timestamp2 == null) timestamp2 = 0L;
-                return timestamp2.compareTo(timestamp1);
-            });
-
-            // Limit the total number of builds
-            if (allBuilds.size() > limit) {
-                allBuilds = allBuilds.subList(0, limit);
-            }
-
-            result.put("success", true);
-            result.put("builds", allBuilds);
-            result.put("projects", jenkinsProjects);
-            result.put("totalBuilds", allBuilds.size());
-            result.put("totalProjects", jenkinsProjects.size());
-
         } catch (Exception e) {
             result.put("success", false);
             result.put("message", "Error fetching recent builds: " + e.getMessage());
             result.put("builds", new ArrayList<>());
             result.put("projects", new ArrayList<>());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(result));
         }
 
-        return ResponseEntity.ok(result);
+        // Fetch every project's builds in parallel (capped per Jenkins server) and merge
+        // them newest first; projects that miss the deadline are left out (partial=true).
+        // For now, show all builds for projects the user has access to
+        // This ensures builds are not lost due to missing user information
+        // TODO: Implement proper user filtering when Jenkins properly stores triggeredByUserId
+        return jenkinsFanOutService.getRecentBuilds(jenkinsProjects, limit, RECENT_BUILDS_DEADLINE_MS)
+            .handle((merged, ex) -> {
+                if (ex != null) {
+                    result.put("success", false);
+                    result.put("message", "Error fetching recent builds: " + JenkinsClient.unwrap(ex).getMessage());
+                    result.put("builds", new ArrayList<>());
+                    result.put("projects", new ArrayList<>());
+                    return ResponseEntity.ok(result);
+                }
+
+                List<?> builds = (List<?>) merged.get("builds");
+                result.put("success", true);
+                result.put("builds", builds);
+                result.put("projects", jenkinsProjects);
+                result.put("totalBuilds", builds.size());
+                result.put("totalProjects", jenkinsProjects.size());
+                result.put("partial", merged.get("partial"));
+                result.put("pendingProjects", merged.get("pendingProjects"));
+                return ResponseEntity.ok(result);
+            });
     }
 
     @GetMapping("/recent-deployments")
@@ -1,8 +1,14 @@
 package com.cibofdevs.envpilot.controller;
 
+import com.cibofdevs.envpilot.dto.BuildStatus;
 import com.cibofdevs.envpilot.model.Project;
 import com.cibofdevs.envpilot.model.Environment;
 import com.cibofdevs.envpilot.service.JenkinsService;
+import com.cibofdevs.envpilot.service.BuildLogStreamService;
+import com.cibofdevs.envpilot.service.BuildLogArchiveService;
+import com.cibofdevs.envpilot.service.BuildLogSearchService;
+import com.cibofdevs.envpilot.service.BuildListCacheService;
+import com.cibofdevs.envpilot.service.JenkinsWebhookService;
 import com.cibofdevs.envpilot.service.ProjectService;
 import com.cibofdevs.envpilot.service.EnvironmentService;
 import com.cibofdevs.envpilot.service.NotificationService;
@@ -16,6 +22,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,7 +32,10 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.security.core.Authentication;
 import org.springframework.http.HttpStatus;
 import com.cibofdevs.envpilot.service.UserDetailsServiceImpl;
@@ -42,9 +54,27 @@ import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
 @SecurityRequirement(name = "Bearer Authentication")
 public class JenkinsController {
 
+    // Upper bound on the log text returned from the archive in one response
+    private static final int MAX_ARCHIVED_LOG_BYTES = 16 * 1024 * 1024;
+
     @Autowired
     private JenkinsService jenkinsService;
 
+    @Autowired
+    private BuildLogStreamService buildLogStreamService;
+
+    @Autowired
+    private BuildLogArchiveService buildLogArchiveService;
+
+    @Autowired
+    private BuildLogSearchService buildLogSearchService;
+
+    @Autowired
+    private BuildListCacheService buildListCacheService;
+
+    @Autowired
+    private JenkinsWebhookService jenkinsWebhookService;
+
     @Autowired
     private ProjectService projectService;
 
@@ -69,6 +99,10 @@ public class JenkinsController {
     @Autowired
     private DeploymentHistoryRepository deploymentHistoryRepository;
 
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
     /**
      * Trigger Jenkins deployment for a project
      */
@@ -106,7 +140,7 @@ public class JenkinsController {
             description = "Project not found"
         )
     })
-    public ResponseEntity<Map<String, Object>> deployProject(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> deployProject(
             @Parameter(description = "Project ID", example = "1") @PathVariable Long projectId,
             @Parameter(description = "Environment ID", example = "1") @RequestParam Long environmentId,
             @Parameter(description = "Version to deploy", example = "1.0.0") @RequestParam(required = false) String version,
@@ -121,14 +155,14 @@ public class JenkinsController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
         if (environmentOpt.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Environment not found");
-            return ResponseEntity.badRequest().body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
         }
 
         // Validate deployment access based on role and environment
@@ -148,7 +182,7 @@ public class JenkinsController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Access denied. Only Admin can deploy to " + environmentName + " environment.");
-            return ResponseEntity.status(403).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(403).body(error));
         }
 
         // Get current user
@@ -158,11 +192,11 @@ public class JenkinsController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "User not found");
-            return ResponseEntity.badRequest().body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(error));
         }
         User currentUser = currentUserOpt.get();
 
-        Map<String, Object> result = jenkinsService.triggerJenkinsJob(
+        return jenkinsService.triggerJenkinsJobAsync(
             projectOpt.get(),
             environmentOpt.get(),
             version,
@@ -171,31 +205,31 @@ public class JenkinsController {
             environmentOpt.get().getName(),
             null,
             currentUser
-        );
+        ).thenApply(result -> {
+            if ((Boolean) result.get("success")) {
+                // Note: Bell notification will only be created when deployment is completed (SUCCESS/FAILED)
+                // to avoid spam notifications during trigger phase
+                System.out.println("📧 Bell notification will be created when deployment completes");
 
-        if ((Boolean) result.get("success")) {
-            // Note: Bell notification will only be created when deployment is completed (SUCCESS/FAILED)
-            // to avoid spam notifications during trigger phase
-            System.out.println("📧 Bell notification will be created when deployment completes");
-            
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+                return ResponseEntity.ok(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
+            }
+        });
     }
 
     /**
      * Get last build status for a project
      */
     @GetMapping("/status/{projectId}")
-    public ResponseEntity<Map<String, Object>> getBuildStatus(@PathVariable Long projectId, Authentication authentication) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getBuildStatus(@PathVariable Long projectId, Authentication authentication) {
         Optional<Project> projectOpt = projectService.getProjectById(projectId);
 
         if (projectOpt.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
         // Check user access to project
@@ -221,17 +255,18 @@ public class JenkinsController {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
                 error.put("message", "Access denied. You don't have permission to access this project's build status.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(error));
             }
         }
 
-        Map<String, Object> result = jenkinsService.getLastBuildStatus(project);
-
-        if ((Boolean) result.get("success")) {
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+        return jenkinsService.getLastBuildStatusAsync(project).thenApply(result -> {
+            Map<String, Object> body = result.toMap(BuildStatus::toMap);
+            if (result.isSuccess()) {
+                return ResponseEntity.ok(body);
+            } else {
+                return ResponseEntity.badRequest().body(body);
+            }
+        });
     }
 
     /**
@@ -239,23 +274,23 @@ public class JenkinsController {
      */
     @PostMapping("/test/{projectId}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> testConnection(@PathVariable Long projectId) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> testConnection(@PathVariable Long projectId) {
         Optional<Project> projectOpt = projectService.getProjectById(projectId);
 
         if (projectOpt.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
-        Map<String, Object> result = jenkinsService.testJenkinsConnection(projectOpt.get());
-
-        if ((Boolean) result.get("success")) {
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+        return jenkinsService.testJenkinsConnectionAsync(projectOpt.get()).thenApply(result -> {
+            if ((Boolean) result.get("success")) {
+                return ResponseEntity.ok(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
+            }
+        });
     }
 
     /**
@@ -278,6 +313,9 @@ public class JenkinsController {
 
         Project project = projectOpt.get();
 
+        // Cached job metadata (parameter definitions) belongs to the old job; drop it
+        jenkinsService.invalidateJobMetadata(project);
+
         // Update Jenkins configuration
         if (jenkinsConfig.containsKey("jenkinsUrl")) {
             project.setJenkinsUrl(jenkinsConfig.get("jenkinsUrl"));
@@ -296,6 +334,7 @@ public class JenkinsController {
         }
 
         Project updatedProject = projectService.updateProject(project);
+        jenkinsService.invalidateJobMetadata(updatedProject);
 
         Map<String, Object> result = new HashMap<>();
         result.put("success", true);
@@ -306,12 +345,18 @@ public class JenkinsController {
     }
 
     /**
-     * Get build logs for a project
+     * Get build logs for a project. Archived (finished) builds are served from the local
+     * log archive and accept either a line range (startLine/lineCount) or a byte range
+     * (byteOffset/byteLength); anything else is fetched from Jenkins in full.
      */
     @GetMapping("/logs/{projectId}")
-    public ResponseEntity<Map<String, Object>> getBuildLogs(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getBuildLogs(
             @PathVariable Long projectId,
             @RequestParam(required = false) Integer buildNumber,
+            @RequestParam(required = false) Long startLine,
+            @RequestParam(required = false) Integer lineCount,
+            @RequestParam(required = false) Long byteOffset,
+            @RequestParam(required = false) Integer byteLength,
             Authentication authentication) {
         Optional<Project> projectOpt = projectService.getProjectById(projectId);
 
@@ -319,7 +364,7 @@ public class JenkinsController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
         // Check user access to project
@@ -345,38 +390,171 @@ public class JenkinsController {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
                 error.put("message", "Access denied. You don't have permission to access this project's build logs.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(error));
             }
         }
 
-        Map<String, Object> result = jenkinsService.getBuildLogs(project, buildNumber);
+        CompletableFuture<Map<String, Object>> logsFuture;
+        if (buildNumber != null && buildLogArchiveService.isArchived(projectId, buildNumber)) {
+            // Finished build: read it from the archive, falling back to Jenkins if the
+            // archive cannot be read
+            logsFuture = CompletableFuture
+                .supplyAsync(() -> readArchivedLogs(projectId, buildNumber, startLine, lineCount, byteOffset, byteLength), taskExecutor)
+                .thenCompose(archived -> archived != null
+                    ? CompletableFuture.completedFuture(archived)
+                    : jenkinsService.getBuildLogsAsync(project, buildNumber));
+        } else {
+            logsFuture = jenkinsService.getBuildLogsAsync(project, buildNumber);
+        }
+
+        // The audit log lookup hits the database, so the response is finished on the task
+        // executor rather than on the Jenkins client's I/O thread.
+        return logsFuture.thenApplyAsync(result -> {
+            if ((Boolean) result.get("success")) {
+                // Audit logging for build logs access
+                if (featureFlagService.isAuditLoggingEnabled()) {
+                    String userEmail = authentication.getName();
+                    Optional<User> currentUserOpt = userRepository.findByEmail(userEmail);
+                    if (currentUserOpt.isPresent()) {
+                        System.out.println("📋 AUDIT LOG: Build logs accessed");
+                        System.out.println("   User: " + currentUserOpt.get().getName() + " (" + userEmail + ")");
+                        System.out.println("   Project: " + projectOpt.get().getName() + " (ID: " + projectId + ")");
+                        System.out.println("   Build Number: " + (buildNumber != null ? buildNumber : "Latest"));
+                        System.out.println("   Timestamp: " + LocalDateTime.now());
+                    }
+                }
 
-        if ((Boolean) result.get("success")) {
-            // Audit logging for build logs access
-            if (featureFlagService.isAuditLoggingEnabled()) {
-                String userEmail = authentication.getName();
-                Optional<User> currentUserOpt = userRepository.findByEmail(userEmail);
-                if (currentUserOpt.isPresent()) {
-                    System.out.println("📋 AUDIT LOG: Build logs accessed");
-                    System.out.println("   User: " + currentUserOpt.get().getName() + " (" + userEmail + ")");
-                    System.out.println("   Project: " + projectOpt.get().getName() + " (ID: " + projectId + ")");
-                    System.out.println("   Build Number: " + (buildNumber != null ? buildNumber : "Latest"));
-                    System.out.println("   Timestamp: " + LocalDateTime.now());
+                return ResponseEntity.ok(result);
+            } else {
+                // Better error handling - return appropriate status code
+                String message = (String) result.get("message");
+                if (message != null && message.contains("configuration is incomplete")) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
+                } else if (message != null && message.contains("not found")) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+                } else {
+                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
                 }
             }
-            
-            return ResponseEntity.ok(result);
-        } else {
-            // Better error handling - return appropriate status code
-            String message = (String) result.get("message");
-            if (message != null && message.contains("configuration is incomplete")) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(result);
-            } else if (message != null && message.contains("not found")) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
-            } else {
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        }, taskExecutor);
+    }
+
+    /**
+     * Read an archived build log range, or null if the archive could not be read.
+     */
+    private Map<String, Object> readArchivedLogs(Long projectId, Integer buildNumber, Long startLine, Integer lineCount,
+            Long byteOffset, Integer byteLength) {
+        try {
+            if (startLine != null || lineCount != null) {
+                return buildLogArchiveService.readLineRange(projectId, buildNumber,
+                    startLine != null ? startLine : 0, lineCount != null ? lineCount : Integer.MAX_VALUE, MAX_ARCHIVED_LOG_BYTES);
+            }
+            return buildLogArchiveService.readByteRange(projectId, buildNumber,
+                byteOffset != null ? byteOffset : 0, byteLength != null ? Math.min(byteLength, MAX_ARCHIVED_LOG_BYTES) : MAX_ARCHIVED_LOG_BYTES);
+        } catch (Exception e) {
+            System.err.println("❌ Failed to read archived build log for project " + projectId + " #" + buildNumber + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Search archived build logs for lines containing every word of the query, newest
+     * builds first. Non-admin users only see results from projects assigned to them.
+     */
+    @GetMapping("/logs/search")
+    public ResponseEntity<Map<String, Object>> searchBuildLogs(
+            @RequestParam String q,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Long environmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false, defaultValue = "50") Integer limit,
+            Authentication authentication) {
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        boolean isAdmin = userPrincipal.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals("ROLE_" + User.Role.ADMIN.name()));
+
+        Set<Long> allowedProjectIds = null;
+        if (!isAdmin) {
+            allowedProjectIds = projectRepository.findProjectsByUserId(userPrincipal.getId()).stream()
+                .map(Project::getId)
+                .collect(Collectors.toSet());
+            if (projectId != null && !allowedProjectIds.contains(projectId)) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Access denied. You don't have permission to access this project's build logs.");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+        }
+
+        Map<String, Object> result = buildLogSearchService.search(q, allowedProjectIds, projectId, environmentId,
+            startDate, endDate, Math.max(1, Math.min(limit, 500)));
+        if (!(Boolean) result.get("success")) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Stream build logs for a project over Server-Sent Events, tailing the build while it
+     * is still running (see BuildLogStreamService for the event format). Pass the last
+     * "progress" offset as start to resume a stream.
+     */
+    @GetMapping("/logs/{projectId}/stream")
+    public ResponseEntity<?> streamBuildLogs(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) Integer buildNumber,
+            @RequestParam(required = false, defaultValue = "0") Long start,
+            Authentication authentication) {
+        Optional<Project> projectOpt = projectService.getProjectById(projectId);
+
+        if (projectOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // Check user access to project
+        Project project = projectOpt.get();
+        UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        User.Role userRole = userPrincipal.getAuthorities().stream()
+            .map(authority -> {
+                String roleName = authority.getAuthority().replace("ROLE_", "");
+                return User.Role.valueOf(roleName);
+            })
+            .findFirst()
+            .orElse(User.Role.DEVELOPER);
+
+        // Admin can access all projects
+        if (userRole != User.Role.ADMIN) {
+            Long userId = userPrincipal.getId();
+            List<Project> userProjects = projectRepository.findProjectsByUserId(userId);
+            boolean hasAccess = userProjects.stream()
+                .anyMatch(userProject -> userProject.getId().equals(projectId));
+
+            if (!hasAccess) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Access denied. You don't have permission to access this project's build logs.");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
             }
         }
+
+        if (!jenkinsService.isJenkinsConfigured(project)) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("success", false);
+            error.put("message", "Jenkins configuration is incomplete");
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        // Audit logging for build logs access
+        if (featureFlagService.isAuditLoggingEnabled()) {
+            System.out.println("📋 AUDIT LOG: Build log stream opened");
+            System.out.println("   User: " + authentication.getName());
+            System.out.println("   Project: " + project.getName() + " (ID: " + projectId + ")");
+            System.out.println("   Build Number: " + (buildNumber != null ? buildNumber : "Latest"));
+            System.out.println("   Timestamp: " + LocalDateTime.now());
+        }
+
+        return ResponseEntity.ok(buildLogStreamService.streamBuildLog(project, buildNumber, Math.max(0, start)));
     }
 
     /**
@@ -384,14 +562,14 @@ public class JenkinsController {
      * with a Git Parameter branch field (e.g. via the Git Parameter plugin).
      */
     @GetMapping("/branches/{projectId}")
-    public ResponseEntity<Map<String, Object>> getGitBranches(@PathVariable Long projectId, Authentication authentication) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getGitBranches(@PathVariable Long projectId, Authentication authentication) {
         Optional<Project> projectOpt = projectService.getProjectById(projectId);
 
         if (projectOpt.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
         // Check user access to project
@@ -416,17 +594,17 @@ public class JenkinsController {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
                 error.put("message", "Access denied. You don't have permission to access this project's branches.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(error));
             }
         }
 
-        Map<String, Object> result = jenkinsService.getGitBranches(project);
-
-        if ((Boolean) result.get("success")) {
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+        return jenkinsService.getGitBranchesAsync(project).thenApply(result -> {
+            if ((Boolean) result.get("success")) {
+                return ResponseEntity.ok(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
+            }
+        });
     }
 
     /**
@@ -435,14 +613,14 @@ public class JenkinsController {
      * job needs instead of a fixed field set.
      */
     @GetMapping("/parameters/{projectId}")
-    public ResponseEntity<Map<String, Object>> getJobParameters(@PathVariable Long projectId, Authentication authentication) {
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getJobParameters(@PathVariable Long projectId, Authentication authentication) {
         Optional<Project> projectOpt = projectService.getProjectById(projectId);
 
         if (projectOpt.isEmpty()) {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
         // Check user access to project
@@ -467,24 +645,24 @@ public class JenkinsController {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
                 error.put("message", "Access denied. You don't have permission to access this project's parameters.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(error));
             }
         }
 
-        Map<String, Object> result = jenkinsService.getJobParameters(project);
-
-        if ((Boolean) result.get("success")) {
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+        return jenkinsService.getJobParametersAsync(project).thenApply(result -> {
+            if ((Boolean) result.get("success")) {
+                return ResponseEntity.ok(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
+            }
+        });
     }
 
     /**
      * Get recent builds for a project
      */
     @GetMapping("/builds/{projectId}")
-    public ResponseEntity<Map<String, Object>> getRecentBuilds(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> getRecentBuilds(
             @PathVariable Long projectId,
             @RequestParam(required = false, defaultValue = "10") Integer limit,
             Authentication authentication) {
@@ -494,7 +672,7 @@ public class JenkinsController {
             Map<String, Object> error = new HashMap<>();
             error.put("success", false);
             error.put("message", "Project not found");
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
         }
 
         // Check user access to project
@@ -520,30 +698,30 @@ public class JenkinsController {
                 Map<String, Object> error = new HashMap<>();
                 error.put("success", false);
                 error.put("message", "Access denied. You don't have permission to access this project's builds.");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+                return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FORBIDDEN).body(error));
             }
         }
 
-        Map<String, Object> result = jenkinsService.getRecentBuilds(project, limit);
-
-        if ((Boolean) result.get("success")) {
-            // Audit logging for recent builds access
-            if (featureFlagService.isAuditLoggingEnabled()) {
-                String userEmail = authentication.getName();
-                Optional<User> currentUserOpt = userRepository.findByEmail(userEmail);
-                if (currentUserOpt.isPresent()) {
-                    System.out.println("📋 AUDIT LOG: Recent builds accessed");
-                    System.out.println("   User: " + currentUserOpt.get().getName() + " (" + userEmail + ")");
-                    System.out.println("   Project: " + projectOpt.get().getName() + " (ID: " + projectId + ")");
-                    System.out.println("   Limit: " + limit);
-                    System.out.println("   Timestamp: " + LocalDateTime.now());
+        return buildListCacheService.getRecentBuilds(project, limit).thenApplyAsync(result -> {
+            if ((Boolean) result.get("success")) {
+                // Audit logging for recent builds access
+                if (featureFlagService.isAuditLoggingEnabled()) {
+                    String userEmail = authentication.getName();
+                    Optional<User> currentUserOpt = userRepository.findByEmail(userEmail);
+                    if (currentUserOpt.isPresent()) {
+                        System.out.println("📋 AUDIT LOG: Recent builds accessed");
+                        System.out.println("   User: " + currentUserOpt.get().getName() + " (" + userEmail + ")");
+                        System.out.println("   Project: " + projectOpt.get().getName() + " (ID: " + projectId + ")");
+                        System.out.println("   Limit: " + limit);
+                        System.out.println("   Timestamp: " + LocalDateTime.now());
+                    }
                 }
+
+                return ResponseEntity.ok(result);
+            } else {
+                return ResponseEntity.badRequest().body(result);
             }
-            
-            return ResponseEntity.ok(result);
-        } else {
-            return ResponseEntity.badRequest().body(result);
-        }
+        }, taskExecutor);
     }
 
     /**
@@ -591,11 +769,12 @@ public class JenkinsController {
             Authentication authentication) {
         
         try {
-            deploymentService.updateDeploymentStatusFromJenkins(deploymentId);
+            // Runs in the background; verification of a finished build continues on timers
+            deploymentService.requestStatusSync(deploymentId);
             
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("message", "Deployment status synced successfully");
+            result.put("message", "Deployment status sync started");
             
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -617,10 +796,10 @@ public class JenkinsController {
     )
     public ResponseEntity<Map<String, Object>> syncAllDeployments(Authentication authentication) {
         try {
-            deploymentService.syncAllActiveDeployments();
+            deploymentService.requestSyncAllActiveDeployments();
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("message", "All active deployments synced successfully");
+            result.put("message", "Sync of all active deployments started");
             return ResponseEntity.ok(result);
         } catch (Exception e) {
             Map<String, Object> error = new HashMap<>();
@@ -645,11 +824,11 @@ public class JenkinsController {
         
         try {
             System.out.println("🚀 REAL-TIME sync requested for deployment: " + deploymentId);
-            deploymentService.updateDeploymentStatusFromJenkins(deploymentId);
+            deploymentService.requestStatusSync(deploymentId);
             
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("message", "Deployment synced in real-time successfully");
+            result.put("message", "Real-time deployment sync started");
             result.put("deploymentId", deploymentId);
             result.put("timestamp", LocalDateTime.now().toString());
             
@@ -663,7 +842,9 @@ public class JenkinsController {
     }
 
     /**
-     * Jenkins Webhook endpoint for real-time build notifications
+     * Jenkins Webhook endpoint for real-time build notifications. Only validates and
+     * queues the notification (see JenkinsWebhookService); redeliveries of the same
+     * (job, build, phase) are acknowledged without being processed again.
      */
     @PostMapping("/webhook")
     @Operation(
@@ -671,76 +852,20 @@ public class JenkinsController {
         description = "Receive real-time notifications from Jenkins when builds complete"
     )
     public ResponseEntity<Map<String, Object>> jenkinsWebhook(@RequestBody Map<String, Object> webhookData) {
-        Map<String, Object> response = new HashMap<>();
-        
-        try {
-            System.out.println("🔔 Jenkins Webhook received!");
-            System.out.println("   Webhook data: " + webhookData);
-            
-            // Extract build information from webhook
-            String jobName = (String) webhookData.get("name");
-            
-            // Handle nested build object
-            Object buildObj = webhookData.get("build");
-            String buildStatus = null;
-            Integer buildNumber = null;
-            String buildUrl = null;
-            
-            if (buildObj instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> build = (Map<String, Object>) buildObj;
-                buildStatus = (String) build.get("status");
-                buildNumber = (Integer) build.get("number");
-                buildUrl = (String) build.get("url");
-            }
-            
-            System.out.println("   Job Name: " + jobName);
-            System.out.println("   Build Status: " + buildStatus);
-            System.out.println("   Build Number: " + buildNumber);
-            System.out.println("   Build URL: " + buildUrl);
-            
-            // Find project by Jenkins job name
-            Optional<Project> projectOpt = projectRepository.findByJenkinsJobName(jobName);
-            if (projectOpt.isPresent()) {
-                Project project = projectOpt.get();
-                
-                // Find active deployment for this project and build number
-                List<DeploymentHistory> activeDeployments = deploymentHistoryRepository.findByProjectAndJenkinsBuildNumber(project, buildNumber);
-                
-                if (!activeDeployments.isEmpty()) {
-                    DeploymentHistory deployment = activeDeployments.get(0);
-                    
-                    System.out.println("🎯 Found matching deployment: " + deployment.getId());
-                    System.out.println("   Project: " + deployment.getProject().getName());
-                    System.out.println("   Environment: " + deployment.getEnvironment().getName());
-                    System.out.println("   Version: " + deployment.getVersion());
-                    
-                    // Update deployment status immediately
-                    deploymentService.updateDeploymentStatusFromJenkins(deployment.getId());
-                    
-                    response.put("success", true);
-                    response.put("message", "Deployment status updated successfully");
-                    response.put("deploymentId", deployment.getId());
-                    
-                    return ResponseEntity.ok(response);
-                } else {
-                    System.out.println("⚠️ No active deployment found for build #" + buildNumber);
-                }
-            } else {
-                System.out.println("⚠️ Project not found for job: " + jobName);
-            }
-            
-            response.put("success", false);
-            response.put("message", "No matching deployment found");
+        Map<String, Object> response = jenkinsWebhookService.accept(webhookData);
+
+        String outcome = (String) response.get("outcome");
+        if (JenkinsWebhookService.Outcome.INVALID.name().equals(outcome)) {
+            System.out.println("⚠️ Invalid Jenkins webhook payload: " + webhookData);
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (JenkinsWebhookService.Outcome.REJECTED.name().equals(outcome)) {
+            // Jenkins retries failed deliveries
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        if (JenkinsWebhookService.Outcome.DUPLICATE.name().equals(outcome)) {
             return ResponseEntity.ok(response);
-            
-        } catch (Exception e) {
-            System.err.println("❌ Error processing Jenkins webhook: " + e.getMessage());
-            e.printStackTrace();
-            
-            response.put("success", false);
-            response.put("message", "Error processing webhook: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
         }
+        return ResponseEntity.accepted().body(response);
     }
 }
@@ -9,10 +9,12 @@ import com.cibofdevs.envpilot.service.EnvironmentService;
 import com.cibofdevs.envpilot.service.ProjectService;
 import com.cibofdevs.envpilot.service.UserDetailsServiceImpl;
 import com.cibofdevs.envpilot.service.JenkinsService;
+import com.cibofdevs.envpilot.service.JenkinsClient;
 import com.cibofdevs.envpilot.service.FeatureFlagService;
 import com.cibofdevs.envpilot.service.NotificationService;
 import com.cibofdevs.envpilot.service.EmailService;
 import com.cibofdevs.envpilot.service.JenkinsBuildMonitorService;
+import com.cibofdevs.envpilot.service.BuildDurationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -23,6 +25,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -34,6 +38,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -71,6 +76,13 @@ public class ProjectController {
     @Autowired
     private JenkinsBuildMonitorService jenkinsBuildMonitorService;
 
+    @Autowired
+    private BuildDurationService buildDurationService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
     @GetMapping
     @Operation(
         summary = "Get All Projects",
@@ -362,7 +374,7 @@ public class ProjectController {
 
     @PostMapping("/{id}/deploy")
     @PreAuthorize("hasRole('ADMIN') or hasRole('DEVELOPER') or hasRole('QA')")
-    public ResponseEntity<Map<String, Object>> deployProject(@PathVariable Long id,
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> deployProject(@PathVariable Long id,
                                                           @RequestParam(required = false) Long environmentId,
                                                           @Valid @RequestBody DeploymentRequest deploymentRequest,
                                                           Authentication authentication) {
@@ -371,14 +383,14 @@ public class ProjectController {
         if (projectOpt.isEmpty()) {
             response.put("success", false);
             response.put("message", "Project tidak ditemukan");
-            return ResponseEntity.status(404).body(response);
+            return CompletableFuture.completedFuture(ResponseEntity.status(404).body(response));
         }
         Project project = projectOpt.get();
 
         if (project.isRequireEnvironmentSelection() && environmentId == null) {
             response.put("success", false);
             response.put("message", "Environment selection is required for this project.");
-            return ResponseEntity.badRequest().body(response);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(response));
         }
 
         Optional<Environment> environmentOpt = environmentId != null
@@ -387,7 +399,7 @@ public class ProjectController {
         if (environmentId != null && environmentOpt.isEmpty()) {
             response.put("success", false);
             response.put("message", "Environment tidak ditemukan");
-            return ResponseEntity.status(404).body(response);
+            return CompletableFuture.completedFuture(ResponseEntity.status(404).body(response));
         }
 
         UserDetailsServiceImpl.UserPrincipal userPrincipal = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
@@ -395,7 +407,7 @@ public class ProjectController {
         if (triggeredBy == null) {
             response.put("success", false);
             response.put("message", "Invalid user");
-            return ResponseEntity.badRequest().body(response);
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(response));
         }
 
         User.Role userRole = triggeredBy.getRole();
@@ -407,7 +419,7 @@ public class ProjectController {
                 userRole != User.Role.ADMIN) {
                 response.put("success", false);
                 response.put("message", "Access denied. Only Admin can deploy to environment " + environmentName);
-                return ResponseEntity.status(403).body(response);
+                return CompletableFuture.completedFuture(ResponseEntity.status(403).body(response));
             }
         }
 
@@ -417,7 +429,7 @@ public class ProjectController {
             if (!hasAccess) {
                 response.put("success", false);
                 response.put("message", "Access denied. You are not assigned to this project");
-                return ResponseEntity.status(403).body(response);
+                return CompletableFuture.completedFuture(ResponseEntity.status(403).body(response));
             }
         }
 
@@ -433,16 +445,15 @@ public class ProjectController {
             ? deploymentRequest.getEnvName()
             : environmentOpt.map(Environment::getName).orElse(null);
         // Trigger Jenkins setelah mencatat deployment history
-        boolean jenkinsSuccess = true;
-        String jenkinsMsg = "Deployment triggered";
-        Integer buildNumber = null;
-        try {
-            System.out.println("🚀 ProjectController: Triggering Jenkins job for project: " + project.getName());
-            System.out.println("   Project ID: " + project.getId());
-            System.out.println("   Environment: " + environmentOpt.map(Environment::getName).orElse("N/A"));
-            System.out.println("   Version: " + deploymentRequest.getVersion());
-
-            Map<String, Object> jenkinsResult = jenkinsService.triggerJenkinsJob(
+        System.out.println("🚀 ProjectController: Triggering Jenkins job for project: " + project.getName());
+        System.out.println("   Project ID: " + project.getId());
+        System.out.println("   Environment: " + environmentOpt.map(Environment::getName).orElse("N/A"));
+        System.out.println("   Version: " + deploymentRequest.getVersion());
+
+        // The trigger runs on the non-blocking Jenkins client; the follow-up bookkeeping
+        // touches the database, so it hops onto the task executor instead of running on
+        // the HTTP client's I/O thread.
+        return jenkinsService.triggerJenkinsJobAsync(
                 project,
                 environmentOpt.orElse(null),
                 deploymentRequest.getVersion(),
@@ -451,61 +462,103 @@ public class ProjectController {
                 envNameToSend,
                 deploymentRequest.getJenkinsParameters(),
                 triggeredBy
-            );
-            
-            System.out.println("📋 ProjectController: Jenkins result received:");
-            System.out.println("   Success: " + jenkinsResult.get("success"));
-            System.out.println("   Build Number: " + jenkinsResult.get("buildNumber"));
-            System.out.println("   Build URL: " + jenkinsResult.get("buildUrl"));
-            System.out.println("   Build Location: " + jenkinsResult.get("buildLocation"));
-            System.out.println("   Full Jenkins Result: " + jenkinsResult);
-            
-            if ((Boolean) jenkinsResult.get("success")) {
-                // Try to get build number from Jenkins response
-                if (jenkinsResult.containsKey("buildNumber")) {
-                    buildNumber = (Integer) jenkinsResult.get("buildNumber");
-                    System.out.println("✅ ProjectController: Using build number from Jenkins result: " + buildNumber);
-                } else {
-                    System.out.println("⚠️ ProjectController: No build number in Jenkins result");
+            ).handleAsync((jenkinsResult, ex) -> {
+                boolean jenkinsSuccess = true;
+                String jenkinsMsg = "Deployment triggered";
+                Integer buildNumber = null;
+                try {
+                    if (ex != null) {
+                        throw ex;
+                    }
+
+                    System.out.println("📋 ProjectController: Jenkins result received:");
+                    System.out.println("   Success: " + jenkinsResult.get("success"));
+                    System.out.println("   Build Number: " + jenkinsResult.get("buildNumber"));
+                    System.out.println("   Build URL: " + jenkinsResult.get("buildUrl"));
+                    System.out.println("   Build Location: " + jenkinsResult.get("buildLocation"));
+                    System.out.println("   Full Jenkins Result: " + jenkinsResult);
+
+                    if ((Boolean) jenkinsResult.get("success")) {
+                        // Try to get build number from Jenkins response
+                        if (jenkinsResult.containsKey("buildNumber")) {
+                            buildNumber = (Integer) jenkinsResult.get("buildNumber");
+                            System.out.println("✅ ProjectController: Using build number from Jenkins result: " + buildNumber);
+                        } else {
+                            System.out.println("⚠️ ProjectController: No build number in Jenkins result");
+                        }
+
+                        // Update deployment with Jenkins build info if available
+                        if (buildNumber != null) {
+                            String buildUrl = (String) jenkinsResult.get("buildUrl");
+                            deploymentService.updateJenkinsBuildInfo(deployment.getId(), buildNumber, buildUrl);
+
+                            // Start monitoring the build
+                            jenkinsBuildMonitorService.startMonitoring(
+                                deployment.getId(),
+                                project.getName(),
+                                project.getJenkinsJobName(),
+                                project.getJenkinsUrl(),
+                                buildNumber,
+                                environmentId
+                            );
+                        } else if (jenkinsResult.containsKey("queueItemUrl")) {
+                            // The build is still queued: answer now with the queue ticket and
+                            // attach the build info and monitoring once Jenkins starts it
+                            String queueItemUrl = (String) jenkinsResult.get("queueItemUrl");
+                            response.put("queueItemUrl", queueItemUrl);
+                            response.put("queueId", jenkinsResult.get("queueId"));
+                            attachWhenBuildStarts(deployment.getId(), environmentId, project, queueItemUrl);
+                        }
+
+                        // Note: Bell notification will only be created when deployment is completed (SUCCESS/FAILED)
+                        // to avoid spam notifications during trigger phase
+                        System.out.println("📧 Bell notification will be created when deployment completes");
+
+                    } else {
+                        jenkinsSuccess = false;
+                        jenkinsMsg = "Deployment recorded, but failed to trigger Jenkins: " + jenkinsResult.get("message");
+                        System.err.println("Failed to trigger Jenkins: " + jenkinsResult.get("message"));
+                    }
+                } catch (Throwable e) {
+                    Throwable cause = JenkinsClient.unwrap(e);
+                    jenkinsSuccess = false;
+                    jenkinsMsg = "Deployment recorded, but failed to trigger Jenkins: " + cause.getMessage();
+                    System.err.println("Failed to trigger Jenkins: " + cause.getMessage());
                 }
-            
-            // Update deployment with Jenkins build info if available
-            if (buildNumber != null) {
-                String buildUrl = (String) jenkinsResult.get("buildUrl");
-                deploymentService.updateJenkinsBuildInfo(deployment.getId(), buildNumber, buildUrl);
-                
-                // Start monitoring the build
-                jenkinsBuildMonitorService.startMonitoring(
-                    deployment.getId(),
-                    project.getName(),
-                    project.getJenkinsJobName(),
-                    project.getJenkinsUrl(),
-                    buildNumber
-                );
-            }
-            
-            // Note: Bell notification will only be created when deployment is completed (SUCCESS/FAILED)
-            // to avoid spam notifications during trigger phase
-            System.out.println("📧 Bell notification will be created when deployment completes");
-            
-        } else {
-            jenkinsSuccess = false;
-            jenkinsMsg = "Deployment recorded, but failed to trigger Jenkins: " + jenkinsResult.get("message");
-            System.err.println("Failed to trigger Jenkins: " + jenkinsResult.get("message"));
-        }
-        } catch (Exception e) {
-            jenkinsSuccess = false;
-            jenkinsMsg = "Deployment recorded, but failed to trigger Jenkins: " + e.getMessage();
-            System.err.println("Failed to trigger Jenkins: " + e.getMessage());
-        }
 
-        response.put("success", jenkinsSuccess);
-        response.put("message", jenkinsMsg);
-        response.put("deployment", deployment);
-        if (buildNumber != null) {
-            response.put("buildNumber", buildNumber);
-        }
-        return ResponseEntity.ok(response);
+                response.put("success", jenkinsSuccess);
+                response.put("message", jenkinsMsg);
+                response.put("deployment", deployment);
+                if (buildNumber != null) {
+                    response.put("buildNumber", buildNumber);
+                }
+                if (jenkinsSuccess) {
+                    // How long deployments of this project (to this environment) usually take
+                    response.put("eta", buildDurationService.getEta(deployment));
+                }
+                return ResponseEntity.ok(response);
+            }, taskExecutor);
+    }
+
+    private void attachWhenBuildStarts(Long deploymentId, Long environmentId, Project project, String queueItemUrl) {
+        jenkinsService.resolveQueuedBuild(project, queueItemUrl).whenCompleteAsync((build, ex) -> {
+            if (ex != null) {
+                System.err.println("❌ Could not resolve build number for deployment " + deploymentId + ": "
+                    + JenkinsClient.unwrap(ex).getMessage());
+                return;
+            }
+            Integer buildNumber = (Integer) build.get("buildNumber");
+            System.out.println("✅ ProjectController: Deployment " + deploymentId + " is Jenkins build #" + buildNumber);
+            deploymentService.updateJenkinsBuildInfo(deploymentId, buildNumber, (String) build.get("buildUrl"));
+            jenkinsBuildMonitorService.startMonitoring(
+                deploymentId,
+                project.getName(),
+                project.getJenkinsJobName(),
+                project.getJenkinsUrl(),
+                buildNumber,
+                environmentId
+            );
+        }, taskExecutor);
     }
 
     @GetMapping("/{id}/deployments")
@@ -7,7 +7,12 @@ import com.cibofdevs.envpilot.dto.PasswordChangeRequest;
 import com.cibofdevs.envpilot.service.SystemSettingService;
 import com.cibofdevs.envpilot.service.FeatureFlagService;
 import com.cibofdevs.envpilot.service.EmailService;
+import com.cibofdevs.envpilot.service.BuildDurationService;
+import com.cibofdevs.envpilot.service.DeploymentReconciliationService;
+import com.cibofdevs.envpilot.service.JenkinsClient;
 import com.cibofdevs.envpilot.service.JenkinsBuildMonitorService;
+import com.cibofdevs.envpilot.service.JenkinsResilienceService;
+import com.cibofdevs.envpilot.service.JenkinsWebhookService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
@@ -58,6 +63,21 @@ public class SettingsController {
     @Autowired
     private JenkinsBuildMonitorService jenkinsBuildMonitorService;
 
+    @Autowired
+    private JenkinsResilienceService jenkinsResilienceService;
+
+    @Autowired
+    private JenkinsWebhookService jenkinsWebhookService;
+
+    @Autowired
+    private JenkinsClient jenkinsClient;
+
+    @Autowired
+    private DeploymentReconciliationService deploymentReconciliationService;
+
+    @Autowired
+    private BuildDurationService buildDurationService;
+
     // System Settings (Admin only)
     @GetMapping("/system")
     @PreAuthorize("hasRole('ADMIN')")
@@ -373,6 +393,15 @@ public class SettingsController {
     )
     public ResponseEntity<Map<String, Object>> getJenkinsMonitoringStats() {
         Map<String, Object> stats = jenkinsBuildMonitorService.getMonitoringStats();
+        // Circuit breaker / bulkhead state per Jenkins server
+        stats.put("jenkinsHosts", jenkinsResilienceService.getHostStates());
+        stats.put("webhooks", jenkinsWebhookService.getStats());
+        // Identical concurrent Jenkins reads served by one request
+        stats.put("requestCoalescing", jenkinsClient.getCoalescingStats());
+        // Queue depth and lag of the deployment reconciliation loop
+        stats.put("reconciliation", deploymentReconciliationService.getStats());
+        // Deployment duration sketches behind the ETAs
+        stats.put("durations", buildDurationService.getStats());
         return ResponseEntity.ok(stats);
     }
 
@@ -0,0 +1,57 @@
+package com.cibofdevs.envpilot.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of one Jenkins build, as read from lastBuild/api/json, /{n}/api/json or one
+ * entry of a tree query's builds[] (see JenkinsJsonParser). result is null while the
+ * build runs; estimatedDuration is -1 when Jenkins didn't send it.
+ */
+public record BuildStatus(
+        int number,
+        String result,
+        boolean building,
+        long timestamp,
+        long duration,
+        long estimatedDuration,
+        String url,
+        String description) {
+
+    public String resultOrInProgress() {
+        return result != null ? result : "IN_PROGRESS";
+    }
+
+    public boolean isSuccess() {
+        return "SUCCESS".equals(result);
+    }
+
+    public boolean isFailure() {
+        return isFailureResult(result);
+    }
+
+    /**
+     * Whether a Jenkins result counts as a failed deployment.
+     */
+    public static boolean isFailureResult(String result) {
+        return "FAILURE".equals(result) || "ABORTED".equals(result) || "UNSTABLE".equals(result);
+    }
+
+    /**
+     * The result map getLastBuildStatus has always returned.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("success", true);
+        map.put("buildNumber", number);
+        map.put("result", resultOrInProgress());
+        map.put("building", building);
+        map.put("timestamp", timestamp);
+        map.put("duration", duration);
+        map.put("url", url != null ? url : "");
+        if (description != null) {
+            map.put("description", description);
+        }
+        return map;
+    }
+}
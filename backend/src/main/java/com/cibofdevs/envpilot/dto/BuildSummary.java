@@ -0,0 +1,39 @@
+package com.cibofdevs.envpilot.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One entry of a job's build list, with the EnvPilot user who triggered it taken from
+ * the TRIGGERED_BY_USER_* build parameters (null for builds started elsewhere).
+ */
+public record BuildSummary(
+        int number,
+        String result,
+        boolean building,
+        long timestamp,
+        long duration,
+        String url,
+        String description,
+        String triggeredByUserId,
+        String triggeredByUserName,
+        String triggeredByUserEmail) {
+
+    /**
+     * The build map getRecentBuilds has always returned; absent values are left out.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("number", number);
+        map.put("building", building);
+        map.put("timestamp", timestamp);
+        map.put("duration", duration);
+        if (result != null) map.put("result", result);
+        if (url != null) map.put("url", url);
+        if (description != null) map.put("description", description);
+        if (triggeredByUserId != null) map.put("triggeredByUserId", triggeredByUserId);
+        if (triggeredByUserName != null) map.put("triggeredByUserName", triggeredByUserName);
+        if (triggeredByUserEmail != null) map.put("triggeredByUserEmail", triggeredByUserEmail);
+        return map;
+    }
+}
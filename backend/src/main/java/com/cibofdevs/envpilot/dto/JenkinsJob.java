@@ -0,0 +1,7 @@
+package com.cibofdevs.envpilot.dto;
+
+/**
+ * A Jenkins job as returned by job/{name}/api/json?tree=name,url.
+ */
+public record JenkinsJob(String name, String url) {
+}
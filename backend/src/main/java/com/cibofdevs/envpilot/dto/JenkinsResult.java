@@ -0,0 +1,63 @@
+package com.cibofdevs.envpilot.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Outcome of a Jenkins call: either a Success carrying the typed value or a Failure with
+ * the error message and, when Jenkins answered, its HTTP status (0 otherwise). Callers
+ * branch with instanceof instead of unboxing fields out of a result map.
+ */
+public sealed interface JenkinsResult<T> permits JenkinsResult.Success, JenkinsResult.Failure {
+
+    record Success<T>(T value) implements JenkinsResult<T> {
+    }
+
+    record Failure<T>(String message, int statusCode) implements JenkinsResult<T> {
+        public Failure(String message) {
+            this(message, 0);
+        }
+    }
+
+    static <T> JenkinsResult<T> success(T value) {
+        return new Success<>(value);
+    }
+
+    static <T> JenkinsResult<T> failure(String message) {
+        return new Failure<>(message);
+    }
+
+    static <T> JenkinsResult<T> failure(String message, int statusCode) {
+        return new Failure<>(message, statusCode);
+    }
+
+    default boolean isSuccess() {
+        return this instanceof Success;
+    }
+
+    /**
+     * The value, or null for a failure.
+     */
+    default T valueOrNull() {
+        return this instanceof Success<T> success ? success.value() : null;
+    }
+
+    /**
+     * The success/message result map the REST API returns; successes are rendered by
+     * successMapper (which must set "success").
+     */
+    default Map<String, Object> toMap(Function<T, Map<String, Object>> successMapper) {
+        if (this instanceof Success<T> success) {
+            return successMapper.apply(success.value());
+        }
+        Failure<T> failure = (Failure<T>) this;
+        Map<String, Object> map = new HashMap<>();
+        map.put("success", false);
+        map.put("message", failure.message());
+        if (failure.statusCode() > 0) {
+            map.put("statusCode", failure.statusCode());
+        }
+        return map;
+    }
+}
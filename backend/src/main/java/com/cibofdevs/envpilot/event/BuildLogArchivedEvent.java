@@ -0,0 +1,24 @@
+package com.cibofdevs.envpilot.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published once a finished build's console log has been written to the local archive.
+ */
+@Getter
+public class BuildLogArchivedEvent extends ApplicationEvent {
+
+    private final Long projectId;
+    private final Long environmentId;
+    private final int buildNumber;
+    private final long finishedAt;
+
+    public BuildLogArchivedEvent(Object source, Long projectId, Long environmentId, int buildNumber, long finishedAt) {
+        super(source);
+        this.projectId = projectId;
+        this.environmentId = environmentId;
+        this.buildNumber = buildNumber;
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cibofdevs.envpilot.listener;
+
+import com.cibofdevs.envpilot.event.BuildLogArchivedEvent;
+import com.cibofdevs.envpilot.service.BuildLogSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class BuildLogArchivedEventListener {
+
+    @Autowired
+    private BuildLogSearchService buildLogSearchService;
+
+    // Runs on the archive worker thread that published the event, so indexing stays
+    // off request and monitor threads
+    @EventListener
+    public void handleBuildLogArchived(BuildLogArchivedEvent event) {
+        try {
+            buildLogSearchService.indexBuild(event.getProjectId(), event.getEnvironmentId(), event.getBuildNumber(),
+                event.getFinishedAt());
+        } catch (Exception e) {
+            System.err.println("❌ Failed to index build log for project " + event.getProjectId() + " #"
+                + event.getBuildNumber() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.cibofdevs.envpilot.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A Jenkins controller as reached with one credential. Projects with the same Jenkins
+ * URL, username and token reference the same server, so connections, crumbs and health
+ * are shared between them (see JenkinsServerRegistry). The token itself stays on the
+ * projects; a server only keeps its SHA-256 fingerprint to tell credentials apart.
+ */
+@Entity
+@Table(name = "jenkins_servers", uniqueConstraints = @UniqueConstraint(columnNames = {"url", "username", "token_fingerprint"}))
+@Schema(description = "Jenkins server entity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JenkinsServer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Schema(description = "Jenkins server ID", example = "1")
+    private Long id;
+
+    @Column(nullable = false, length = 500)
+    @Schema(description = "Jenkins base URL, with a trailing slash", example = "http://jenkins.example.com/")
+    private String url;
+
+    @Column(nullable = false)
+    @Schema(description = "Jenkins username", example = "envpilot")
+    private String username;
+
+    @Column(name = "token_fingerprint", nullable = false, length = 64)
+    @JsonIgnore
+    private String tokenFingerprint;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,32 @@
+package com.cibofdevs.envpilot.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An EnvPilot instance taking part in deployment monitoring; live while its heartbeat is
+ * recent (see MonitorLeaseService).
+ */
+@Entity
+@Table(name = "monitor_nodes")
+@Schema(description = "Monitor node entity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonitorNode {
+    @Id
+    @Column(name = "node_id")
+    @Schema(description = "Node ID", example = "envpilot-1-3f2a9c1e")
+    private String nodeId;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,70 @@
+package com.cibofdevs.envpilot.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deployment whose Jenkins build JenkinsBuildMonitorService is waiting on. The monitor
+ * keeps its schedule in memory and mirrors it here, so it can pick up where it left off
+ * after a restart. With several EnvPilot nodes, each deployment is leased to one node
+ * (see MonitorLeaseService).
+ */
+@Entity
+@Table(name = "monitored_deployments")
+@Schema(description = "Monitored deployment entity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonitoredDeployment {
+    @Id
+    @Column(name = "deployment_id")
+    @Schema(description = "Deployment history ID", example = "1")
+    private Long deploymentId;
+
+    @Column(name = "project_name")
+    @Schema(description = "Project name", example = "My Project")
+    private String projectName;
+
+    @Column(name = "jenkins_job", nullable = false)
+    @Schema(description = "Jenkins job name", example = "my-project-deploy")
+    private String jenkinsJob;
+
+    @Column(name = "jenkins_url", length = 500)
+    @Schema(description = "Jenkins URL", example = "http://jenkins.example.com")
+    private String jenkinsUrl;
+
+    @Column(name = "expected_build_number")
+    @Schema(description = "Jenkins build number being waited on", example = "123")
+    private Integer expectedBuildNumber;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "next_check_at", nullable = false)
+    private LocalDateTime nextCheckAt;
+
+    @Column(name = "attempt_count", nullable = false)
+    @Schema(description = "Status checks made so far", example = "3")
+    private Integer attemptCount = 0;
+
+    @Column(name = "owner_node")
+    @Schema(description = "Node currently monitoring the deployment", example = "envpilot-1-3f2a9c1e")
+    private String ownerNode;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
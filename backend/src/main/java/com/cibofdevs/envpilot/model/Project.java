@@ -62,6 +62,13 @@ public class Project {
     @Column(name = "jenkins_token")
     private String jenkinsToken;
 
+    // The server the Jenkins URL and credentials above resolve to, linked on save
+    // (see JenkinsServerRegistry)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "jenkins_server_id")
+    @JsonIgnore
+    private JenkinsServer jenkinsServer;
+
     @Schema(description = "Whether deploying this project requires selecting an EnvPilot Environment (dev/staging/production). Some Jenkins jobs have no environment concept at all.", example = "true")
     @Column(name = "require_environment_selection", columnDefinition = "boolean default true")
     private boolean requireEnvironmentSelection = true;
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,12 +34,24 @@ public interface DeploymentHistoryRepository extends JpaRepository<DeploymentHis
     
     // Find deployments by status
     List<DeploymentHistory> findByStatusIn(List<DeploymentHistory.Status> statuses);
+
+    // Ids only, for the reconciliation loop's discovery of active deployments
+    @Query("SELECT dh.id FROM DeploymentHistory dh WHERE dh.status IN :statuses")
+    List<Long> findIdsByStatusIn(List<DeploymentHistory.Status> statuses);
     
     // Jenkins integration methods
     List<DeploymentHistory> findByProjectAndJenkinsBuildNumber(Project project, Integer jenkinsBuildNumber);
     
     // Real-time sync methods
     List<DeploymentHistory> findByStatusInAndCreatedAtAfter(List<DeploymentHistory.Status> statuses, LocalDateTime after);
+
+    // Build durations (id, project id, environment id, created, completed) in completion
+    // order, to seed the duration sketches at startup (see BuildDurationService)
+    @Query("SELECT dh.id, dh.project.id, e.id, dh.createdAt, dh.completedAt FROM DeploymentHistory dh " +
+           "LEFT JOIN dh.environment e " +
+           "WHERE dh.status IN :statuses AND dh.completedAt IS NOT NULL AND dh.completedAt > :after " +
+           "ORDER BY dh.completedAt")
+    List<Object[]> findCompletedDurationsAfter(List<DeploymentHistory.Status> statuses, LocalDateTime after);
     
     // EAGER loading methods to avoid LazyInitializationException
     @Query("SELECT dh FROM DeploymentHistory dh " +
@@ -55,10 +68,20 @@ public interface DeploymentHistoryRepository extends JpaRepository<DeploymentHis
            "WHERE dh.status IN :statuses AND dh.createdAt > :after")
     List<DeploymentHistory> findByStatusInAndCreatedAtAfterWithEagerLoading(List<DeploymentHistory.Status> statuses, LocalDateTime after);
     
+    // Environment is optional, so it is left-joined (the sync and verification of a
+    // deployment without one must still find it)
     @Query("SELECT dh FROM DeploymentHistory dh " +
            "JOIN FETCH dh.project " +
-           "JOIN FETCH dh.environment " +
+           "LEFT JOIN FETCH dh.environment " +
            "JOIN FETCH dh.triggeredBy " +
            "WHERE dh.id = :deploymentId")
     Optional<DeploymentHistory> findByIdWithEagerLoading(Long deploymentId);
+
+    // Environment is optional, so it is left-joined
+    @Query("SELECT dh FROM DeploymentHistory dh " +
+           "JOIN FETCH dh.project " +
+           "LEFT JOIN FETCH dh.environment " +
+           "JOIN FETCH dh.triggeredBy " +
+           "WHERE dh.id IN :deploymentIds")
+    List<DeploymentHistory> findByIdInWithEagerLoading(Collection<Long> deploymentIds);
 }
@@ -0,0 +1,12 @@
+package com.cibofdevs.envpilot.repository;
+
+import com.cibofdevs.envpilot.model.JenkinsServer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JenkinsServerRepository extends JpaRepository<JenkinsServer, Long> {
+    Optional<JenkinsServer> findByUrlAndUsernameAndTokenFingerprint(String url, String username, String tokenFingerprint);
+}
@@ -0,0 +1,32 @@
+package com.cibofdevs.envpilot.repository;
+
+import com.cibofdevs.envpilot.model.MonitorNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Times are taken from the database clock so nodes with skewed clocks agree on liveness.
+ */
+@Repository
+public interface MonitorNodeRepository extends JpaRepository<MonitorNode, String> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO monitor_nodes (node_id, started_at, heartbeat_at) VALUES (:nodeId, now(), now()) "
+        + "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = now()", nativeQuery = true)
+    void heartbeat(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT node_id FROM monitor_nodes WHERE heartbeat_at > now() - make_interval(secs => :timeoutSeconds) "
+        + "ORDER BY node_id", nativeQuery = true)
+    List<String> findLiveNodeIds(@Param("timeoutSeconds") int timeoutSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM monitor_nodes WHERE heartbeat_at < now() - make_interval(secs => :timeoutSeconds)", nativeQuery = true)
+    int deleteDeadNodes(@Param("timeoutSeconds") int timeoutSeconds);
+}
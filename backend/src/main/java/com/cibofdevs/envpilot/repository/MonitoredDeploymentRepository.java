@@ -0,0 +1,84 @@
+package com.cibofdevs.envpilot.repository;
+
+import com.cibofdevs.envpilot.model.MonitoredDeployment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lease times are taken from the database clock so nodes with skewed clocks agree on
+ * when a lease has expired.
+ */
+@Repository
+public interface MonitoredDeploymentRepository extends JpaRepository<MonitoredDeployment, Long> {
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO monitored_deployments (deployment_id, project_name, jenkins_job, jenkins_url, "
+        + "expected_build_number, started_at, next_check_at, attempt_count, owner_node, lease_expires_at, updated_at) "
+        + "VALUES (:deploymentId, :projectName, :jenkinsJob, :jenkinsUrl, :expectedBuildNumber, :startedAt, :nextCheckAt, 0, "
+        + ":nodeId, now() + make_interval(secs => :leaseSeconds), now()) "
+        + "ON CONFLICT (deployment_id) DO UPDATE SET project_name = EXCLUDED.project_name, jenkins_job = EXCLUDED.jenkins_job, "
+        + "jenkins_url = EXCLUDED.jenkins_url, expected_build_number = EXCLUDED.expected_build_number, "
+        + "started_at = EXCLUDED.started_at, next_check_at = EXCLUDED.next_check_at, attempt_count = 0, "
+        + "owner_node = EXCLUDED.owner_node, lease_expires_at = EXCLUDED.lease_expires_at, updated_at = now()",
+        nativeQuery = true)
+    void register(@Param("deploymentId") Long deploymentId, @Param("projectName") String projectName,
+                  @Param("jenkinsJob") String jenkinsJob, @Param("jenkinsUrl") String jenkinsUrl,
+                  @Param("expectedBuildNumber") Integer expectedBuildNumber, @Param("startedAt") LocalDateTime startedAt,
+                  @Param("nextCheckAt") LocalDateTime nextCheckAt, @Param("nodeId") String nodeId,
+                  @Param("leaseSeconds") int leaseSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE monitored_deployments SET next_check_at = :nextCheckAt, attempt_count = :attemptCount, "
+        + "updated_at = now() WHERE deployment_id = :deploymentId AND owner_node = :nodeId", nativeQuery = true)
+    int updateSchedule(@Param("deploymentId") Long deploymentId, @Param("nextCheckAt") LocalDateTime nextCheckAt,
+                       @Param("attemptCount") int attemptCount, @Param("nodeId") String nodeId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE monitored_deployments SET lease_expires_at = now() + make_interval(secs => :leaseSeconds) "
+        + "WHERE owner_node = :nodeId", nativeQuery = true)
+    int renewLeases(@Param("nodeId") String nodeId, @Param("leaseSeconds") int leaseSeconds);
+
+    @Query("SELECT m.deploymentId FROM MonitoredDeployment m WHERE m.ownerNode = :nodeId")
+    List<Long> findDeploymentIdsByOwnerNode(@Param("nodeId") String nodeId);
+
+    @Query(value = "SELECT deployment_id FROM monitored_deployments WHERE owner_node <> :nodeId "
+        + "AND lease_expires_at > now()", nativeQuery = true)
+    List<Long> findDeploymentIdsLeasedByOtherNodes(@Param("nodeId") String nodeId);
+
+    /**
+     * Unowned or expired rows, most urgent first, locked for the calling transaction.
+     * Rows another node is claiming at the same moment are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM monitored_deployments WHERE owner_node IS NULL OR lease_expires_at IS NULL "
+        + "OR lease_expires_at < now() ORDER BY next_check_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MonitoredDeployment> lockClaimable(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE monitored_deployments SET owner_node = :nodeId, "
+        + "lease_expires_at = now() + make_interval(secs => :leaseSeconds) WHERE deployment_id IN (:deploymentIds)",
+        nativeQuery = true)
+    int claim(@Param("deploymentIds") Collection<Long> deploymentIds, @Param("nodeId") String nodeId,
+              @Param("leaseSeconds") int leaseSeconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE monitored_deployments SET owner_node = NULL, lease_expires_at = NULL "
+        + "WHERE deployment_id IN (:deploymentIds) AND owner_node = :nodeId", nativeQuery = true)
+    int release(@Param("deploymentIds") Collection<Long> deploymentIds, @Param("nodeId") String nodeId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE monitored_deployments SET owner_node = NULL, lease_expires_at = NULL "
+        + "WHERE owner_node = :nodeId", nativeQuery = true)
+    int releaseAll(@Param("nodeId") String nodeId);
+}
@@ -1,9 +1,12 @@
 package com.cibofdevs.envpilot.repository;
 
+import com.cibofdevs.envpilot.model.JenkinsServer;
 import com.cibofdevs.envpilot.model.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -20,6 +23,9 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     List<Project> findByCreatedAtAfter(LocalDateTime date);
     List<Project> findByCreatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     long countByCreatedAtAfter(LocalDateTime date);
+
+    // Projects created or edited since, for the Jenkins server registry's refresh
+    List<Project> findByUpdatedAtAfter(LocalDateTime date);
     
     // Project assignment methods
     @Query("SELECT DISTINCT p FROM Project p JOIN p.assignments a WHERE a.user.id = ?1")
@@ -27,4 +33,10 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     
     // Jenkins integration methods
     Optional<Project> findByJenkinsJobName(String jenkinsJobName);
+
+    // Bulk update, so linking doesn't touch updated_at
+    @Modifying
+    @Transactional
+    @Query("UPDATE Project p SET p.jenkinsServer = ?2 WHERE p.id = ?1")
+    int linkJenkinsServer(Long projectId, JenkinsServer jenkinsServer);
 }
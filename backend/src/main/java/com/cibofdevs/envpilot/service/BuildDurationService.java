@@ -0,0 +1,217 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.DeploymentHistory;
+import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Predicts how long deployments take and when a running one will finish, and turns that
+ * into a polling interval: sparse while the end is far away, dense around the predicted end.
+ *
+ * Durations (completedAt - createdAt) are kept in one quantile sketch per project and
+ * environment, plus one per project across its environments (see DurationSketch). Each
+ * completion is added as it is recorded; the history is only read once, at startup, to
+ * seed the sketches. Completions recorded on other nodes reach this one's sketches at
+ * its next restart.
+ */
+@Service
+public class BuildDurationService {
+
+    public static final long DEFAULT_POLL_INTERVAL_MS = 10 * 1000;
+    public static final long MIN_POLL_INTERVAL_MS = 2 * 1000;
+    public static final long MAX_POLL_INTERVAL_MS = 60 * 1000;
+
+    private static final int MIN_HISTORY_SAMPLES = 3;
+    // How far back the startup seed reads
+    private static final int SEED_DAYS = 90;
+    // Recently recorded deployments, so one completed by both the monitor and the sync counts once
+    private static final int RECENT_COMPLETIONS = 1000;
+
+    private static final List<DeploymentHistory.Status> FINISHED_STATUSES =
+        List.of(DeploymentHistory.Status.SUCCESS, DeploymentHistory.Status.FAILED);
+
+    @Autowired
+    private DeploymentHistoryRepository deploymentHistoryRepository;
+
+    // environmentId null = all of the project's deployments
+    private record SketchKey(Long projectId, Long environmentId) {
+    }
+
+    // Guarded by this
+    private final Map<SketchKey, DurationSketch> sketches = new HashMap<>();
+    private final Map<Long, Boolean> recentCompletions = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_COMPLETIONS;
+        }
+    };
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedFromHistory() {
+        try {
+            List<Object[]> rows = deploymentHistoryRepository.findCompletedDurationsAfter(FINISHED_STATUSES,
+                LocalDateTime.now().minusDays(SEED_DAYS));
+            int seeded = 0;
+            for (Object[] row : rows) {
+                if (record((Long) row[0], (Long) row[1], (Long) row[2], (LocalDateTime) row[3], (LocalDateTime) row[4])) {
+                    seeded++;
+                }
+            }
+            System.out.println("⏱️ Seeded deployment duration sketches with " + seeded + " deployment(s) from the last "
+                + SEED_DAYS + " days");
+        } catch (Exception e) {
+            // Predictions start from Jenkins' estimates alone and fill in as deployments finish
+            System.err.println("⚠️ Failed to seed deployment durations: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Add a finished deployment's duration to its sketches. Each deployment counts once;
+     * unfinished ones are ignored.
+     */
+    public void recordCompletion(DeploymentHistory deployment) {
+        if (!FINISHED_STATUSES.contains(deployment.getStatus()) || deployment.getProject() == null) {
+            return;
+        }
+        Long environmentId = deployment.getEnvironment() != null ? deployment.getEnvironment().getId() : null;
+        if (record(deployment.getId(), deployment.getProject().getId(), environmentId,
+                deployment.getCreatedAt(), deployment.getCompletedAt())) {
+            System.out.println("⏱️ Recorded duration of deployment " + deployment.getId() + ": "
+                + Duration.between(deployment.getCreatedAt(), deployment.getCompletedAt()).toSeconds() + "s");
+        }
+    }
+
+    private synchronized boolean record(Long deploymentId, Long projectId, Long environmentId,
+                                        LocalDateTime createdAt, LocalDateTime completedAt) {
+        if (createdAt == null || completedAt == null || !completedAt.isAfter(createdAt)) {
+            return false;
+        }
+        if (recentCompletions.put(deploymentId, Boolean.TRUE) != null) {
+            return false;
+        }
+        long durationMs = Duration.between(createdAt, completedAt).toMillis();
+        sketches.computeIfAbsent(new SketchKey(projectId, null), key -> new DurationSketch()).add(durationMs);
+        if (environmentId != null) {
+            sketches.computeIfAbsent(new SketchKey(projectId, environmentId), key -> new DurationSketch()).add(durationMs);
+        }
+        return true;
+    }
+
+    /**
+     * The sketch to predict from: the environment's own if it has MIN_HISTORY_SAMPLES,
+     * else the project's. Null if neither has enough samples.
+     */
+    private DurationSketch sketchFor(Long projectId, Long environmentId) {
+        DurationSketch sketch = environmentId != null ? sketches.get(new SketchKey(projectId, environmentId)) : null;
+        if (sketch == null || sketch.samples() < MIN_HISTORY_SAMPLES) {
+            sketch = sketches.get(new SketchKey(projectId, null));
+        }
+        return sketch != null && sketch.samples() >= MIN_HISTORY_SAMPLES ? sketch : null;
+    }
+
+    /**
+     * Median duration of the project's deployments to the environment (any environment if
+     * null or too few samples), or -1 if there are fewer than MIN_HISTORY_SAMPLES of them.
+     */
+    public synchronized long getHistoricalDurationMs(Long projectId, Long environmentId) {
+        DurationSketch sketch = sketchFor(projectId, environmentId);
+        return sketch != null ? sketch.quantile(0.5) : -1;
+    }
+
+    /**
+     * ETA of a deployment started at startedAt: the median and 90th percentile of past
+     * durations (p50Ms, p90Ms) and the times they put the end at (p50At, p90At, epoch
+     * millis), with the number of samples and whether they are the environment's own.
+     * Null if there isn't enough history.
+     */
+    public synchronized Map<String, Object> getEta(Long projectId, Long environmentId, long startedAt) {
+        DurationSketch sketch = sketchFor(projectId, environmentId);
+        if (sketch == null) {
+            return null;
+        }
+        long p50 = sketch.quantile(0.5);
+        long p90 = sketch.quantile(0.9);
+        Map<String, Object> eta = new HashMap<>();
+        eta.put("p50Ms", p50);
+        eta.put("p90Ms", p90);
+        eta.put("p50At", startedAt + p50);
+        eta.put("p90At", startedAt + p90);
+        eta.put("samples", sketch.samples());
+        eta.put("scope", environmentId != null && sketch == sketches.get(new SketchKey(projectId, environmentId))
+            ? "environment" : "project");
+        return eta;
+    }
+
+    /**
+     * getEta for a deployment, from its creation time; null if it has none or there isn't
+     * enough history.
+     */
+    public Map<String, Object> getEta(DeploymentHistory deployment) {
+        if (deployment.getProject() == null || deployment.getCreatedAt() == null) {
+            return null;
+        }
+        return getEta(deployment.getProject().getId(),
+            deployment.getEnvironment() != null ? deployment.getEnvironment().getId() : null,
+            deployment.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Predicted end time (epoch millis) of a build, or -1 if nothing is known. Combines
+     * the history-based end (deployment start + median duration) with Jenkins' estimate
+     * (build start + estimatedDuration) by averaging when both are available.
+     */
+    public long predictEndAt(Long projectId, Long environmentId, long deploymentStartedAt, long buildStartedAt,
+                             long jenkinsEstimatedDurationMs) {
+        long historicalMs = getHistoricalDurationMs(projectId, environmentId);
+        long historicalEnd = historicalMs > 0 ? deploymentStartedAt + historicalMs : -1;
+        long jenkinsEnd = buildStartedAt > 0 && jenkinsEstimatedDurationMs > 0 ? buildStartedAt + jenkinsEstimatedDurationMs : -1;
+
+        if (historicalEnd > 0 && jenkinsEnd > 0) {
+            return (historicalEnd + jenkinsEnd) / 2;
+        }
+        return Math.max(historicalEnd, jenkinsEnd);
+    }
+
+    /**
+     * How long to wait before the next status check. Before the predicted end, waits
+     * half of the remaining time (so checks get denser towards it); after it, starts at
+     * MIN_POLL_INTERVAL_MS and slowly backs off to the default while the build overruns.
+     * Always between MIN_POLL_INTERVAL_MS and MAX_POLL_INTERVAL_MS.
+     */
+    public long nextPollDelayMs(long predictedEndAt, long now) {
+        if (predictedEndAt <= 0) {
+            return DEFAULT_POLL_INTERVAL_MS;
+        }
+        long delay = predictedEndAt > now
+            ? (predictedEndAt - now) / 2
+            : Math.min(DEFAULT_POLL_INTERVAL_MS, MIN_POLL_INTERVAL_MS + (now - predictedEndAt) / 10);
+        return Math.max(MIN_POLL_INTERVAL_MS, Math.min(MAX_POLL_INTERVAL_MS, delay));
+    }
+
+    /**
+     * Number of sketches and samples, for the settings stats.
+     */
+    public synchronized Map<String, Object> getStats() {
+        long samples = 0;
+        for (Map.Entry<SketchKey, DurationSketch> entry : sketches.entrySet()) {
+            if (entry.getKey().environmentId() == null) {
+                samples += entry.getValue().samples();
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("sketches", sketches.size());
+        stats.put("samples", samples);
+        return stats;
+    }
+}
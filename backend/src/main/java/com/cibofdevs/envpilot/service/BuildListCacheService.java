@@ -0,0 +1,123 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stale-while-revalidate cache of per-project Jenkins build lists, keyed by (project,
+ * limit). Entries younger than SOFT_TTL_MS are served as is; older ones are still served
+ * immediately while one background request refreshes them; only entries older than
+ * HARD_TTL_MS (or missing) make the caller wait for Jenkins. JenkinsBuildMonitorService
+ * drops a project's entries when it sees one of its builds finish.
+ */
+@Service
+public class BuildListCacheService {
+
+    private static final long SOFT_TTL_MS = 15 * 1000;
+    private static final long HARD_TTL_MS = 5 * 60 * 1000;
+
+    @Autowired
+    private JenkinsService jenkinsService;
+
+    private static final class CachedBuildList {
+        final CompletableFuture<Map<String, Object>> builds;
+        final long loadedAt;
+        // Jenkins URL, credentials and job the list was loaded with
+        final String source;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        CachedBuildList(CompletableFuture<Map<String, Object>> builds, long loadedAt, String source) {
+            this.builds = builds;
+            this.loadedAt = loadedAt;
+            this.source = source;
+        }
+    }
+
+    private final Map<String, CachedBuildList> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Same result as {@link JenkinsService#getRecentBuildsAsync(Project, Integer)}, from
+     * the cache when possible. Callers get their own copy and may modify it.
+     */
+    public CompletableFuture<Map<String, Object>> getRecentBuilds(Project project, int limit) {
+        if (!jenkinsService.isJenkinsConfigured(project)) {
+            return jenkinsService.getRecentBuildsAsync(project, limit);
+        }
+
+        String key = cacheKey(project.getId(), limit);
+        String source = jenkinsService.jenkinsHostKey(project) + "|" + project.getJenkinsJobName();
+        long now = System.currentTimeMillis();
+
+        CachedBuildList entry = cache.compute(key, (k, existing) -> {
+            if (existing == null || !existing.source.equals(source) || now - existing.loadedAt > HARD_TTL_MS) {
+                return load(key, project, limit, source);
+            }
+            return existing;
+        });
+
+        if (now - entry.loadedAt > SOFT_TTL_MS && entry.builds.isDone() && entry.refreshing.compareAndSet(false, true)) {
+            refreshInBackground(key, entry, project, limit);
+        }
+        return entry.builds.thenApply(this::copyResult);
+    }
+
+    /**
+     * Drop every cached build list of a project.
+     */
+    public void invalidateProject(Long projectId) {
+        String prefix = projectId + ":";
+        cache.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private CachedBuildList load(String key, Project project, int limit, String source) {
+        CachedBuildList entry = new CachedBuildList(jenkinsService.getRecentBuildsAsync(project, limit),
+            System.currentTimeMillis(), source);
+        // Don't keep failures around; the next page load should ask Jenkins again
+        entry.builds.thenAccept(result -> {
+            if (!Boolean.TRUE.equals(result.get("success"))) {
+                cache.remove(key, entry);
+            }
+        });
+        return entry;
+    }
+
+    private void refreshInBackground(String key, CachedBuildList stale, Project project, int limit) {
+        CachedBuildList fresh = new CachedBuildList(jenkinsService.getRecentBuildsAsync(project, limit),
+            System.currentTimeMillis(), stale.source);
+        fresh.builds.whenComplete((result, ex) -> {
+            // Only replaces the entry it refreshed, so an invalidation in the meantime wins
+            if (ex == null && Boolean.TRUE.equals(result.get("success"))) {
+                cache.replace(key, stale, fresh);
+            } else {
+                stale.refreshing.set(false);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> copyResult(Map<String, Object> result) {
+        Map<String, Object> copy = new HashMap<>(result);
+        Object builds = result.get("builds");
+        if (builds instanceof List<?> buildList) {
+            List<Map<String, Object>> buildsCopy = new ArrayList<>(buildList.size());
+            for (Object build : buildList) {
+                buildsCopy.add(new HashMap<>((Map<String, Object>) build));
+            }
+            copy.put("builds", buildsCopy);
+        }
+        return copy;
+    }
+
+    private String cacheKey(Long projectId, int limit) {
+        return projectId + ":" + limit;
+    }
+}
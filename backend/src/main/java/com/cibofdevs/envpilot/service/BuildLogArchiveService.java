@@ -0,0 +1,588 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.event.BuildLogArchivedEvent;
+import com.cibofdevs.envpilot.model.Project;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Local archive of finished builds' console logs, so viewing an old build neither
+ * depends on Jenkins still keeping it (build rotation) nor costs a Jenkins download.
+ *
+ * Layout per build: {archive-dir}/{projectId}/{buildNumber}/
+ *   segment-NNNNN.dat  concatenated Deflate blocks of BLOCK_SIZE bytes of log text each;
+ *                      a new segment is started once one reaches SEGMENT_MAX_BYTES
+ *   index.dat          block table (segment, offset, sizes, uncompressed start) and a
+ *                      line-offset index with the byte offset of every
+ *                      LINE_INDEX_INTERVAL-th line
+ * Reads map the segment files and inflate only the blocks a byte or line range touches.
+ */
+@Service
+public class BuildLogArchiveService {
+
+    private static final int INDEX_MAGIC = 0x454C4F47; // "ELOG"
+    private static final int INDEX_VERSION = 1;
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final long SEGMENT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final int LINE_INDEX_INTERVAL = 256;
+    private static final String INDEX_FILE = "index.dat";
+
+    // Parsed index files of recently read builds
+    private static final int INDEX_CACHE_SIZE = 64;
+
+    @Autowired
+    private JenkinsService jenkinsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${envpilot.build-logs.archive-dir:./data/build-logs}")
+    private String archiveDir;
+
+    private final Map<String, ArchiveIndex> indexCache = Collections.synchronizedMap(
+        new LinkedHashMap<String, ArchiveIndex>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ArchiveIndex> eldest) {
+                return size() > INDEX_CACHE_SIZE;
+            }
+        });
+
+    // Archiving downloads whole logs, so it runs one or two at a time in the background
+    private final ExecutorService archiveExecutor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<>(500), runnable -> {
+            Thread thread = new Thread(runnable, "build-log-archive");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+
+    private static final class BlockEntry {
+        final int segment;
+        final long segmentOffset;
+        final int compressedLength;
+        final long uncompressedStart;
+        final int uncompressedLength;
+
+        BlockEntry(int segment, long segmentOffset, int compressedLength, long uncompressedStart, int uncompressedLength) {
+            this.segment = segment;
+            this.segmentOffset = segmentOffset;
+            this.compressedLength = compressedLength;
+            this.uncompressedStart = uncompressedStart;
+            this.uncompressedLength = uncompressedLength;
+        }
+    }
+
+    private static final class ArchiveIndex {
+        final Path directory;
+        final long totalBytes;
+        final long totalLines;
+        final List<BlockEntry> blocks;
+        final long[] lineCheckpoints;
+
+        ArchiveIndex(Path directory, long totalBytes, long totalLines, List<BlockEntry> blocks, long[] lineCheckpoints) {
+            this.directory = directory;
+            this.totalBytes = totalBytes;
+            this.totalLines = totalLines;
+            this.blocks = blocks;
+            this.lineCheckpoints = lineCheckpoints;
+        }
+    }
+
+    /**
+     * Archive a finished build's console log in the background and publish a
+     * BuildLogArchivedEvent once it is stored. Does nothing if the build is already
+     * archived. environmentId may be null for projects without environments.
+     */
+    public void archiveBuildLogAsync(Project project, Long environmentId, int buildNumber) {
+        if (!jenkinsService.isJenkinsConfigured(project) || isArchived(project.getId(), buildNumber)) {
+            return;
+        }
+        archiveExecutor.execute(() -> {
+            try {
+                if (archiveBuildLog(project, buildNumber)) {
+                    eventPublisher.publishEvent(new BuildLogArchivedEvent(this, project.getId(), environmentId, buildNumber,
+                        System.currentTimeMillis()));
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Failed to archive build log for " + project.getName() + " #" + buildNumber + ": "
+                    + JenkinsClient.unwrap(e).getMessage());
+            }
+        });
+    }
+
+    /**
+     * Download the console log of a finished build and write it to the archive. The log
+     * is compressed block by block as it streams in, into a temporary directory that is
+     * moved into place once complete, so readers never see a partial archive. Returns
+     * false if the build was already archived.
+     */
+    public boolean archiveBuildLog(Project project, int buildNumber) throws IOException {
+        Path target = buildDirectory(project.getId(), buildNumber);
+        if (Files.exists(target.resolve(INDEX_FILE))) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempDirectory(target.getParent(), buildNumber + ".tmp-");
+
+        try {
+            ArchiveWriter writer = new ArchiveWriter(temp);
+            try {
+                jenkinsService.readProgressiveLog(project, buildNumber, 0, chunk -> writer.write(chunk.getBytes(StandardCharsets.UTF_8)));
+            } finally {
+                writer.close();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            System.out.println("🗄️ Archived build log for " + project.getName() + " #" + buildNumber
+                + " (" + writer.totalBytes + " bytes, " + writer.totalLines() + " lines, " + (writer.segment + 1) + " segment(s))");
+            return true;
+        } catch (IOException | RuntimeException e) {
+            deleteRecursively(temp);
+            throw e;
+        }
+    }
+
+    public boolean isArchived(Long projectId, int buildNumber) {
+        return Files.exists(buildDirectory(projectId, buildNumber).resolve(INDEX_FILE));
+    }
+
+    /**
+     * When a build's archive was written, in epoch millis.
+     */
+    public long getArchivedAt(Long projectId, int buildNumber) throws IOException {
+        return Files.getLastModifiedTime(buildDirectory(projectId, buildNumber).resolve(INDEX_FILE)).toMillis();
+    }
+
+    /**
+     * Build numbers of every archived build, by project ID.
+     */
+    public Map<Long, List<Integer>> listArchivedBuilds() throws IOException {
+        Map<Long, List<Integer>> builds = new HashMap<>();
+        Path root = Paths.get(archiveDir);
+        if (!Files.isDirectory(root)) {
+            return builds;
+        }
+        try (Stream<Path> projects = Files.list(root)) {
+            for (Path projectDir : (Iterable<Path>) projects::iterator) {
+                Long projectId = parseLong(projectDir.getFileName().toString());
+                if (projectId == null) {
+                    continue;
+                }
+                try (Stream<Path> buildDirs = Files.list(projectDir)) {
+                    for (Path buildDir : (Iterable<Path>) buildDirs::iterator) {
+                        // Skips in-progress temp directories too, they are not numeric
+                        Long buildNumber = parseLong(buildDir.getFileName().toString());
+                        if (buildNumber != null && Files.exists(buildDir.resolve(INDEX_FILE))) {
+                            builds.computeIfAbsent(projectId, id -> new ArrayList<>()).add(buildNumber.intValue());
+                        }
+                    }
+                }
+            }
+        }
+        return builds;
+    }
+
+    /**
+     * Receives an archived log line by line, with its (0-based) line number.
+     */
+    @FunctionalInterface
+    public interface LineConsumer {
+        void accept(long lineNumber, String line) throws IOException;
+    }
+
+    /**
+     * Read a whole archived log sequentially, one line at a time (without the line
+     * terminator). Lines longer than maxLineBytes are cut off at that length.
+     */
+    public void forEachLine(Long projectId, int buildNumber, int maxLineBytes, LineConsumer consumer) throws IOException {
+        ArchiveIndex index = loadIndex(projectId, buildNumber);
+        BlockCursor cursor = new BlockCursor(index, 0);
+        byte[] line = new byte[maxLineBytes];
+        int length = 0;
+        long lineNumber = 0;
+        while (cursor.hasNext()) {
+            byte b = cursor.next();
+            if (b == '\n') {
+                consumer.accept(lineNumber++, new String(line, 0, length, StandardCharsets.UTF_8));
+                length = 0;
+            } else if (length < maxLineBytes) {
+                line[length++] = b;
+            }
+        }
+        if (length > 0) {
+            consumer.accept(lineNumber, new String(line, 0, length, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Read the byte range [offset, offset + length) of an archived log, clamped to its size.
+     */
+    public Map<String, Object> readByteRange(Long projectId, int buildNumber, long offset, int length) throws IOException {
+        ArchiveIndex index = loadIndex(projectId, buildNumber);
+        long start = Math.max(0, Math.min(offset, index.totalBytes));
+        long end = Math.min(index.totalBytes, start + Math.max(0, length));
+
+        byte[] bytes = readBytes(index, start, end);
+        Map<String, Object> result = rangeResult(index, buildNumber);
+        result.put("logs", new String(bytes, StandardCharsets.UTF_8));
+        result.put("byteOffset", start);
+        result.put("byteLength", bytes.length);
+        return result;
+    }
+
+    /**
+     * Read lineCount lines starting at (0-based) startLine of an archived log. The
+     * line-offset index gives the nearest preceding checkpoint, so only the blocks from
+     * there on are inflated; at most maxBytes of text are returned.
+     */
+    public Map<String, Object> readLineRange(Long projectId, int buildNumber, long startLine, int lineCount, int maxBytes) throws IOException {
+        ArchiveIndex index = loadIndex(projectId, buildNumber);
+        long firstLine = Math.max(0, Math.min(startLine, index.totalLines));
+        int checkpoint = (int) Math.min(firstLine / LINE_INDEX_INTERVAL, index.lineCheckpoints.length - 1);
+        long position = index.lineCheckpoints.length > 0 ? index.lineCheckpoints[checkpoint] : 0;
+        long linesToSkip = firstLine - (long) checkpoint * LINE_INDEX_INTERVAL;
+
+        BlockCursor cursor = new BlockCursor(index, position);
+        // Skip ahead from the checkpoint to the first requested line
+        while (linesToSkip > 0 && cursor.hasNext()) {
+            if (cursor.next() == '\n') {
+                linesToSkip--;
+            }
+        }
+
+        long textStart = cursor.position;
+        java.io.ByteArrayOutputStream text = new java.io.ByteArrayOutputStream();
+        int linesRead = 0;
+        while (linesRead < lineCount && cursor.hasNext() && text.size() < maxBytes) {
+            byte b = cursor.next();
+            text.write(b);
+            if (b == '\n') {
+                linesRead++;
+            }
+        }
+        // A last line without a trailing newline still counts
+        if (linesRead < lineCount && text.size() > 0 && !cursor.hasNext() && text.toByteArray()[text.size() - 1] != '\n') {
+            linesRead++;
+        }
+
+        Map<String, Object> result = rangeResult(index, buildNumber);
+        result.put("logs", text.toString(StandardCharsets.UTF_8));
+        result.put("startLine", firstLine);
+        result.put("lineCount", linesRead);
+        result.put("byteOffset", textStart);
+        result.put("byteLength", text.size());
+        return result;
+    }
+
+    private Map<String, Object> rangeResult(ArchiveIndex index, int buildNumber) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("buildNumber", buildNumber);
+        result.put("source", "archive");
+        result.put("totalBytes", index.totalBytes);
+        result.put("totalLines", index.totalLines);
+        return result;
+    }
+
+    private byte[] readBytes(ArchiveIndex index, long start, long end) throws IOException {
+        byte[] out = new byte[(int) (end - start)];
+        if (out.length == 0) {
+            return out;
+        }
+        Map<Integer, MappedByteBuffer> segments = new HashMap<>();
+        int written = 0;
+        for (int i = findBlock(index, start); i < index.blocks.size() && written < out.length; i++) {
+            BlockEntry block = index.blocks.get(i);
+            byte[] data = inflate(index, block, segments);
+            int from = (int) Math.max(0, start - block.uncompressedStart);
+            int to = (int) Math.min(block.uncompressedLength, end - block.uncompressedStart);
+            System.arraycopy(data, from, out, written, to - from);
+            written += to - from;
+        }
+        return out;
+    }
+
+    /**
+     * Sequential reader over the uncompressed log, inflating one block at a time.
+     */
+    private final class BlockCursor {
+        final ArchiveIndex index;
+        final Map<Integer, MappedByteBuffer> segments = new HashMap<>();
+        int blockIndex;
+        byte[] block;
+        int blockPosition;
+        long position;
+
+        BlockCursor(ArchiveIndex index, long position) throws IOException {
+            this.index = index;
+            this.position = position;
+            this.blockIndex = findBlock(index, position);
+            if (blockIndex < index.blocks.size()) {
+                BlockEntry entry = index.blocks.get(blockIndex);
+                block = inflate(index, entry, segments);
+                blockPosition = (int) (position - entry.uncompressedStart);
+            }
+        }
+
+        boolean hasNext() {
+            return position < index.totalBytes;
+        }
+
+        byte next() throws IOException {
+            while (block == null || blockPosition >= block.length) {
+                blockIndex++;
+                block = inflate(index, index.blocks.get(blockIndex), segments);
+                blockPosition = 0;
+            }
+            position++;
+            return block[blockPosition++];
+        }
+    }
+
+    private int findBlock(ArchiveIndex index, long offset) {
+        int low = 0;
+        int high = index.blocks.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            BlockEntry block = index.blocks.get(mid);
+            if (offset < block.uncompressedStart) {
+                high = mid - 1;
+            } else if (offset >= block.uncompressedStart + block.uncompressedLength) {
+                low = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        return low;
+    }
+
+    private byte[] inflate(ArchiveIndex index, BlockEntry block, Map<Integer, MappedByteBuffer> segments) throws IOException {
+        MappedByteBuffer segment = segments.get(block.segment);
+        if (segment == null) {
+            try (FileChannel channel = FileChannel.open(index.directory.resolve(segmentFileName(block.segment)), StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            segments.put(block.segment, segment);
+        }
+
+        ByteBuffer compressed = segment.slice((int) block.segmentOffset, block.compressedLength);
+        byte[] data = new byte[block.uncompressedLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < data.length && !inflater.finished()) {
+                read += inflater.inflate(data, read, data.length - read);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt build log archive block in " + index.directory, e);
+        } finally {
+            inflater.end();
+        }
+        return data;
+    }
+
+    private ArchiveIndex loadIndex(Long projectId, int buildNumber) throws IOException {
+        String key = projectId + "/" + buildNumber;
+        ArchiveIndex cached = indexCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Path directory = buildDirectory(projectId, buildNumber);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(directory.resolve(INDEX_FILE))))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                throw new IOException("Unsupported build log archive index in " + directory);
+            }
+            long totalBytes = in.readLong();
+            long totalLines = in.readLong();
+            int blockCount = in.readInt();
+            List<BlockEntry> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new BlockEntry(in.readInt(), in.readLong(), in.readInt(), in.readLong(), in.readInt()));
+            }
+            int checkpointCount = in.readInt();
+            long[] checkpoints = new long[checkpointCount];
+            for (int i = 0; i < checkpointCount; i++) {
+                checkpoints[i] = in.readLong();
+            }
+            ArchiveIndex index = new ArchiveIndex(directory, totalBytes, totalLines, blocks, checkpoints);
+            indexCache.put(key, index);
+            return index;
+        }
+    }
+
+    /**
+     * Writes one build's archive: buffers up to BLOCK_SIZE bytes, deflates them into the
+     * current segment and records the block and line checkpoints for the index.
+     */
+    private static final class ArchiveWriter {
+        final Path directory;
+        final byte[] buffer = new byte[BLOCK_SIZE];
+        final byte[] compressed = new byte[BLOCK_SIZE + 1024];
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        final List<BlockEntry> blocks = new ArrayList<>();
+        final List<Long> lineCheckpoints = new ArrayList<>();
+        int buffered;
+        int segment;
+        long segmentSize;
+        OutputStream segmentOut;
+        long totalBytes;
+        long newlines;
+        boolean lineStart = true;
+
+        ArchiveWriter(Path directory) {
+            this.directory = directory;
+        }
+
+        void write(byte[] bytes) throws IOException {
+            for (byte b : bytes) {
+                if (lineStart) {
+                    if (newlines % LINE_INDEX_INTERVAL == 0) {
+                        lineCheckpoints.add(totalBytes);
+                    }
+                    lineStart = false;
+                }
+                buffer[buffered++] = b;
+                totalBytes++;
+                if (b == '\n') {
+                    newlines++;
+                    lineStart = true;
+                }
+                if (buffered == BLOCK_SIZE) {
+                    flushBlock();
+                }
+            }
+        }
+
+        long totalLines() {
+            // A last line without a trailing newline still counts
+            return newlines + (totalBytes > 0 && !lineStart ? 1 : 0);
+        }
+
+        void flushBlock() throws IOException {
+            if (buffered == 0) {
+                return;
+            }
+            if (segmentOut == null || segmentSize >= SEGMENT_MAX_BYTES) {
+                if (segmentOut != null) {
+                    segmentOut.close();
+                    segment++;
+                }
+                segmentOut = new BufferedOutputStream(Files.newOutputStream(directory.resolve(segmentFileName(segment))));
+                segmentSize = 0;
+            }
+
+            deflater.reset();
+            deflater.setInput(buffer, 0, buffered);
+            deflater.finish();
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                int n = deflater.deflate(compressed);
+                segmentOut.write(compressed, 0, n);
+                compressedLength += n;
+            }
+
+            blocks.add(new BlockEntry(segment, segmentSize, compressedLength, totalBytes - buffered, buffered));
+            segmentSize += compressedLength;
+            buffered = 0;
+        }
+
+        void close() throws IOException {
+            try {
+                flushBlock();
+                if (segmentOut != null) {
+                    segmentOut.close();
+                }
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(directory.resolve(INDEX_FILE))))) {
+                    out.writeInt(INDEX_MAGIC);
+                    out.writeInt(INDEX_VERSION);
+                    out.writeLong(totalBytes);
+                    out.writeLong(totalLines());
+                    out.writeInt(blocks.size());
+                    for (BlockEntry block : blocks) {
+                        out.writeInt(block.segment);
+                        out.writeLong(block.segmentOffset);
+                        out.writeInt(block.compressedLength);
+                        out.writeLong(block.uncompressedStart);
+                        out.writeInt(block.uncompressedLength);
+                    }
+                    out.writeInt(lineCheckpoints.size());
+                    for (Long checkpoint : lineCheckpoints) {
+                        out.writeLong(checkpoint);
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String segmentFileName(int segment) {
+        return String.format("segment-%05d.dat", segment);
+    }
+
+    private Path buildDirectory(Long projectId, int buildNumber) {
+        return Paths.get(archiveDir, String.valueOf(projectId), String.valueOf(buildNumber));
+    }
+
+    private void deleteRecursively(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Best effort cleanup of a failed archive
+                }
+            });
+        } catch (IOException ignored) {
+            // Nothing to clean up
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        archiveExecutor.shutdownNow();
+    }
+}
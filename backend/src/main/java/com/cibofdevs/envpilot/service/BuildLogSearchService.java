@@ -0,0 +1,449 @@
+package com.cibofdevs.envpilot.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Inverted index over the archived build logs (see BuildLogArchiveService): maps each
+ * token to the (build, line) pairs it occurs on, so "which other builds hit this error"
+ * is answered from memory instead of by downloading logs one by one.
+ *
+ * Builds are indexed as they are archived; each build's postings are also written to
+ * {search-index-dir}/{projectId}-{buildNumber}.idx, which is what the in-memory index
+ * is reloaded from on startup.
+ */
+@Service
+public class BuildLogSearchService {
+
+    private static final int INDEX_MAGIC = 0x454C5358; // "ELSX"
+    private static final int INDEX_VERSION = 1;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_LINE_BYTES = 4096;
+
+    // Only the first lines a token occurs on in a build are indexed, so very common
+    // tokens ("info", timestamps) don't dominate memory. The token is then marked as
+    // saturated for that build and searches check its other lines against the log text.
+    private static final int MAX_LINES_PER_TOKEN = 500;
+
+    @Autowired
+    private BuildLogArchiveService buildLogArchiveService;
+
+    @Value("${envpilot.build-logs.search-index-dir:./data/build-log-index}")
+    private String indexDir;
+
+    private static final class IndexedBuild {
+        final Long projectId;
+        final Long environmentId;
+        final int buildNumber;
+        final long finishedAt;
+
+        IndexedBuild(Long projectId, Long environmentId, int buildNumber, long finishedAt) {
+            this.projectId = projectId;
+            this.environmentId = environmentId;
+            this.buildNumber = buildNumber;
+            this.finishedAt = finishedAt;
+        }
+    }
+
+    /**
+     * Sorted postings of one token, each packed as (build id << 32 | line number). Builds
+     * get increasing ids and are added whole, so appending keeps the list sorted.
+     */
+    private static final class PostingList {
+        long[] entries = new long[4];
+        int size;
+        // Builds in which the token hit MAX_LINES_PER_TOKEN
+        final BitSet saturatedBuilds = new BitSet();
+
+        void add(long entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+
+        boolean contains(long entry) {
+            return Arrays.binarySearch(entries, 0, size, entry) >= 0;
+        }
+    }
+
+    private static final class LineList {
+        int[] lines = new int[4];
+        int size;
+        boolean saturated;
+
+        void add(int line) {
+            // One entry per line, however often the token occurs on it
+            if (size > 0 && lines[size - 1] == line) {
+                return;
+            }
+            if (size == MAX_LINES_PER_TOKEN) {
+                saturated = true;
+                return;
+            }
+            if (size == lines.length) {
+                lines = Arrays.copyOf(lines, size * 2);
+            }
+            lines[size++] = line;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<IndexedBuild> builds = new ArrayList<>();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Set<String> indexedBuildKeys = new HashSet<>();
+
+    // Startup reload and backfill run in the background
+    private final ExecutorService loaderExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "build-log-index-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexOnStartup() {
+        loaderExecutor.execute(() -> {
+            try {
+                long started = System.currentTimeMillis();
+                int loaded = loadIndexFiles();
+                int backfilled = backfillArchivedBuilds();
+                System.out.println("🔎 Build log search index ready: " + loaded + " build(s) loaded, " + backfilled
+                    + " backfilled in " + (System.currentTimeMillis() - started) + "ms");
+            } catch (Exception e) {
+                System.err.println("❌ Failed to load build log search index: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Tokenize an archived build's log and add it to the index. Called from the archive
+     * worker thread once the log is stored; does nothing if the build is already indexed.
+     */
+    public void indexBuild(Long projectId, Long environmentId, int buildNumber, long finishedAt) throws IOException {
+        if (isIndexed(projectId, buildNumber)) {
+            return;
+        }
+
+        Map<String, LineList> tokens = new HashMap<>();
+        buildLogArchiveService.forEachLine(projectId, buildNumber, MAX_LINE_BYTES, (lineNumber, line) -> {
+            for (String token : tokenize(line)) {
+                tokens.computeIfAbsent(token, t -> new LineList()).add((int) lineNumber);
+            }
+        });
+
+        IndexedBuild build = new IndexedBuild(projectId, environmentId, buildNumber, finishedAt);
+        writeIndexFile(build, tokens);
+        addToIndex(build, tokens);
+        System.out.println("🔎 Indexed build log for project " + projectId + " #" + buildNumber + " (" + tokens.size() + " tokens)");
+    }
+
+    /**
+     * Find log lines containing every token of the query, newest builds first. Scope with
+     * allowedProjectIds (null for all), projectId, environmentId and a finished-at range;
+     * any of them may be null.
+     */
+    public Map<String, Object> search(String query, Set<Long> allowedProjectIds, Long projectId, Long environmentId,
+            LocalDateTime from, LocalDateTime to, int limit) {
+        long started = System.currentTimeMillis();
+        Map<String, Object> result = new HashMap<>();
+        List<String> queryTokens = new ArrayList<>(tokenize(query != null ? query : ""));
+        if (queryTokens.isEmpty()) {
+            result.put("success", false);
+            result.put("message", "Search query must contain at least one word of " + MIN_TOKEN_LENGTH + " or more characters");
+            return result;
+        }
+        long fromMillis = from != null ? from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MAX_VALUE;
+
+        List<IndexedBuild> hitBuilds = new ArrayList<>();
+        List<Integer> hitLines = new ArrayList<>();
+        List<String> hitTexts = new ArrayList<>();
+        boolean truncated = false;
+        int indexedBuildCount;
+
+        lock.readLock().lock();
+        try {
+            indexedBuildCount = builds.size();
+            List<PostingList> lists = new ArrayList<>();
+            for (String token : queryTokens) {
+                PostingList list = postings.get(token);
+                if (list == null) {
+                    lists = null;
+                    break;
+                }
+                lists.add(list);
+            }
+
+            if (lists != null) {
+                // Walk the rarest token's postings from the newest build backwards and
+                // probe the others for the same (build, line)
+                lists.sort(Comparator.comparingInt(list -> list.size));
+                PostingList rarest = lists.get(0);
+                for (int i = rarest.size - 1; i >= 0; i--) {
+                    long entry = rarest.entries[i];
+                    int buildId = (int) (entry >>> 32);
+                    IndexedBuild build = builds.get(buildId);
+                    if (!matchesScope(build, allowedProjectIds, projectId, environmentId, fromMillis, toMillis)) {
+                        continue;
+                    }
+                    boolean inAll = true;
+                    boolean verify = false;
+                    for (int j = 1; j < lists.size() && inAll; j++) {
+                        PostingList other = lists.get(j);
+                        if (!other.contains(entry)) {
+                            // A saturated token may still be on this line, unindexed
+                            inAll = other.saturatedBuilds.get(buildId);
+                            verify = true;
+                        }
+                    }
+                    if (!inAll) {
+                        continue;
+                    }
+                    String text = null;
+                    if (verify) {
+                        text = readLine(build, (int) entry);
+                        if (text == null || !tokenize(text).containsAll(queryTokens)) {
+                            continue;
+                        }
+                    }
+                    if (hitBuilds.size() == limit) {
+                        truncated = true;
+                        break;
+                    }
+                    hitBuilds.add(build);
+                    hitLines.add((int) entry);
+                    hitTexts.add(text);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map<String, Object>> hits = new ArrayList<>();
+        for (int i = 0; i < hitBuilds.size(); i++) {
+            IndexedBuild build = hitBuilds.get(i);
+            Map<String, Object> hit = new HashMap<>();
+            hit.put("projectId", build.projectId);
+            hit.put("environmentId", build.environmentId);
+            hit.put("buildNumber", build.buildNumber);
+            hit.put("finishedAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(build.finishedAt), ZoneId.systemDefault()));
+            hit.put("lineNumber", hitLines.get(i));
+            hit.put("line", hitTexts.get(i) != null ? hitTexts.get(i) : readLine(build, hitLines.get(i)));
+            hits.add(hit);
+        }
+
+        result.put("success", true);
+        result.put("query", query);
+        result.put("results", hits);
+        result.put("count", hits.size());
+        result.put("truncated", truncated);
+        result.put("indexedBuilds", indexedBuildCount);
+        result.put("tookMs", System.currentTimeMillis() - started);
+        return result;
+    }
+
+    private boolean matchesScope(IndexedBuild build, Set<Long> allowedProjectIds, Long projectId, Long environmentId,
+            long fromMillis, long toMillis) {
+        return (allowedProjectIds == null || allowedProjectIds.contains(build.projectId))
+            && (projectId == null || projectId.equals(build.projectId))
+            && (environmentId == null || environmentId.equals(build.environmentId))
+            && build.finishedAt >= fromMillis && build.finishedAt <= toMillis;
+    }
+
+    private String readLine(IndexedBuild build, int lineNumber) {
+        try {
+            String line = (String) buildLogArchiveService
+                .readLineRange(build.projectId, build.buildNumber, lineNumber, 1, MAX_LINE_BYTES).get("logs");
+            return line.endsWith("\n") ? line.substring(0, line.length() - 1) : line;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private boolean isIndexed(Long projectId, int buildNumber) {
+        lock.readLock().lock();
+        try {
+            return indexedBuildKeys.contains(projectId + "/" + buildNumber);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addToIndex(IndexedBuild build, Map<String, LineList> tokens) {
+        lock.writeLock().lock();
+        try {
+            if (!indexedBuildKeys.add(build.projectId + "/" + build.buildNumber)) {
+                return;
+            }
+            long buildId = builds.size();
+            builds.add(build);
+            for (Map.Entry<String, LineList> token : tokens.entrySet()) {
+                PostingList list = postings.computeIfAbsent(token.getKey(), t -> new PostingList());
+                LineList lines = token.getValue();
+                for (int i = 0; i < lines.size; i++) {
+                    list.add(buildId << 32 | lines.lines[i]);
+                }
+                if (lines.saturated) {
+                    list.saturatedBuilds.set((int) buildId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercased runs of letters, digits and underscores, MIN_TOKEN_LENGTH to
+     * MAX_TOKEN_LENGTH characters long, each returned once.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean tokenChar = i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_');
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                int length = i - start;
+                if (length >= MIN_TOKEN_LENGTH && length <= MAX_TOKEN_LENGTH) {
+                    tokens.add(text.substring(start, i).toLowerCase());
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void writeIndexFile(IndexedBuild build, Map<String, LineList> tokens) throws IOException {
+        Path directory = Paths.get(indexDir);
+        Files.createDirectories(directory);
+        Path target = directory.resolve(build.projectId + "-" + build.buildNumber + ".idx");
+        Path temp = Files.createTempFile(directory, build.projectId + "-" + build.buildNumber, ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(build.projectId);
+            out.writeLong(build.environmentId != null ? build.environmentId : -1L);
+            out.writeInt(build.buildNumber);
+            out.writeLong(build.finishedAt);
+            out.writeInt(tokens.size());
+            for (Map.Entry<String, LineList> token : tokens.entrySet()) {
+                out.writeUTF(token.getKey());
+                LineList lines = token.getValue();
+                out.writeBoolean(lines.saturated);
+                out.writeInt(lines.size);
+                for (int i = 0; i < lines.size; i++) {
+                    out.writeInt(lines.lines[i]);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private int loadIndexFiles() throws IOException {
+        Path directory = Paths.get(indexDir);
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = new ArrayList<>(paths.filter(path -> path.getFileName().toString().endsWith(".idx")).toList());
+        }
+        // Oldest first, so build ids roughly follow finish time
+        files.sort(Comparator.comparingLong(path -> path.toFile().lastModified()));
+
+        int loaded = 0;
+        for (Path file : files) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) {
+                    System.err.println("⚠️ Skipping unsupported build log index file: " + file);
+                    continue;
+                }
+                Long projectId = in.readLong();
+                long environmentId = in.readLong();
+                int buildNumber = in.readInt();
+                long finishedAt = in.readLong();
+                int tokenCount = in.readInt();
+                Map<String, LineList> tokens = new HashMap<>(tokenCount * 2);
+                for (int i = 0; i < tokenCount; i++) {
+                    String token = in.readUTF();
+                    LineList lines = new LineList();
+                    lines.saturated = in.readBoolean();
+                    int lineCount = in.readInt();
+                    for (int j = 0; j < lineCount; j++) {
+                        lines.add(in.readInt());
+                    }
+                    tokens.put(token, lines);
+                }
+                addToIndex(new IndexedBuild(projectId, environmentId >= 0 ? environmentId : null, buildNumber, finishedAt), tokens);
+                loaded++;
+            } catch (IOException e) {
+                System.err.println("⚠️ Skipping unreadable build log index file " + file + ": " + e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Index archived builds that have no index file yet (archived before the index
+     * existed, or whose indexing failed). Their environment is unknown and the archive
+     * time stands in for the finish time.
+     */
+    private int backfillArchivedBuilds() throws IOException {
+        int backfilled = 0;
+        for (Map.Entry<Long, List<Integer>> project : buildLogArchiveService.listArchivedBuilds().entrySet()) {
+            for (Integer buildNumber : project.getValue()) {
+                if (isIndexed(project.getKey(), buildNumber)) {
+                    continue;
+                }
+                try {
+                    indexBuild(project.getKey(), null, buildNumber, buildLogArchiveService.getArchivedAt(project.getKey(), buildNumber));
+                    backfilled++;
+                } catch (IOException e) {
+                    System.err.println("⚠️ Failed to index archived build log for project " + project.getKey() + " #" + buildNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return backfilled;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loaderExecutor.shutdownNow();
+    }
+}
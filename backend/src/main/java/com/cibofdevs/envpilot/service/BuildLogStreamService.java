@@ -0,0 +1,135 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.Project;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams a build's console log to a viewer over Server-Sent Events, tailing it while
+ * the build is still running. Each read covers the log from the last offset onwards
+ * (Jenkins' logText/progressiveText) and is forwarded chunk by chunk as it arrives, so
+ * memory per viewer stays constant and the first lines show up immediately regardless
+ * of how large the log is.
+ *
+ * Events: "log" (a chunk of log text), "progress" ({offset, moreData} after each read -
+ * the X-Text-Size / X-More-Data of that read), "end" when the build has finished and
+ * the whole log was sent, and "error" if reading from Jenkins failed.
+ */
+@Service
+public class BuildLogStreamService {
+
+    // Viewers are served by a small pool of workers; reads are re-scheduled between polls
+    // rather than a worker sleeping while a build is still producing output
+    private static final int MAX_CONCURRENT_READS = 8;
+    private static final long POLL_INTERVAL_MS = 2000;
+    private static final long STREAM_TIMEOUT_MS = 60 * 60 * 1000; // 1 hour
+
+    @Autowired
+    private JenkinsService jenkinsService;
+
+    private final AtomicInteger activeStreams = new AtomicInteger();
+
+    private final ScheduledExecutorService logStreamExecutor = Executors.newScheduledThreadPool(MAX_CONCURRENT_READS, runnable -> {
+        Thread thread = new Thread(runnable, "build-log-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Start streaming the log of a build (the last build if buildNumber is null) from
+     * byte offset start.
+     */
+    public SseEmitter streamBuildLog(Project project, Integer buildNumber, long start) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+        AtomicBoolean closed = new AtomicBoolean(false);
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+
+        activeStreams.incrementAndGet();
+        System.out.println("📜 Streaming build log for project: " + project.getName()
+            + " (build " + (buildNumber != null ? "#" + buildNumber : "latest") + ", from offset " + start + ")");
+        schedule(() -> readNextSlice(project, buildNumber, start, emitter, closed), 0);
+        return emitter;
+    }
+
+    private void readNextSlice(Project project, Integer buildNumber, long offset, SseEmitter emitter, AtomicBoolean closed) {
+        if (closed.get()) {
+            finish(emitter, null);
+            return;
+        }
+
+        try {
+            JenkinsService.ProgressiveLogSlice slice = jenkinsService.readProgressiveLog(project, buildNumber, offset,
+                chunk -> emitter.send(SseEmitter.event().name("log").data(chunk)));
+
+            Map<String, Object> progress = new HashMap<>();
+            progress.put("offset", slice.nextOffset);
+            progress.put("moreData", slice.moreData);
+            emitter.send(SseEmitter.event().name("progress").data(progress));
+
+            if (slice.moreData) {
+                schedule(() -> readNextSlice(project, buildNumber, slice.nextOffset, emitter, closed), POLL_INTERVAL_MS);
+            } else {
+                emitter.send(SseEmitter.event().name("end").data(progress));
+                finish(emitter, null);
+            }
+        } catch (IOException e) {
+            // Most often the viewer went away; nothing left to send to
+            finish(emitter, e);
+        } catch (Exception e) {
+            Throwable cause = JenkinsClient.unwrap(e);
+            System.out.println("❌ Error streaming build log for " + project.getName() + ": " + cause.getMessage());
+            try {
+                Map<String, Object> error = new HashMap<>();
+                error.put("success", false);
+                error.put("message", "Error getting build logs: " + cause.getMessage());
+                emitter.send(SseEmitter.event().name("error").data(error));
+            } catch (IOException ignored) {
+                // Viewer already gone
+            }
+            finish(emitter, null);
+        }
+    }
+
+    private void schedule(Runnable read, long delayMs) {
+        try {
+            logStreamExecutor.schedule(read, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    private void finish(SseEmitter emitter, Exception error) {
+        activeStreams.decrementAndGet();
+        if (error != null) {
+            emitter.completeWithError(error);
+        } else {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Number of log viewers currently connected
+     */
+    public int getActiveStreamCount() {
+        return activeStreams.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logStreamExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,354 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.DeploymentHistory;
+import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The one loop that reconciles active deployments with Jenkins. Deployments due for a
+ * status check wait in a priority queue ordered by next-check time, at most once each
+ * (scheduling one again keeps the earlier time). Checks are requested by several
+ * sources - the build monitor's adaptive schedule, Jenkins webhooks, manual syncs and
+ * the leader's periodic discovery of active deployments nobody is checking - and every
+ * TICK_MS the due ones are handed to the first registered checker that claims them:
+ * the build monitor for deployments it holds, DeploymentService's batched sync for the
+ * rest. Checkers schedule the next check of deployments that are still active.
+ *
+ * Checkers wait on Jenkins, so each round runs on the task executor rather than on a
+ * scheduler thread, which must stay free for the monitor lease heartbeat; rounds never
+ * overlap.
+ */
+@Service
+public class DeploymentReconciliationService {
+
+    private static final long TICK_MS = 2000;
+    // How often the leader looks for active deployments that aren't queued
+    private static final long DISCOVERY_INTERVAL_MS = 15 * 1000;
+    // Retry delay after a failed check, doubling per consecutive failure up to the cap
+    private static final long FAILED_CHECK_MAX_BACKOFF_MS = 5 * 60 * 1000;
+
+    private static final List<DeploymentHistory.Status> ACTIVE_STATUSES =
+        List.of(DeploymentHistory.Status.PENDING, DeploymentHistory.Status.IN_PROGRESS);
+
+    @Autowired
+    private DeploymentHistoryRepository deploymentHistoryRepository;
+
+    @Autowired
+    private MonitorLeaseService monitorLeaseService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    /**
+     * Why a deployment was queued for a check.
+     */
+    public enum Source {
+        // Periodic sync of active deployments
+        POLL,
+        // The build monitor's schedule for a deployment it holds
+        MONITOR,
+        // A Jenkins build notification
+        WEBHOOK,
+        // A user asked for a sync
+        MANUAL
+    }
+
+    /**
+     * A deployment taken off the queue for checking.
+     */
+    public record DueCheck(Long deploymentId, Source source, long dueAt) {
+    }
+
+    /**
+     * Checks due deployments. Registered with an order; each due deployment goes to the
+     * lowest-ordered checker that claims it.
+     */
+    public interface Checker {
+        boolean claims(Long deploymentId);
+
+        void check(List<DueCheck> due);
+    }
+
+    private record RegisteredChecker(int order, String name, Checker checker) {
+    }
+
+    private static final class QueuedCheck {
+        final Long deploymentId;
+        final long dueAt;
+        final Source source;
+        final long sequence;
+
+        QueuedCheck(Long deploymentId, long dueAt, Source source, long sequence) {
+            this.deploymentId = deploymentId;
+            this.dueAt = dueAt;
+            this.source = source;
+            this.sequence = sequence;
+        }
+    }
+
+    // Guarded by this. The queue may hold superseded entries; the current one per
+    // deployment is in queued, and others are skipped when they come up.
+    private final PriorityQueue<QueuedCheck> queue = new PriorityQueue<>(
+        Comparator.<QueuedCheck>comparingLong(check -> check.dueAt).thenComparingLong(check -> check.sequence));
+    private final Map<Long, QueuedCheck> queued = new HashMap<>();
+    private long nextSequence;
+
+    private final List<RegisteredChecker> checkers = new CopyOnWriteArrayList<>();
+
+    // Consecutive failed checks per deployment, cleared when a check goes through
+    private final Map<Long, Integer> checkFailures = new ConcurrentHashMap<>();
+
+    private volatile long lastDiscoveryAt;
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong checks = new AtomicLong();
+    private final Map<Source, AtomicLong> checksBySource = new EnumMap<>(Source.class);
+    private volatile Map<String, Object> lastTick = Map.of();
+
+    public DeploymentReconciliationService() {
+        for (Source source : Source.values()) {
+            checksBySource.put(source, new AtomicLong());
+        }
+    }
+
+    public void registerChecker(int order, String name, Checker checker) {
+        checkers.add(new RegisteredChecker(order, name, checker));
+        checkers.sort(Comparator.comparingInt(RegisteredChecker::order));
+    }
+
+    /**
+     * Queue a check of a deployment at dueAt, or keep its current place if that is earlier.
+     */
+    public synchronized void schedule(Long deploymentId, long dueAt, Source source) {
+        QueuedCheck current = queued.get(deploymentId);
+        if (current != null && current.dueAt <= dueAt) {
+            return;
+        }
+        QueuedCheck check = new QueuedCheck(deploymentId, dueAt, source, nextSequence++);
+        queued.put(deploymentId, check);
+        queue.add(check);
+        // Superseded entries are skipped lazily; compact if they pile up
+        if (queue.size() > 2 * queued.size() + 64) {
+            queue.clear();
+            queue.addAll(queued.values());
+        }
+    }
+
+    /**
+     * Queue an immediate check of a deployment.
+     */
+    public void scheduleNow(Long deploymentId, Source source) {
+        schedule(deploymentId, System.currentTimeMillis(), source);
+    }
+
+    public synchronized void cancel(Long deploymentId) {
+        queued.remove(deploymentId);
+        checkFailures.remove(deploymentId);
+    }
+
+    /**
+     * Queue an immediate check of every active deployment.
+     */
+    public void scheduleAllActive(Source source) {
+        long now = System.currentTimeMillis();
+        for (Long deploymentId : deploymentHistoryRepository.findIdsByStatusIn(ACTIVE_STATUSES)) {
+            schedule(deploymentId, now, source);
+        }
+    }
+
+    /**
+     * Start a round on the task executor unless the previous one is still running.
+     */
+    @Scheduled(fixedDelay = TICK_MS)
+    public void scheduleTick() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    tick();
+                } finally {
+                    reconciling.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            reconciling.set(false);
+            System.err.println("❌ Could not start a reconciliation round: " + e.getMessage());
+        }
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+        try {
+            if (now - lastDiscoveryAt >= DISCOVERY_INTERVAL_MS) {
+                lastDiscoveryAt = now;
+                if (monitorLeaseService.isLeader()) {
+                    discover(now);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error discovering active deployments: " + e.getMessage());
+        }
+
+        List<DueCheck> due = takeDue(now);
+        int depth = queueDepth();
+        if (due.isEmpty()) {
+            return;
+        }
+        ticks.incrementAndGet();
+
+        // First claiming checker wins
+        Map<RegisteredChecker, List<DueCheck>> assigned = new HashMap<>();
+        for (DueCheck check : due) {
+            boolean claimed = false;
+            for (RegisteredChecker checker : checkers) {
+                if (checker.checker().claims(check.deploymentId())) {
+                    assigned.computeIfAbsent(checker, key -> new ArrayList<>()).add(check);
+                    claimed = true;
+                    break;
+                }
+            }
+            if (!claimed) {
+                checkFailures.remove(check.deploymentId());
+            }
+            checks.incrementAndGet();
+            checksBySource.get(check.source()).incrementAndGet();
+        }
+
+        Map<String, Integer> byChecker = new HashMap<>();
+        for (RegisteredChecker checker : checkers) {
+            List<DueCheck> checkerDue = assigned.get(checker);
+            if (checkerDue == null) {
+                continue;
+            }
+            byChecker.put(checker.name(), checkerDue.size());
+            try {
+                checker.checker().check(checkerDue);
+                for (DueCheck check : checkerDue) {
+                    checkFailures.remove(check.deploymentId());
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Error in " + checker.name() + " reconciliation: " + e.getMessage());
+                // Try again later rather than losing track of them, backing off while
+                // the checker keeps failing
+                for (DueCheck check : checkerDue) {
+                    schedule(check.deploymentId(), System.currentTimeMillis() + retryDelayMs(check.deploymentId()),
+                        check.source());
+                }
+            }
+        }
+
+        Map<String, Object> stats = tickStats(now, due, depth, byChecker);
+        lastTick = stats;
+        System.out.println("🔁 Reconciled " + due.size() + " deployment(s) " + byChecker + ", queue depth " + depth
+            + ", max lag " + stats.get("maxLagMs") + "ms");
+    }
+
+    /**
+     * Delay before checking a deployment again after a failed check: DEFAULT_POLL_INTERVAL_MS,
+     * doubled for each further consecutive failure, at most FAILED_CHECK_MAX_BACKOFF_MS.
+     * A deployment stays queued meanwhile, so discovery doesn't pick it up earlier.
+     */
+    private long retryDelayMs(Long deploymentId) {
+        int failures = checkFailures.merge(deploymentId, 1, Integer::sum);
+        long delay = BuildDurationService.DEFAULT_POLL_INTERVAL_MS << Math.min(failures - 1, 16);
+        return Math.min(delay, FAILED_CHECK_MAX_BACKOFF_MS);
+    }
+
+    /**
+     * Queue active deployments that aren't queued and aren't another node's to check.
+     */
+    private void discover(long now) {
+        List<Long> activeIds = deploymentHistoryRepository.findIdsByStatusIn(ACTIVE_STATUSES);
+        if (activeIds.isEmpty()) {
+            return;
+        }
+        Set<Long> leasedElsewhere = new HashSet<>(monitorLeaseService.getDeploymentIdsLeasedElsewhere());
+        int discovered = 0;
+        synchronized (this) {
+            for (Long deploymentId : activeIds) {
+                if (!queued.containsKey(deploymentId) && !leasedElsewhere.contains(deploymentId)) {
+                    schedule(deploymentId, now, Source.POLL);
+                    discovered++;
+                }
+            }
+        }
+        if (discovered > 0) {
+            System.out.println("🔁 Discovered " + discovered + " active deployment(s) to reconcile");
+        }
+    }
+
+    private synchronized List<DueCheck> takeDue(long now) {
+        List<DueCheck> due = new ArrayList<>();
+        while (!queue.isEmpty() && queue.peek().dueAt <= now) {
+            QueuedCheck check = queue.poll();
+            if (queued.get(check.deploymentId) != check) {
+                continue; // Superseded or cancelled
+            }
+            queued.remove(check.deploymentId);
+            due.add(new DueCheck(check.deploymentId, check.source, check.dueAt));
+        }
+        return due;
+    }
+
+    private synchronized int queueDepth() {
+        return queued.size();
+    }
+
+    private Map<String, Object> tickStats(long now, List<DueCheck> due, int depth, Map<String, Integer> byChecker) {
+        long maxLag = 0;
+        long totalLag = 0;
+        for (DueCheck check : due) {
+            long lag = Math.max(0, now - check.dueAt());
+            maxLag = Math.max(maxLag, lag);
+            totalLag += lag;
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("at", now);
+        stats.put("due", due.size());
+        stats.put("queueDepth", depth);
+        stats.put("maxLagMs", maxLag);
+        stats.put("avgLagMs", due.isEmpty() ? 0 : totalLag / due.size());
+        stats.put("byChecker", byChecker);
+        return stats;
+    }
+
+    /**
+     * Queue depth, due count and lag of the last tick that had work, and checks so far
+     * by source.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queueDepth());
+        stats.put("ticksWithWork", ticks.get());
+        stats.put("checks", checks.get());
+        Map<String, Long> bySource = new HashMap<>();
+        checksBySource.forEach((source, count) -> bySource.put(source.name(), count.get()));
+        stats.put("checksBySource", bySource);
+        stats.put("backingOff", checkFailures.size());
+        stats.put("lastTick", lastTick);
+        return stats;
+    }
+}
@@ -1,10 +1,14 @@
 package com.cibofdevs.envpilot.service;
 
+import com.cibofdevs.envpilot.dto.BuildStatus;
+import com.cibofdevs.envpilot.dto.JenkinsResult;
 import com.cibofdevs.envpilot.model.DeploymentHistory;
 import com.cibofdevs.envpilot.model.Environment;
 import com.cibofdevs.envpilot.model.Project;
 import com.cibofdevs.envpilot.model.User;
 import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,11 +17,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class DeploymentService {
@@ -27,6 +37,53 @@ public class DeploymentService {
     
     // Set for tracking deployments that have already sent email notifications
     private final Set<Long> emailSentDeployments = Collections.synchronizedSet(new HashSet<>());
+
+    // Deployments whose finished Jenkins build is being verified, and the timer that
+    // drives them. Verification checks never sleep: each step is a scheduled task that
+    // issues a non-blocking Jenkins request and schedules the next step from its callback.
+    private final Map<Long, DeploymentVerification> verifications = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService verificationScheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "deployment-verification");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // How often the reconciliation loop syncs an active deployment the build monitor
+    // doesn't hold; more often while it is recent
+    private static final long SYNC_INTERVAL_MS = 15 * 1000;
+    private static final long RECENT_SYNC_INTERVAL_MS = 10 * 1000;
+    private static final long RECENT_DEPLOYMENT_MINUTES = 5;
+
+    // Delay before re-checking an observed SUCCESS, and between failure confirmation checks
+    private static final long SUCCESS_CONFIRM_DELAY_MS = 5000;
+    private static final long FAILURE_CHECK_INTERVAL_MS = 3000;
+    private static final int MAX_FAILURE_CHECKS = 10;
+
+    /**
+     * Verification of a deployment whose Jenkins build was seen in a terminal state:
+     * OBSERVED (terminal result seen on a sync) -> CONFIRMING (re-checked on timers until
+     * Jenkins is confirmed finished) -> FINAL (status persisted). A verification that
+     * can't be confirmed is dropped, so the next sync observes the build again.
+     */
+    enum VerificationState { OBSERVED, CONFIRMING, FINAL }
+
+    private static class DeploymentVerification {
+        final Long deploymentId;
+        final Project project;
+        final DeploymentHistory.Status outcome;
+        final Integer expectedBuildNumber;
+        volatile VerificationState state = VerificationState.OBSERVED;
+        int attempts;
+        // Failure confirmed finished; waiting for the final safety check
+        boolean settling;
+
+        DeploymentVerification(Long deploymentId, Project project, DeploymentHistory.Status outcome, Integer expectedBuildNumber) {
+            this.deploymentId = deploymentId;
+            this.project = project;
+            this.outcome = outcome;
+            this.expectedBuildNumber = expectedBuildNumber;
+        }
+    }
     @Autowired
     private DeploymentHistoryRepository deploymentHistoryRepository;
 
@@ -37,10 +94,13 @@ public class DeploymentService {
     private FeatureFlagService featureFlagService;
     
     @Autowired
-    private JenkinsBuildMonitorService jenkinsBuildMonitorService;
+    private JenkinsService jenkinsService;
 
     @Autowired
-    private JenkinsService jenkinsService;
+    private MonitorLeaseService monitorLeaseService;
+
+    @Autowired
+    private DeploymentReconciliationService deploymentReconciliationService;
 
     @Autowired
     private NotificationService notificationService;
@@ -54,6 +114,9 @@ public class DeploymentService {
     @Autowired
     private RealTimeNotificationService realTimeNotificationService;
 
+    @Autowired
+    private BuildDurationService buildDurationService;
+
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
@@ -146,12 +209,28 @@ public class DeploymentService {
      */
     @Transactional
     public void updateDeploymentStatusFromJenkins(Long deploymentId) {
+        updateDeploymentStatusFromJenkins(deploymentId, null);
+    }
+
+    /**
+     * Same as {@link #updateDeploymentStatusFromJenkins(Long)}, starting from a last-build
+     * status already fetched by a batched per-host request (see prefetchLastBuildStatuses).
+     * A null status falls back to fetching the project's last build directly.
+     */
+    @Transactional
+    public void updateDeploymentStatusFromJenkins(Long deploymentId, BuildStatus prefetchedBuildStatus) {
         // Duplicate prevention: check if deployment is already being processed
         if (processingDeployments.contains(deploymentId)) {
             System.out.println("⚠️ Deployment " + deploymentId + " is already being processed, skipping duplicate call");
             return;
         }
         
+        // Verification prevention: a finished build is already being confirmed on timers
+        if (verifications.containsKey(deploymentId)) {
+            System.out.println("⚠️ Deployment " + deploymentId + " is already being verified (" + verifications.get(deploymentId).state + "), skipping");
+            return;
+        }
+        
         // Email notification prevention: check if email has already been sent
         if (emailSentDeployments.contains(deploymentId)) {
             System.out.println("⚠️ Email notification already sent for deployment " + deploymentId + ", skipping email sending");
@@ -174,26 +253,22 @@ public class DeploymentService {
                 System.out.println("   Version: " + deployment.getVersion());
             
             // Get Jenkins build status
-            Map<String, Object> buildStatus = jenkinsService.getLastBuildStatus(deployment.getProject());
+            JenkinsResult<BuildStatus> buildStatusResult = prefetchedBuildStatus != null
+                ? JenkinsResult.success(prefetchedBuildStatus)
+                : jenkinsService.getLastBuildStatus(deployment.getProject());
             
-            if ((Boolean) buildStatus.get("success")) {
-                String jenkinsResult = (String) buildStatus.get("result");
-                Boolean isBuilding = (Boolean) buildStatus.get("building");
-                Integer buildNumber = (Integer) buildStatus.get("buildNumber");
+            if (buildStatusResult instanceof JenkinsResult.Success<BuildStatus> success) {
+                BuildStatus buildStatus = success.value();
+                String jenkinsResult = buildStatus.resultOrInProgress();
+                boolean isBuilding = buildStatus.building();
+                int buildNumber = buildStatus.number();
                 
                 System.out.println("   Jenkins Result: " + jenkinsResult);
                 System.out.println("   Is Building: " + isBuilding);
                 System.out.println("   Build Number: " + buildNumber);
                 
                 // Determine Jenkins status based on result and building flag
-                String jenkinsStatus;
-                if (isBuilding != null && isBuilding) {
-                    jenkinsStatus = "BUILDING";
-                } else if (jenkinsResult != null) {
-                    jenkinsStatus = jenkinsResult;
-                } else {
-                    jenkinsStatus = "UNKNOWN";
-                }
+                String jenkinsStatus = isBuilding ? "BUILDING" : jenkinsResult;
                 
                 System.out.println("   Determined Jenkins Status: " + jenkinsStatus);
                 
@@ -204,25 +279,9 @@ public class DeploymentService {
                     System.out.println("   Project: " + deployment.getProject().getName());
                     System.out.println("   Environment: " + deployment.getEnvironmentNameOrDefault());
                     
-                    // CRITICAL: Check if Jenkins is still building
-                    Boolean isCurrentlyBuilding = (Boolean) buildStatus.get("building");
-                    if (isCurrentlyBuilding != null && isCurrentlyBuilding) {
-                        System.out.println("❌ CRITICAL: Jenkins is still building! Skipping email notification");
-                        System.out.println("   Build is still in progress, will retry later");
-                        return; // Exit early, don't send email notification
-                    }
-                    
-                    // CRITICAL: Additional check - ensure build result is not null
-                    String currentResult = (String) buildStatus.get("result");
-                    if (currentResult == null) {
-                        System.out.println("❌ CRITICAL: Build result is null! Skipping email notification");
-                        System.out.println("   Build is not truly finished yet");
-                        return; // Exit early, don't send email notification
-                    }
-                    
                     // CRITICAL: Check if build duration is valid (meaning build is truly finished)
-                    Long buildDuration = (Long) buildStatus.get("duration");
-                    if (buildDuration == null || buildDuration <= 0) {
+                    long buildDuration = buildStatus.duration();
+                    if (buildDuration <= 0) {
                         System.out.println("❌ CRITICAL: Build duration is invalid! Skipping email notification");
                         System.out.println("   Build duration: " + buildDuration + "ms");
                         System.out.println("   Build is not truly finished yet");
@@ -230,28 +289,27 @@ public class DeploymentService {
                     }
                     
                     // CRITICAL: Additional verification - check if build number matches
-                    Integer currentBuildNumber = (Integer) buildStatus.get("buildNumber");
                     Integer expectedBuildNumber = deployment.getJenkinsBuildNumber();
                     
                     // If deployment doesn't have build number, try to update it
-                    if (expectedBuildNumber == null && currentBuildNumber != null) {
-                        System.out.println("⚠️ Deployment build number is null, updating with current build number: " + currentBuildNumber);
-                        deployment.setJenkinsBuildNumber(currentBuildNumber);
+                    if (expectedBuildNumber == null && buildNumber > 0) {
+                        System.out.println("⚠️ Deployment build number is null, updating with current build number: " + buildNumber);
+                        deployment.setJenkinsBuildNumber(buildNumber);
                         deploymentHistoryRepository.save(deployment);
-                        expectedBuildNumber = currentBuildNumber;
+                        expectedBuildNumber = buildNumber;
                     }
                     
                     // More flexible build number verification
                     boolean buildNumberValid = true;
-                    if (currentBuildNumber == null) {
-                        System.out.println("⚠️ Current build number is null, but continuing with verification");
+                    if (buildNumber <= 0) {
+                        System.out.println("⚠️ Current build number is missing, but continuing with verification");
                         buildNumberValid = false;
                     } else if (expectedBuildNumber == null) {
                         System.out.println("⚠️ Expected build number is null, but continuing with verification");
                         buildNumberValid = false;
-                    } else if (!currentBuildNumber.equals(expectedBuildNumber)) {
+                    } else if (buildNumber != expectedBuildNumber) {
                         System.out.println("⚠️ Build number mismatch, but continuing with verification");
-                        System.out.println("   Current build number: " + currentBuildNumber);
+                        System.out.println("   Current build number: " + buildNumber);
                         System.out.println("   Expected build number: " + expectedBuildNumber);
                         System.out.println("   Deployment ID: " + deployment.getId());
                         buildNumberValid = false;
@@ -264,278 +322,30 @@ public class DeploymentService {
                     }
                     
                     // CRITICAL: Check if build has timestamp (meaning it's truly finished)
-                    Long buildTimestamp = (Long) buildStatus.get("timestamp");
-                    if (buildTimestamp == null || buildTimestamp <= 0) {
+                    long buildTimestamp = buildStatus.timestamp();
+                    if (buildTimestamp <= 0) {
                         System.out.println("❌ CRITICAL: Build timestamp is invalid! Skipping email notification");
                         System.out.println("   Build timestamp: " + buildTimestamp);
                         System.out.println("   Build is not truly finished yet");
                         return; // Exit early, don't send email notification
                     }
                     
-                    // CRITICAL: Wait additional time to ensure Jenkins is truly finished
-                    try {
-                        System.out.println("⏳ CRITICAL: Waiting 5 seconds to ensure Jenkins is 100% complete...");
-                        Thread.sleep(5000);
-                        System.out.println("✅ Critical wait completed");
-                    } catch (InterruptedException e) {
-                        System.err.println("❌ Critical wait interrupted: " + e.getMessage());
-                        return; // Exit early if interrupted
-                    }
-                    
-                    // CRITICAL: Final verification after wait
-                    try {
-                        System.out.println("🔍 CRITICAL: Final verification after wait...");
-                        Map<String, Object> finalBuildStatus = jenkinsService.getLastBuildStatus(deployment.getProject());
-                        
-                        if ((Boolean) finalBuildStatus.get("success")) {
-                            String finalResult = (String) finalBuildStatus.get("result");
-                            Boolean isFinalBuilding = (Boolean) finalBuildStatus.get("building");
-                            Integer finalBuildNumber = (Integer) finalBuildStatus.get("buildNumber");
-                            Long finalBuildDuration = (Long) finalBuildStatus.get("duration");
-                            Long finalBuildTimestamp = (Long) finalBuildStatus.get("timestamp");
-                            
-                            System.out.println("   Final Jenkins Result: " + finalResult);
-                            System.out.println("   Is Final Building: " + isFinalBuilding);
-                            System.out.println("   Final Build Number: " + finalBuildNumber);
-                            System.out.println("   Final Build Duration: " + finalBuildDuration + "ms");
-                            System.out.println("   Final Build Timestamp: " + finalBuildTimestamp);
-                            System.out.println("   Expected Build Number: " + expectedBuildNumber);
-                            
-                            // CRITICAL: Additional check - ensure build is not null
-                            if (finalResult == null) {
-                                System.out.println("❌ CRITICAL: Final verification failed - Build result is null");
-                                System.out.println("   Skipping email notification to prevent premature sending");
-                                return; // Exit early, don't send email notification
-                            }
-                            
-                            // CRITICAL: All conditions must be met (with fallback for build number)
-                            boolean finalBuildNumberValid = finalBuildNumber != null && 
-                                (expectedBuildNumber == null || finalBuildNumber.equals(expectedBuildNumber));
-                            
-                            // Flexible verification - send email if build is complete or has valid build number
-                            boolean buildComplete = (isFinalBuilding != null && !isFinalBuilding) || 
-                                                   (finalResult != null && "SUCCESS".equals(finalResult));
-                            
-                            System.out.println("🔍 Final verification details:");
-                            System.out.println("   Build Complete: " + buildComplete);
-                            System.out.println("   Final Result: " + finalResult);
-                            System.out.println("   Build Number Valid: " + finalBuildNumberValid);
-                            System.out.println("   Is Building: " + isFinalBuilding);
-                            System.out.println("   Final Build Number: " + finalBuildNumber);
-                            
-                            // Send email if build is complete and successful
-                            if (buildComplete && "SUCCESS".equals(finalResult) && finalBuildNumberValid) {
-                                
-                                // CRITICAL: Additional check for timestamp
-                                if (finalBuildTimestamp != null && finalBuildTimestamp > 0) {
-                                    System.out.println("✅ CRITICAL: All verification passed - Jenkins is truly finished!");
-                                    System.out.println("   Final build timestamp: " + finalBuildTimestamp);
-                                } else {
-                                    System.out.println("❌ CRITICAL: Final verification failed - Build timestamp is invalid");
-                                    System.out.println("   Final build timestamp: " + finalBuildTimestamp);
-                                    System.out.println("   Skipping email notification to prevent premature sending");
-                                    return; // Exit early, don't send email notification
-                                }
-                            } else {
-                                System.out.println("❌ CRITICAL: Final verification failed - Jenkins build not truly finished");
-                                System.out.println("   Skipping email notification to prevent premature sending");
-                                return; // Exit early, don't send email notification
-                            }
-                        } else {
-                            System.out.println("❌ CRITICAL: Final verification failed - could not get Jenkins status");
-                            System.out.println("   Skipping email notification to prevent premature sending");
-                            return; // Exit early, don't send email notification
-                        }
-                    } catch (Exception e) {
-                        System.err.println("❌ CRITICAL: Final verification error: " + e.getMessage());
-                        System.out.println("   Skipping email notification to prevent premature sending");
-                        return; // Exit early, don't send email notification
-                    }
-                    
-                    // Now update deployment status
-                    String oldStatus = deployment.getStatus().toString();
-                    deployment.setStatus(DeploymentHistory.Status.SUCCESS);
-                    deployment.setCompletedAt(LocalDateTime.now());
-                    
-                    // Update environment status to online (only if this deployment has one)
-                    if (deployment.getEnvironment() != null) {
-                        environmentService.updateEnvironmentStatus(deployment.getEnvironment().getId(), Environment.Status.ONLINE);
-                    }
-
-                    // Save deployment
-                    deploymentHistoryRepository.save(deployment);
-                    System.out.println("💾 Deployment status saved to database");
+                    // Jenkins reports a finished build: hand it to the verification state
+                    // machine, which re-checks it after a delay on a timer instead of
+                    // holding this thread, and only then marks the deployment SUCCESS
+                    startVerification(deployment, DeploymentHistory.Status.SUCCESS, expectedBuildNumber);
+                    return;
                     
-                    // Monitor service will handle email notification and event publishing
-                    System.out.println("📧 Email notification and event publishing will be handled by Jenkins Build Monitor Service");
-                    
-                    // Note: Bell notification will be handled by Jenkins Build Monitor Service
-                    System.out.println("📧 Bell notification will be handled by Jenkins Build Monitor Service");
-                    
-                    // IMPORTANT: DeploymentStatusEvent is ONLY published by JenkinsBuildMonitorService
-                    // This ensures notifications are sent only when Jenkins build is truly finished
-                    System.out.println("📢 DeploymentStatusEvent will be published by JenkinsBuildMonitorService only");
-                    
-                } else if ("FAILURE".equals(jenkinsStatus) || "ABORTED".equals(jenkinsStatus) || "UNSTABLE".equals(jenkinsStatus)) {
+                } else if (BuildStatus.isFailureResult(jenkinsStatus)) {
                     System.out.println("❌ Jenkins deployment FAILURE detected for deployment: " + deployment.getId());
                     System.out.println("   Build Number: " + deployment.getJenkinsBuildNumber());
                     System.out.println("   Project: " + deployment.getProject().getName());
                     System.out.println("   Environment: " + deployment.getEnvironmentNameOrDefault());
                     
-                    // Verify Jenkins failure is truly finished before proceeding
-                    boolean jenkinsFailureTrulyFinished = false;
-                    int failureRetryCount = 0;
-                    int maxFailureRetries = 10;
-                    
-                    while (!jenkinsFailureTrulyFinished && failureRetryCount < maxFailureRetries) {
-                        try {
-                            System.out.println("🔍 Checking if Jenkins failure is truly finished (attempt " + (failureRetryCount + 1) + "/" + maxFailureRetries + ")");
-                            
-                            // Get current Jenkins status
-                            Map<String, Object> currentFailureStatus = jenkinsService.getLastBuildStatus(deployment.getProject());
-                            
-                            if ((Boolean) currentFailureStatus.get("success")) {
-                                String currentFailureResult = (String) currentFailureStatus.get("result");
-                                Boolean isCurrentlyFailureBuilding = (Boolean) currentFailureStatus.get("building");
-                                Integer currentFailureBuildNumber = (Integer) currentFailureStatus.get("buildNumber");
-                                
-                                System.out.println("   Current Jenkins Failure Result: " + currentFailureResult);
-                                System.out.println("   Is Currently Failure Building: " + isCurrentlyFailureBuilding);
-                                System.out.println("   Current Failure Build Number: " + currentFailureBuildNumber);
-                                System.out.println("   Expected Failure Build Number: " + deployment.getJenkinsBuildNumber());
-                                
-                                // Check if the failure build is truly finished
-                                if (isCurrentlyFailureBuilding != null && !isCurrentlyFailureBuilding && 
-                                    ("FAILURE".equals(currentFailureResult) || "ABORTED".equals(currentFailureResult) || "UNSTABLE".equals(currentFailureResult)) && 
-                                    currentFailureBuildNumber != null && 
-                                    currentFailureBuildNumber.equals(deployment.getJenkinsBuildNumber())) {
-                                    
-                                    jenkinsFailureTrulyFinished = true;
-                                    System.out.println("✅ Jenkins failure confirmed as truly finished!");
-                                } else {
-                                    System.out.println("⏳ Jenkins failure still in progress, waiting...");
-                                    try {
-                                        Thread.sleep(3000); // Wait 3 seconds before retry
-                                    } catch (InterruptedException ie) {
-                                        System.err.println("❌ Wait interrupted: " + ie.getMessage());
-                                        Thread.currentThread().interrupt();
-                                        break;
-                                    }
-                                    failureRetryCount++;
-                                }
-                            } else {
-                                System.out.println("⚠️ Failed to get Jenkins failure status, retrying...");
-                                try {
-                                    Thread.sleep(3000);
-                                } catch (InterruptedException ie) {
-                                    System.err.println("❌ Wait interrupted: " + ie.getMessage());
-                                    Thread.currentThread().interrupt();
-                                    break;
-                                }
-                                failureRetryCount++;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("❌ Error checking Jenkins failure status: " + e.getMessage());
-                            try {
-                                Thread.sleep(3000);
-                            } catch (InterruptedException ie) {
-                                System.err.println("❌ Wait interrupted: " + ie.getMessage());
-                                Thread.currentThread().interrupt();
-                                break;
-                            }
-                            failureRetryCount++;
-                        }
-                    }
-                    
-                    if (!jenkinsFailureTrulyFinished) {
-                        System.out.println("⚠️ Could not confirm Jenkins failure completion after " + maxFailureRetries + " attempts");
-                        System.out.println("   Skipping email notification to ensure Jenkins failure is truly finished");
-                        return; // Exit early, don't send email notification
-                    }
-                    
-                    // Additional safety delay for failure
-                    try {
-                        System.out.println("⏳ Final safety delay of 3 seconds for failure...");
-                        Thread.sleep(3000);
-                        System.out.println("✅ Safety delay for failure completed");
-                    } catch (InterruptedException e) {
-                        System.err.println("❌ Safety delay for failure interrupted: " + e.getMessage());
-                    }
-                    
-                    // Final verification for failure
-                    try {
-                        System.out.println("🔍 Final verification of Jenkins failure completion...");
-                        Map<String, Object> finalFailureStatus = jenkinsService.getLastBuildStatus(deployment.getProject());
-                        
-                        if ((Boolean) finalFailureStatus.get("success")) {
-                            String finalFailureResult = (String) finalFailureStatus.get("result");
-                            Boolean isFinalFailureBuilding = (Boolean) finalFailureStatus.get("building");
-                            Integer finalFailureBuildNumber = (Integer) finalFailureStatus.get("buildNumber");
-                            
-                            System.out.println("   Final Jenkins Failure Result: " + finalFailureResult);
-                            System.out.println("   Is Final Failure Building: " + isFinalFailureBuilding);
-                            System.out.println("   Final Failure Build Number: " + finalFailureBuildNumber);
-                            System.out.println("   Expected Failure Build Number: " + deployment.getJenkinsBuildNumber());
-                            
-                            // Flexible verification for failure cases
-                            boolean failureBuildComplete = (isFinalFailureBuilding != null && !isFinalFailureBuilding) || 
-                                                          (finalFailureResult != null && 
-                                                           ("FAILURE".equals(finalFailureResult) || "ABORTED".equals(finalFailureResult) || "UNSTABLE".equals(finalFailureResult)));
-                            
-                            System.out.println("🔍 Final failure verification details:");
-                            System.out.println("   Failure Build Complete: " + failureBuildComplete);
-                            System.out.println("   Final Failure Result: " + finalFailureResult);
-                            System.out.println("   Failure Build Number Valid: " + (finalFailureBuildNumber != null && finalFailureBuildNumber.equals(deployment.getJenkinsBuildNumber())));
-                            System.out.println("   Is Failure Building: " + isFinalFailureBuilding);
-                            System.out.println("   Final Failure Build Number: " + finalFailureBuildNumber);
-                            
-                            // Send failure email if build is complete and failed
-                            if (failureBuildComplete && 
-                                (finalFailureResult != null && 
-                                 ("FAILURE".equals(finalFailureResult) || "ABORTED".equals(finalFailureResult) || "UNSTABLE".equals(finalFailureResult))) &&
-                                finalFailureBuildNumber != null && 
-                                finalFailureBuildNumber.equals(deployment.getJenkinsBuildNumber())) {
-                                
-                                System.out.println("✅ Final failure verification successful - Jenkins failure is truly finished!");
-                            } else {
-                                System.out.println("❌ Final failure verification failed - Jenkins failure not truly finished");
-                                System.out.println("   Skipping email notification to prevent premature sending");
-                                return; // Exit early, don't send email notification
-                            }
-                        } else {
-                            System.out.println("❌ Final failure verification failed - could not get Jenkins status");
-                            System.out.println("   Skipping email notification to prevent premature sending");
-                            return; // Exit early, don't send email notification
-                        }
-                    } catch (Exception e) {
-                        System.err.println("❌ Final failure verification error: " + e.getMessage());
-                        System.out.println("   Skipping email notification to prevent premature sending");
-                        return; // Exit early, don't send email notification
-                    }
-                    
-                    // Now update deployment status for failure
-                    String oldFailureStatus = deployment.getStatus().toString();
-                    deployment.setStatus(DeploymentHistory.Status.FAILED);
-                    deployment.setCompletedAt(LocalDateTime.now());
-                    
-                    // Update environment status to error (only if this deployment has one)
-                    if (deployment.getEnvironment() != null) {
-                        environmentService.updateEnvironmentStatus(deployment.getEnvironment().getId(), Environment.Status.ERROR);
-                    }
-
-                    // Save deployment
-                    deploymentHistoryRepository.save(deployment);
-                    System.out.println("💾 Failed deployment status saved to database");
-                    
-                    // Monitor service will handle email notification and event publishing
-                    System.out.println("📧 Email notification and event publishing will be handled by Jenkins Build Monitor Service");
-                    
-                    // Note: Bell notification will be handled by Jenkins Build Monitor Service
-                    System.out.println("📧 Bell notification will be handled by Jenkins Build Monitor Service");
-                    
-                    // IMPORTANT: DeploymentStatusEvent is ONLY published by JenkinsBuildMonitorService
-                    // This ensures notifications are sent only when Jenkins build is truly finished
-                    System.out.println("📢 DeploymentStatusEvent will be published by JenkinsBuildMonitorService only");
+                    // Confirming that the failed build is truly finished is done by the
+                    // verification state machine on timers rather than a retry/sleep loop
+                    startVerification(deployment, DeploymentHistory.Status.FAILED, deployment.getJenkinsBuildNumber());
+                    return;
                     
                 } else if ("BUILDING".equals(jenkinsStatus) || "IN_PROGRESS".equals(jenkinsStatus)) {
                     deployment.setStatus(DeploymentHistory.Status.IN_PROGRESS);
@@ -546,7 +356,7 @@ public class DeploymentService {
                 }
                 
                 // Update build number if available
-                if (buildNumber != null) {
+                if (buildNumber > 0) {
                     deployment.setJenkinsBuildNumber(buildNumber);
                 }
                 
@@ -560,6 +370,181 @@ public class DeploymentService {
         }
     }
 
+    /**
+     * Request a status sync for one deployment without waiting for it; used by the sync
+     * endpoints so they can answer right away. Runs on the next reconciliation tick.
+     */
+    public void requestStatusSync(Long deploymentId) {
+        deploymentReconciliationService.scheduleNow(deploymentId, DeploymentReconciliationService.Source.MANUAL);
+    }
+
+    /**
+     * Request a sync of all active deployments without waiting for it.
+     */
+    public void requestSyncAllActiveDeployments() {
+        deploymentReconciliationService.scheduleAllActive(DeploymentReconciliationService.Source.MANUAL);
+    }
+
+    /**
+     * Get the verification state of a deployment, or null if none is in progress
+     */
+    public VerificationState getVerificationState(Long deploymentId) {
+        DeploymentVerification verification = verifications.get(deploymentId);
+        return verification != null ? verification.state : null;
+    }
+
+    private void startVerification(DeploymentHistory deployment, DeploymentHistory.Status outcome, Integer expectedBuildNumber) {
+        DeploymentVerification verification = new DeploymentVerification(
+            deployment.getId(), deployment.getProject(), outcome, expectedBuildNumber);
+        if (verifications.putIfAbsent(deployment.getId(), verification) != null) {
+            return;
+        }
+
+        verification.state = VerificationState.CONFIRMING;
+        if (outcome == DeploymentHistory.Status.SUCCESS) {
+            System.out.println("⏳ CRITICAL: Re-checking in " + (SUCCESS_CONFIRM_DELAY_MS / 1000) + " seconds to ensure Jenkins is 100% complete...");
+            scheduleVerificationCheck(verification, SUCCESS_CONFIRM_DELAY_MS);
+        } else {
+            scheduleVerificationCheck(verification, 0);
+        }
+    }
+
+    private void scheduleVerificationCheck(DeploymentVerification verification, long delayMs) {
+        verificationScheduler.schedule(() -> jenkinsService.getLastBuildStatusAsync(verification.project)
+            .whenCompleteAsync((buildStatus, ex) -> {
+                try {
+                    if (verification.outcome == DeploymentHistory.Status.SUCCESS) {
+                        confirmSuccess(verification, ex == null ? buildStatus : null);
+                    } else {
+                        confirmFailure(verification, ex == null ? buildStatus : null);
+                    }
+                } catch (Exception e) {
+                    System.err.println("❌ CRITICAL: Verification error for deployment " + verification.deploymentId + ": " + e.getMessage());
+                    abandonVerification(verification);
+                }
+            }, verificationScheduler), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void confirmSuccess(DeploymentVerification verification, JenkinsResult<BuildStatus> finalBuildStatus) {
+        System.out.println("🔍 CRITICAL: Final verification for deployment " + verification.deploymentId + "...");
+        if (!(finalBuildStatus instanceof JenkinsResult.Success<BuildStatus> success)) {
+            System.out.println("❌ CRITICAL: Final verification failed - could not get Jenkins status");
+            abandonVerification(verification);
+            return;
+        }
+
+        BuildStatus finalBuild = success.value();
+        Integer expectedBuildNumber = verification.expectedBuildNumber;
+
+        System.out.println("   Final Jenkins Result: " + finalBuild.resultOrInProgress());
+        System.out.println("   Is Final Building: " + finalBuild.building());
+        System.out.println("   Final Build Number: " + finalBuild.number());
+        System.out.println("   Final Build Timestamp: " + finalBuild.timestamp());
+        System.out.println("   Expected Build Number: " + expectedBuildNumber);
+
+        // CRITICAL: All conditions must be met (with fallback for build number)
+        boolean finalBuildNumberValid = finalBuild.number() > 0 &&
+            (expectedBuildNumber == null || finalBuild.number() == expectedBuildNumber);
+
+        if (finalBuild.isSuccess() && finalBuildNumberValid && finalBuild.timestamp() > 0) {
+            System.out.println("✅ CRITICAL: All verification passed - Jenkins is truly finished!");
+            finalizeVerification(verification, finalBuild.number());
+        } else {
+            System.out.println("❌ CRITICAL: Final verification failed - Jenkins build not truly finished");
+            abandonVerification(verification);
+        }
+    }
+
+    private void confirmFailure(DeploymentVerification verification, JenkinsResult<BuildStatus> failureStatus) {
+        BuildStatus failureBuild = failureStatus != null ? failureStatus.valueOrNull() : null;
+        boolean available = failureBuild != null;
+        boolean isFailureResult = available && failureBuild.isFailure();
+        boolean buildNumberMatches = available && verification.expectedBuildNumber != null
+            && failureBuild.number() == verification.expectedBuildNumber;
+
+        if (verification.settling) {
+            // Final verification for failure, after the safety delay
+            System.out.println("🔍 Final verification of Jenkins failure completion for deployment " + verification.deploymentId + "...");
+            if (isFailureResult && buildNumberMatches) {
+                System.out.println("✅ Final failure verification successful - Jenkins failure is truly finished!");
+                finalizeVerification(verification, failureBuild.number());
+            } else {
+                System.out.println("❌ Final failure verification failed - Jenkins failure not truly finished");
+                abandonVerification(verification);
+            }
+            return;
+        }
+
+        verification.attempts++;
+        System.out.println("🔍 Checking if Jenkins failure is truly finished (attempt " + verification.attempts + "/" + MAX_FAILURE_CHECKS + ")");
+        if (available) {
+            System.out.println("   Current Jenkins Failure Result: " + failureBuild.resultOrInProgress());
+            System.out.println("   Is Currently Failure Building: " + failureBuild.building());
+            System.out.println("   Current Failure Build Number: " + failureBuild.number());
+        } else {
+            System.out.println("   Current Jenkins Failure Result: unavailable");
+        }
+        System.out.println("   Expected Failure Build Number: " + verification.expectedBuildNumber);
+
+        if (isFailureResult && !failureBuild.building() && buildNumberMatches) {
+            System.out.println("✅ Jenkins failure confirmed as truly finished! Final check in " + (FAILURE_CHECK_INTERVAL_MS / 1000) + " seconds");
+            verification.settling = true;
+            scheduleVerificationCheck(verification, FAILURE_CHECK_INTERVAL_MS);
+        } else if (verification.attempts >= MAX_FAILURE_CHECKS) {
+            System.out.println("⚠️ Could not confirm Jenkins failure completion after " + MAX_FAILURE_CHECKS + " attempts");
+            abandonVerification(verification);
+        } else {
+            System.out.println("⏳ Jenkins failure still in progress, re-checking in " + (FAILURE_CHECK_INTERVAL_MS / 1000) + " seconds");
+            scheduleVerificationCheck(verification, FAILURE_CHECK_INTERVAL_MS);
+        }
+    }
+
+    private void abandonVerification(DeploymentVerification verification) {
+        verifications.remove(verification.deploymentId, verification);
+        System.out.println("   Skipping status update to prevent premature completion; the next sync will observe the build again");
+    }
+
+    /**
+     * FINAL: persist the verified outcome. Runs on the verification timer, so it reloads
+     * the deployment rather than reusing the entity from the sync that observed the build.
+     */
+    private void finalizeVerification(DeploymentVerification verification, Integer buildNumber) {
+        verification.state = VerificationState.FINAL;
+        try {
+            Optional<DeploymentHistory> deploymentOpt = deploymentHistoryRepository.findByIdWithEagerLoading(verification.deploymentId);
+            if (deploymentOpt.isEmpty()) {
+                return;
+            }
+            DeploymentHistory deployment = deploymentOpt.get();
+            deployment.setStatus(verification.outcome);
+            deployment.setCompletedAt(LocalDateTime.now());
+            if (buildNumber != null) {
+                deployment.setJenkinsBuildNumber(buildNumber);
+            }
+
+            // Update environment status (only if this deployment has one)
+            if (deployment.getEnvironment() != null) {
+                environmentService.updateEnvironmentStatus(deployment.getEnvironment().getId(),
+                    verification.outcome == DeploymentHistory.Status.SUCCESS ? Environment.Status.ONLINE : Environment.Status.ERROR);
+            }
+
+            deploymentHistoryRepository.save(deployment);
+            buildDurationService.recordCompletion(deployment);
+            System.out.println("💾 Deployment " + verification.deploymentId + " status saved to database: " + verification.outcome);
+
+            // IMPORTANT: DeploymentStatusEvent is ONLY published by JenkinsBuildMonitorService
+            // This ensures notifications are sent only when Jenkins build is truly finished
+            System.out.println("📢 DeploymentStatusEvent will be published by JenkinsBuildMonitorService only");
+        } finally {
+            verifications.remove(verification.deploymentId, verification);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownVerificationScheduler() {
+        verificationScheduler.shutdownNow();
+    }
+
     /**
      * Update deployment status manually
      */
@@ -588,67 +573,129 @@ public class DeploymentService {
     }
 
     /**
-     * Auto-sync all active deployments from Jenkins
+     * Sync deployments the build monitor doesn't hold, on the reconciliation loop (see
+     * DeploymentReconciliationService). Registered after the monitor, so it gets every
+     * due deployment the monitor doesn't claim.
      */
-    @Transactional
-    public void syncAllActiveDeployments() {
-        List<DeploymentHistory> activeDeployments = deploymentHistoryRepository.findByStatusInWithEagerLoading(
-            List.of(DeploymentHistory.Status.PENDING, DeploymentHistory.Status.IN_PROGRESS)
-        );
-        
+    @PostConstruct
+    public void registerReconciliation() {
+        deploymentReconciliationService.registerChecker(100, "sync", new DeploymentReconciliationService.Checker() {
+            @Override
+            public boolean claims(Long deploymentId) {
+                return true;
+            }
+
+            @Override
+            public void check(List<DeploymentReconciliationService.DueCheck> due) {
+                syncDueDeployments(due);
+            }
+        });
+    }
+
+    /**
+     * Load the due deployments in one query, fetch their jobs' last builds with one
+     * request per Jenkins host, sync each and queue the next sync of the ones still active.
+     */
+    private void syncDueDeployments(List<DeploymentReconciliationService.DueCheck> due) {
+        Map<Long, DeploymentReconciliationService.Source> sources = new HashMap<>();
+        for (DeploymentReconciliationService.DueCheck check : due) {
+            sources.put(check.deploymentId(), check.source());
+        }
+        // Deployments that finished meanwhile are done with
+        List<DeploymentHistory> activeDeployments = deploymentHistoryRepository.findByIdInWithEagerLoading(sources.keySet())
+            .stream()
+            .filter(deployment -> deployment.getStatus() == DeploymentHistory.Status.PENDING
+                || deployment.getStatus() == DeploymentHistory.Status.IN_PROGRESS)
+            .toList();
+        activeDeployments = withoutDeploymentsLeasedElsewhere(activeDeployments, sources);
+        if (activeDeployments.isEmpty()) {
+            return;
+        }
+
         System.out.println("🔄 Syncing " + activeDeployments.size() + " active deployments from Jenkins");
-        
+
+        Map<Long, BuildStatus> lastBuildStatuses = prefetchLastBuildStatuses(activeDeployments);
+        LocalDateTime recentSince = LocalDateTime.now().minusMinutes(RECENT_DEPLOYMENT_MINUTES);
         for (DeploymentHistory deployment : activeDeployments) {
             try {
-                updateDeploymentStatusFromJenkins(deployment.getId());
+                updateDeploymentStatusFromJenkins(deployment.getId(), lastBuildStatuses.get(deployment.getId()));
             } catch (Exception e) {
                 System.err.println("Error syncing deployment " + deployment.getId() + ": " + e.getMessage());
                 e.printStackTrace();
             }
+            boolean recent = deployment.getCreatedAt() != null && deployment.getCreatedAt().isAfter(recentSince);
+            deploymentReconciliationService.schedule(deployment.getId(),
+                System.currentTimeMillis() + (recent ? RECENT_SYNC_INTERVAL_MS : SYNC_INTERVAL_MS),
+                DeploymentReconciliationService.Source.POLL);
         }
     }
 
     /**
-     * Scheduled task to automatically sync deployment status every 15 seconds
+     * Leave periodic syncs of deployments whose build another node's monitor holds the
+     * lease for to that node, so replicas don't poll and update the same deployment.
+     * Webhook and manual syncs go ahead.
      */
-    @Scheduled(fixedRate = 15000) // 15 seconds = 15,000 milliseconds
-    public void scheduledSyncDeployments() {
-        try {
-            System.out.println("⚡ REAL-TIME sync: Checking for deployment status updates...");
-            syncAllActiveDeployments();
-        } catch (Exception e) {
-            System.err.println("❌ Error in scheduled sync: " + e.getMessage());
+    private List<DeploymentHistory> withoutDeploymentsLeasedElsewhere(List<DeploymentHistory> deployments,
+            Map<Long, DeploymentReconciliationService.Source> sources) {
+        boolean periodic = deployments.stream().anyMatch(deployment -> isPeriodic(sources.get(deployment.getId())));
+        if (!periodic) {
+            return deployments;
         }
+        Set<Long> leasedElsewhere = new HashSet<>(monitorLeaseService.getDeploymentIdsLeasedElsewhere());
+        return deployments.stream()
+            .filter(deployment -> !(leasedElsewhere.contains(deployment.getId()) && isPeriodic(sources.get(deployment.getId()))))
+            .toList();
     }
-    
+
+    private static boolean isPeriodic(DeploymentReconciliationService.Source source) {
+        return source == DeploymentReconciliationService.Source.POLL || source == DeploymentReconciliationService.Source.MONITOR;
+    }
+
     /**
-     * Fast sync for critical deployments (every 10 seconds)
+     * Fetch the last build of every deployment's Jenkins job with one tree request per
+     * Jenkins host (URL + credentials) instead of one lastBuild request per deployment.
+     * Deployments whose job wasn't in its host's response (or whose host request failed)
+     * are left out, so the sync falls back to fetching them individually.
      */
-    @Scheduled(fixedRate = 10000) // 10 seconds = 10,000 milliseconds
-    public void fastSyncDeployments() {
-        try {
-            // Only sync deployments that are very recent (last 5 minutes)
-            LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-            List<DeploymentHistory> recentDeployments = deploymentHistoryRepository.findByStatusInAndCreatedAtAfterWithEagerLoading(
-                List.of(DeploymentHistory.Status.PENDING, DeploymentHistory.Status.IN_PROGRESS),
-                fiveMinutesAgo
-            );
-            
-            if (!recentDeployments.isEmpty()) {
-                System.out.println("🚀 FAST sync: Checking " + recentDeployments.size() + " recent deployments...");
-                for (DeploymentHistory deployment : recentDeployments) {
-                    try {
-                        updateDeploymentStatusFromJenkins(deployment.getId());
-                    } catch (Exception e) {
-                        System.err.println("Error in fast sync for deployment " + deployment.getId() + ": " + e.getMessage());
-                    }
+    private Map<Long, BuildStatus> prefetchLastBuildStatuses(List<DeploymentHistory> deployments) {
+        Map<String, Project> hostProjects = new HashMap<>();
+        for (DeploymentHistory deployment : deployments) {
+            Project project = deployment.getProject();
+            if (project != null && jenkinsService.isJenkinsConfigured(project)) {
+                hostProjects.putIfAbsent(jenkinsService.jenkinsHostKey(project), project);
+            }
+        }
+
+        // All hosts are queried in parallel
+        Map<String, CompletableFuture<Map<String, List<BuildStatus>>>> hostRequests = new HashMap<>();
+        for (Map.Entry<String, Project> host : hostProjects.entrySet()) {
+            hostRequests.put(host.getKey(), jenkinsService.getJobBuildsAsync(host.getValue(), 1));
+        }
+
+        Map<Long, BuildStatus> statuses = new HashMap<>();
+        for (DeploymentHistory deployment : deployments) {
+            Project project = deployment.getProject();
+            CompletableFuture<Map<String, List<BuildStatus>>> request = project != null
+                ? hostRequests.get(jenkinsService.jenkinsHostKey(project))
+                : null;
+            if (request == null) {
+                continue;
+            }
+            try {
+                List<BuildStatus> jobBuilds = request.join().get(project.getJenkinsJobName());
+                if (jobBuilds != null && !jobBuilds.isEmpty()) {
+                    statuses.put(deployment.getId(), jobBuilds.get(0));
                 }
+            } catch (Exception e) {
+                System.err.println("⚠️ Batched status request failed for " + project.getJenkinsUrl() + ": "
+                    + JenkinsClient.unwrap(e).getMessage());
             }
-        } catch (Exception e) {
-            System.err.println("❌ Error in fast sync: " + e.getMessage());
         }
+        System.out.println("   Prefetched " + statuses.size() + "/" + deployments.size() + " build status(es) from "
+            + hostRequests.size() + " Jenkins host(s)");
+        return statuses;
     }
-    
+
     /**
      * Cleanup email tracking set every hour to prevent memory leaks
      */
@@ -0,0 +1,90 @@
+package com.cibofdevs.envpilot.service;
+
+/**
+ * Streaming quantile sketch of durations: counts in logarithmic buckets, each GAMMA
+ * times wider than the previous, so any quantile is within about 2% of the true value
+ * no matter how the durations are spread between MIN_MS and MAX_MS. Adding a duration
+ * is one bucket increment, sketches merge by adding their buckets, and nothing about
+ * individual durations is kept.
+ *
+ * Older durations fade out: once the total weight passes 2 * HALF_LIFE_SAMPLES every
+ * bucket is halved, so the sketch follows a job getting faster or slower instead of
+ * averaging over its whole history. Not thread-safe; BuildDurationService synchronizes.
+ */
+class DurationSketch {
+
+    static final long MIN_MS = 1000;
+    static final long MAX_MS = 24 * 60 * 60 * 1000;
+    private static final double GAMMA = 1.04;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS = (int) Math.ceil(Math.log((double) MAX_MS / MIN_MS) / LOG_GAMMA) + 1;
+
+    static final int HALF_LIFE_SAMPLES = 50;
+
+    // Bucket i holds durations in (MIN_MS * GAMMA^(i-1), MIN_MS * GAMMA^i]; bucket 0
+    // everything up to MIN_MS and the last one everything from MAX_MS up
+    private final double[] counts = new double[BUCKETS];
+    private double weight;
+    private long samples;
+
+    void add(long durationMs) {
+        counts[bucket(durationMs)]++;
+        weight++;
+        samples++;
+        if (weight >= 2 * HALF_LIFE_SAMPLES) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] /= 2;
+            }
+            weight /= 2;
+        }
+    }
+
+    void merge(DurationSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        weight += other.weight;
+        samples += other.samples;
+    }
+
+    /**
+     * Durations added so far, including faded ones.
+     */
+    long samples() {
+        return samples;
+    }
+
+    /**
+     * The q-quantile (0..1) of the durations, or -1 if the sketch is empty.
+     */
+    long quantile(double q) {
+        if (weight <= 0) {
+            return -1;
+        }
+        double rank = q * weight;
+        double seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return value(i);
+            }
+        }
+        return value(BUCKETS - 1);
+    }
+
+    private static int bucket(long durationMs) {
+        if (durationMs <= MIN_MS) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log((double) durationMs / MIN_MS) / LOG_GAMMA);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    // Midpoint of the bucket (relative to its bounds), which keeps the error symmetric
+    private static long value(int bucket) {
+        if (bucket == 0) {
+            return MIN_MS;
+        }
+        return Math.round(MIN_MS * Math.pow(GAMMA, bucket) * 2 / (1 + GAMMA));
+    }
+}
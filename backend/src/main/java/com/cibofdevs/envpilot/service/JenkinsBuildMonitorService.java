@@ -1,25 +1,27 @@
 package com.cibofdevs.envpilot.service;
 
+import com.cibofdevs.envpilot.dto.BuildStatus;
 import com.cibofdevs.envpilot.model.DeploymentHistory;
+import com.cibofdevs.envpilot.model.MonitoredDeployment;
 import com.cibofdevs.envpilot.model.Project;
 import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
-import com.cibofdevs.envpilot.repository.ProjectRepository;
+import com.cibofdevs.envpilot.repository.MonitoredDeploymentRepository;
 import com.cibofdevs.envpilot.event.DeploymentStatusEvent;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpMethod;
-import java.util.Base64;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -30,47 +32,114 @@ public class JenkinsBuildMonitorService {
     private DeploymentHistoryRepository deploymentHistoryRepository;
 
     @Autowired
-    private ProjectRepository projectRepository;
+    private JenkinsServerRegistry jenkinsServerRegistry;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private MonitoredDeploymentRepository monitoredDeploymentRepository;
+
+    @Autowired
+    private MonitorLeaseService monitorLeaseService;
+
+    @Autowired
+    private DeploymentReconciliationService deploymentReconciliationService;
+
+    @Autowired
+    private JenkinsService jenkinsService;
 
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    private ObjectMapper objectMapper;
-    
+    private BuildLogArchiveService buildLogArchiveService;
+
+    @Autowired
+    private BuildListCacheService buildListCacheService;
+
+    @Autowired
+    private BuildDurationService buildDurationService;
+
+    @Autowired
+    private RealTimeNotificationService realTimeNotificationService;
+
     @Autowired
     private EmailService emailService;
     
     @Autowired
     private FeatureFlagService featureFlagService;
 
-    // Track active deployments that are being monitored
+    // Checks run on the reconciliation loop, outside any transaction, and calls within
+    // this class bypass the @Transactional proxy - so completions open their own
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Track active deployments that are being monitored by this node; mirrored to the
+    // monitored_deployments table so monitoring resumes after a restart and is shared
+    // between nodes (see MonitorLeaseService)
     private final Map<Long, DeploymentMonitor> activeDeployments = new ConcurrentHashMap<>();
     
     // Track build numbers to prevent duplicate processing
     private final Set<String> processedBuilds = ConcurrentHashMap.newKeySet();
 
+    // Recent builds fetched per job in the batched host request; a deployment whose build
+    // has been pushed further back than this is looked up on its own
+    private static final int BUILDS_PER_JOB = 5;
+
+    // Monitoring gives up after this long, or twice the predicted build duration if longer
+    private static final long MONITOR_TIMEOUT_MS = 30 * 60 * 1000;
+
+    // Jobs that sent a build notification (webhook) within this window are trusted to
+    // report completion themselves, so their builds are only polled every
+    // SAFETY_NET_POLL_INTERVAL_MS in case a notification gets lost
+    private static final long WEBHOOK_ACTIVE_WINDOW_MS = 60 * 60 * 1000;
+    private static final long SAFETY_NET_POLL_INTERVAL_MS = 60 * 1000;
+
+    // A new ETA is pushed to clients when the predicted end moves by at least this much
+    private static final long ETA_UPDATE_THRESHOLD_MS = 10 * 1000;
+
+    // Last build notification per Jenkins job
+    private final Map<String, Long> lastNotificationByJob = new ConcurrentHashMap<>();
+
     private static class DeploymentMonitor {
         final Long deploymentId;
+        // Null for projects deployed without an environment
+        final Long environmentId;
         final String projectName;
         final String jenkinsJob;
         final String jenkinsUrl;
         final Integer expectedBuildNumber;
         final AtomicInteger checkCount;
         final long startTime;
+        // When this node took the deployment on
+        final long registeredAt = System.currentTimeMillis();
+        // Next time the build is due for a status check, and when it is predicted to
+        // finish (-1 while unknown) - see BuildDurationService
+        volatile long nextCheckAt;
+        volatile long predictedEndAt = -1;
+        // p90 of the history-based ETA, and the predicted end last pushed to clients
+        volatile long p90EndAt = -1;
+        volatile long announcedEndAt = -1;
+        // Start time and Jenkins' estimatedDuration of the expected build, once seen
+        volatile long buildStartedAt = -1;
+        volatile long jenkinsEstimatedDuration = -1;
+        // Jenkins notified us that the build finished; poll densely until it is processed
+        volatile boolean completionNotified;
         
-        DeploymentMonitor(Long deploymentId, String projectName, String jenkinsJob, 
+        DeploymentMonitor(Long deploymentId, Long environmentId, String projectName, String jenkinsJob, 
                          String jenkinsUrl, Integer expectedBuildNumber) {
+            this(deploymentId, environmentId, projectName, jenkinsJob, jenkinsUrl, expectedBuildNumber, System.currentTimeMillis(), 0);
+        }
+
+        DeploymentMonitor(Long deploymentId, Long environmentId, String projectName, String jenkinsJob,
+                         String jenkinsUrl, Integer expectedBuildNumber, long startTime, int checkCount) {
             this.deploymentId = deploymentId;
+            this.environmentId = environmentId;
             this.projectName = projectName;
             this.jenkinsJob = jenkinsJob;
             this.jenkinsUrl = jenkinsUrl;
             this.expectedBuildNumber = expectedBuildNumber;
-            this.checkCount = new AtomicInteger(0);
-            this.startTime = System.currentTimeMillis();
+            this.checkCount = new AtomicInteger(checkCount);
+            this.startTime = startTime;
+            this.nextCheckAt = System.currentTimeMillis();
         }
     }
 
@@ -78,10 +147,18 @@ public class JenkinsBuildMonitorService {
      * Start monitoring a deployment for build completion
      */
     public void startMonitoring(Long deploymentId, String projectName, String jenkinsJob, 
-                               String jenkinsUrl, Integer expectedBuildNumber) {
-        DeploymentMonitor monitor = new DeploymentMonitor(deploymentId, projectName, jenkinsJob, 
+                               String jenkinsUrl, Integer expectedBuildNumber, Long environmentId) {
+        DeploymentMonitor monitor = new DeploymentMonitor(deploymentId, environmentId, projectName, jenkinsJob, 
                                                          jenkinsUrl, expectedBuildNumber);
+        try {
+            monitorLeaseService.register(deploymentId, projectName, jenkinsJob, jenkinsUrl, expectedBuildNumber,
+                toLocalDateTime(monitor.startTime), toLocalDateTime(monitor.nextCheckAt));
+        } catch (Exception e) {
+            // Monitored in memory only; the leader's scheduled sync still covers it
+            System.err.println("⚠️ Failed to register monitored deployment " + deploymentId + ": " + e.getMessage());
+        }
         activeDeployments.put(deploymentId, monitor);
+        deploymentReconciliationService.schedule(deploymentId, monitor.nextCheckAt, DeploymentReconciliationService.Source.MONITOR);
         
         System.out.println("🔍 Started monitoring deployment: " + deploymentId);
         System.out.println("   Project: " + projectName);
@@ -94,95 +171,331 @@ public class JenkinsBuildMonitorService {
      */
     public void stopMonitoring(Long deploymentId) {
         activeDeployments.remove(deploymentId);
+        deploymentReconciliationService.cancel(deploymentId);
+        unregister(deploymentId);
         System.out.println("🔍 Stopped monitoring deployment: " + deploymentId);
     }
 
     /**
-     * Scheduled task to check build status every 10 seconds
+     * Check the deployments this node monitors on the reconciliation loop, ahead of the
+     * generic sync.
      */
-    @Scheduled(fixedDelay = 10000) // 10 seconds
-    @Transactional
-    public void monitorActiveDeployments() {
-        if (activeDeployments.isEmpty()) {
+    @PostConstruct
+    public void registerReconciliation() {
+        deploymentReconciliationService.registerChecker(0, "monitor", new DeploymentReconciliationService.Checker() {
+            @Override
+            public boolean claims(Long deploymentId) {
+                return activeDeployments.containsKey(deploymentId);
+            }
+
+            @Override
+            public void check(List<DeploymentReconciliationService.DueCheck> due) {
+                checkDueDeployments(due);
+            }
+        });
+    }
+
+    /**
+     * Take this node's share of the monitored deployments as soon as the application is up:
+     * after a restart tracking resumes on the next monitoring tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainLeases();
+    }
+
+    /**
+     * Heartbeat and rebalance this node's share of the monitored deployments: renew held
+     * leases, drop deployments whose lease another node took over, give up the least
+     * urgent ones when holding more than an equal share, and claim unowned or expired
+     * ones (e.g. from a node that died) when holding less.
+     */
+    @Scheduled(fixedDelay = 10000) // 10 seconds - a third of MonitorLeaseService.LEASE_SECONDS
+    public void maintainLeases() {
+        long cycleStart = System.currentTimeMillis();
+        try {
+            Set<Long> held = new HashSet<>(monitorLeaseService.heartbeat());
+
+            for (DeploymentMonitor monitor : activeDeployments.values()) {
+                if (!held.contains(monitor.deploymentId) && monitor.registeredAt < cycleStart) {
+                    activeDeployments.remove(monitor.deploymentId, monitor);
+                    System.out.println("🔍 Deployment " + monitor.deploymentId + " is now monitored by another node");
+                }
+            }
+            // Held in the database but not in memory, e.g. after a restart with a fixed node id
+            List<Long> missing = held.stream().filter(id -> !activeDeployments.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                adopt(monitoredDeploymentRepository.findAllById(missing));
+            }
+
+            int share = monitorLeaseService.fairShare();
+            int owned = activeDeployments.size();
+            if (owned > share) {
+                List<DeploymentMonitor> leastUrgent = new ArrayList<>(activeDeployments.values());
+                leastUrgent.sort((a, b) -> Long.compare(b.nextCheckAt, a.nextCheckAt));
+                List<Long> released = new ArrayList<>();
+                for (DeploymentMonitor monitor : leastUrgent.subList(0, owned - share)) {
+                    if (activeDeployments.remove(monitor.deploymentId, monitor)) {
+                        released.add(monitor.deploymentId);
+                    }
+                }
+                monitorLeaseService.release(released);
+                System.out.println("🔍 Released " + released.size() + " monitored deployment(s) to other nodes");
+            } else if (owned < share) {
+                adopt(monitorLeaseService.claim(share - owned));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Failed to maintain monitor leases: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start monitoring deployments from the registry. Each is due immediately; rows whose
+     * deployment has finished in the meantime are dropped.
+     */
+    private void adopt(List<MonitoredDeployment> records) {
+        if (records.isEmpty()) {
             return;
         }
+        Map<Long, DeploymentHistory.Status> statuses = new HashMap<>();
+        Map<Long, Long> environmentIds = new HashMap<>();
+        for (DeploymentHistory deployment : deploymentHistoryRepository.findAllById(
+                records.stream().map(MonitoredDeployment::getDeploymentId).toList())) {
+            statuses.put(deployment.getId(), deployment.getStatus());
+            if (deployment.getEnvironment() != null) {
+                environmentIds.put(deployment.getId(), deployment.getEnvironment().getId());
+            }
+        }
 
-        System.out.println("🔍 Checking " + activeDeployments.size() + " active deployments...");
-        
-        Iterator<Map.Entry<Long, DeploymentMonitor>> iterator = activeDeployments.entrySet().iterator();
-        
-        while (iterator.hasNext()) {
-            Map.Entry<Long, DeploymentMonitor> entry = iterator.next();
-            Long deploymentId = entry.getKey();
-            DeploymentMonitor monitor = entry.getValue();
-            
+        int adopted = 0;
+        for (MonitoredDeployment record : records) {
+            DeploymentHistory.Status status = statuses.get(record.getDeploymentId());
+            if (status != DeploymentHistory.Status.PENDING && status != DeploymentHistory.Status.IN_PROGRESS) {
+                unregister(record.getDeploymentId());
+                continue;
+            }
+            DeploymentMonitor monitor = new DeploymentMonitor(record.getDeploymentId(),
+                environmentIds.get(record.getDeploymentId()), record.getProjectName(),
+                record.getJenkinsJob(), record.getJenkinsUrl(), record.getExpectedBuildNumber(),
+                toEpochMillis(record.getStartedAt()), record.getAttemptCount() != null ? record.getAttemptCount() : 0);
+            if (activeDeployments.putIfAbsent(record.getDeploymentId(), monitor) == null) {
+                deploymentReconciliationService.schedule(record.getDeploymentId(), monitor.nextCheckAt,
+                    DeploymentReconciliationService.Source.MONITOR);
+                adopted++;
+            }
+        }
+        System.out.println("🔍 Took over " + adopted + " monitored deployment(s) from the registry");
+    }
+
+    /**
+     * Write the monitors' schedule (next check, attempts so far) to the registry.
+     */
+    private void saveSchedules(Collection<DeploymentMonitor> monitors) {
+        String nodeId = monitorLeaseService.getNodeId();
+        try {
+            for (DeploymentMonitor monitor : monitors) {
+                if (activeDeployments.get(monitor.deploymentId) != monitor) {
+                    continue; // Stopped or handed over meanwhile
+                }
+                monitoredDeploymentRepository.updateSchedule(monitor.deploymentId, toLocalDateTime(monitor.nextCheckAt),
+                    monitor.checkCount.get(), nodeId);
+            }
+        } catch (Exception e) {
+            // Monitoring goes on in memory; only restart recovery is affected
+            System.err.println("⚠️ Failed to persist monitored deployments: " + e.getMessage());
+        }
+    }
+
+    private void unregister(Long deploymentId) {
+        try {
+            monitoredDeploymentRepository.deleteById(deploymentId);
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to remove monitored deployment " + deploymentId + ": " + e.getMessage());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * A build notification arrived from Jenkins (see JenkinsWebhookService). Deployments
+     * waiting on a build that has completed are checked on the next tick.
+     */
+    public void onBuildNotification(String jobName, int buildNumber, String phase) {
+        lastNotificationByJob.put(jobName, System.currentTimeMillis());
+        if (!"COMPLETED".equals(phase) && !"FINALIZED".equals(phase)) {
+            return;
+        }
+        for (DeploymentMonitor monitor : activeDeployments.values()) {
+            if (monitor.jenkinsJob.equals(jobName) && monitor.expectedBuildNumber != null
+                    && monitor.expectedBuildNumber == buildNumber) {
+                monitor.completionNotified = true;
+                monitor.nextCheckAt = System.currentTimeMillis();
+                deploymentReconciliationService.scheduleNow(monitor.deploymentId, DeploymentReconciliationService.Source.WEBHOOK);
+            }
+        }
+    }
+
+    private boolean isWebhookActive(String jobName) {
+        Long lastNotification = lastNotificationByJob.get(jobName);
+        return lastNotification != null && System.currentTimeMillis() - lastNotification < WEBHOOK_ACTIVE_WINDOW_MS;
+    }
+
+    /**
+     * Scheduled task to check build status. Each deployment has its own next-check time
+     * derived from its predicted completion (see BuildDurationService): checks are sparse
+     * early in a long build and dense around its expected end. The reconciliation loop
+     * (see DeploymentReconciliationService) hands over the deployments that are due; they
+     * are grouped by Jenkins host (URL + credentials) and each host is asked once for the
+     * latest builds of all its jobs; the results are then fanned out to the deployments
+     * waiting on those jobs.
+     */
+    private void checkDueDeployments(List<DeploymentReconciliationService.DueCheck> due) {
+        List<DeploymentMonitor> dueMonitors = new ArrayList<>();
+        for (DeploymentReconciliationService.DueCheck check : due) {
+            DeploymentMonitor monitor = activeDeployments.get(check.deploymentId());
+            if (monitor != null) {
+                dueMonitors.add(monitor);
+            }
+        }
+        if (dueMonitors.isEmpty()) {
+            return;
+        }
+
+        System.out.println("🔍 Checking " + dueMonitors.size() + " of " + activeDeployments.size() + " active deployments...");
+
+        // Resolve each monitor's project (for the Jenkins credentials) from the registry's
+        // in-memory job index and group by host
+        Map<Long, Project> projectsByDeployment = new HashMap<>();
+        Map<String, Project> hostProjects = new HashMap<>();
+        for (DeploymentMonitor monitor : dueMonitors) {
+            Optional<Project> projectOpt = jenkinsServerRegistry.findProject(monitor.jenkinsUrl, monitor.jenkinsJob);
+            if (projectOpt.isEmpty()) {
+                System.err.println("❌ Project not found for Jenkins job: " + monitor.jenkinsJob);
+                continue;
+            }
+            Project project = projectOpt.get();
+            projectsByDeployment.put(monitor.deploymentId, project);
+            hostProjects.putIfAbsent(jenkinsService.jenkinsHostKey(project), project);
+        }
+
+        // One tree request per host, all hosts in parallel
+        Map<String, CompletableFuture<Map<String, List<BuildStatus>>>> hostRequests = new HashMap<>();
+        for (Map.Entry<String, Project> host : hostProjects.entrySet()) {
+            hostRequests.put(host.getKey(), jenkinsService.getJobBuildsAsync(host.getValue(), BUILDS_PER_JOB));
+        }
+        Map<String, Map<String, List<BuildStatus>>> buildsByHost = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<Map<String, List<BuildStatus>>>> request : hostRequests.entrySet()) {
             try {
-                boolean shouldContinue = checkDeploymentStatus(monitor);
+                buildsByHost.put(request.getKey(), request.getValue().join());
+            } catch (Exception e) {
+                // Deployments on this host fall back to per-job requests below
+                System.err.println("⚠️ Batched status request failed for " + hostProjects.get(request.getKey()).getJenkinsUrl()
+                    + ": " + JenkinsClient.unwrap(e).getMessage());
+            }
+        }
+        System.out.println("   Polled " + buildsByHost.size() + "/" + hostRequests.size() + " Jenkins host(s) in batch");
+
+        List<DeploymentMonitor> stillMonitored = new ArrayList<>();
+        for (DeploymentMonitor monitor : dueMonitors) {
+            Long deploymentId = monitor.deploymentId;
+            Project project = projectsByDeployment.get(deploymentId);
+            if (project == null) {
+                monitor.nextCheckAt = System.currentTimeMillis() + BuildDurationService.DEFAULT_POLL_INTERVAL_MS;
+                stillMonitored.add(monitor);
+                continue; // Continue monitoring
+            }
+
+            try {
+                Map<String, List<BuildStatus>> hostBuilds = buildsByHost.get(jenkinsService.jenkinsHostKey(project));
+                List<BuildStatus> jobBuilds = hostBuilds != null ? hostBuilds.get(monitor.jenkinsJob) : null;
+                boolean shouldContinue = checkDeploymentStatus(monitor, project, jobBuilds);
                 if (!shouldContinue) {
-                    iterator.remove();
+                    activeDeployments.remove(deploymentId, monitor);
+                    unregister(deploymentId);
                     System.out.println("✅ Monitoring completed for deployment: " + deploymentId);
+                    continue;
                 }
+                scheduleNextCheck(monitor, project);
             } catch (Exception e) {
                 System.err.println("❌ Error monitoring deployment " + deploymentId + ": " + e.getMessage());
                 // Continue monitoring other deployments
+                monitor.nextCheckAt = System.currentTimeMillis() + BuildDurationService.DEFAULT_POLL_INTERVAL_MS;
             }
+            stillMonitored.add(monitor);
+        }
+        for (DeploymentMonitor monitor : stillMonitored) {
+            deploymentReconciliationService.schedule(monitor.deploymentId, monitor.nextCheckAt,
+                DeploymentReconciliationService.Source.MONITOR);
+        }
+        // Only the monitors checked in this tick have a new schedule to record
+        if (!stillMonitored.isEmpty()) {
+            saveSchedules(stillMonitored);
         }
     }
 
+    private void scheduleNextCheck(DeploymentMonitor monitor, Project project) {
+        long now = System.currentTimeMillis();
+        monitor.predictedEndAt = buildDurationService.predictEndAt(project.getId(), monitor.environmentId,
+            monitor.startTime, monitor.buildStartedAt, monitor.jenkinsEstimatedDuration);
+        Map<String, Object> eta = buildDurationService.getEta(project.getId(), monitor.environmentId, monitor.startTime);
+        monitor.p90EndAt = eta != null ? (Long) eta.get("p90At") : -1;
+        if (monitor.predictedEndAt > 0 && Math.abs(monitor.predictedEndAt - monitor.announcedEndAt) >= ETA_UPDATE_THRESHOLD_MS) {
+            monitor.announcedEndAt = monitor.predictedEndAt;
+            realTimeNotificationService.sendDeploymentEtaUpdate(monitor.deploymentId, monitor.projectName, eta,
+                monitor.predictedEndAt);
+        }
+        long delay = buildDurationService.nextPollDelayMs(monitor.predictedEndAt, now);
+        if (!monitor.completionNotified && isWebhookActive(monitor.jenkinsJob)) {
+            delay = Math.max(delay, SAFETY_NET_POLL_INTERVAL_MS);
+        }
+        monitor.nextCheckAt = now + delay;
+        System.out.println("   Next check for deployment " + monitor.deploymentId + " in " + (delay / 1000) + "s"
+            + (monitor.predictedEndAt > 0 ? " (predicted to finish in " + Math.max(0, (monitor.predictedEndAt - now) / 1000) + "s"
+                + (monitor.p90EndAt > 0 ? ", p90 in " + Math.max(0, (monitor.p90EndAt - now) / 1000) + "s" : "") + ")" : ""));
+    }
+
     /**
-     * Check the status of a specific deployment
+     * Check the status of a specific deployment against its job's recent builds (newest
+     * first) from the host's batched request. If the job wasn't in the batch, or the
+     * expected build has already dropped out of the window, that build is fetched on its own.
      */
     @Transactional
-    protected boolean checkDeploymentStatus(DeploymentMonitor monitor) {
+    protected boolean checkDeploymentStatus(DeploymentMonitor monitor, Project project, List<BuildStatus> jobBuilds) {
         int checkCount = monitor.checkCount.incrementAndGet();
         long elapsedTime = System.currentTimeMillis() - monitor.startTime;
         
-        // Stop monitoring if it's been running for more than 30 minutes
-        if (elapsedTime > 30 * 60 * 1000) {
+        // Stop monitoring after 30 minutes, or twice the predicted duration for long builds
+        long timeout = monitor.predictedEndAt > 0
+            ? Math.max(MONITOR_TIMEOUT_MS, 2 * (monitor.predictedEndAt - monitor.startTime))
+            : MONITOR_TIMEOUT_MS;
+        if (elapsedTime > timeout) {
             System.out.println("⏰ Monitoring timeout for deployment: " + monitor.deploymentId);
             return false;
         }
-        
-        // Stop monitoring if we've checked more than 180 times (30 minutes)
-        if (checkCount > 180) {
-            System.out.println("⏰ Max check count reached for deployment: " + monitor.deploymentId);
-            return false;
-        }
 
         try {
-            // Get the latest build status from Jenkins with authentication
-            String buildStatusUrl = monitor.jenkinsUrl + "/job/" + monitor.jenkinsJob + "/lastBuild/api/json";
-            
-                                    // Get project to access Jenkins credentials
-                        Optional<Project> projectOpt = projectRepository.findByJenkinsJobName(monitor.jenkinsJob);
-                        if (!projectOpt.isPresent()) {
-                            System.err.println("❌ Project not found for Jenkins job: " + monitor.jenkinsJob);
-                            return true; // Continue monitoring
-                        }
-                        
-                        Project project = projectOpt.get();
-                        
-                        // Force load project credentials to prevent LazyInitializationException
-                        project.getJenkinsUsername();
-                        project.getJenkinsToken();
-                        
-                        // Create authenticated request
-                        HttpHeaders headers = new HttpHeaders();
-                        if (project.getJenkinsUsername() != null && project.getJenkinsToken() != null) {
-                            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-                            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
-                            headers.set("Authorization", "Basic " + encodedAuth);
-                        }
-                        
-                        HttpEntity<String> entity = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(buildStatusUrl, HttpMethod.GET, entity, String.class);
-            
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                JsonNode buildInfo = objectMapper.readTree(response.getBody());
-                
-                boolean isBuilding = buildInfo.path("building").asBoolean(false);
-                String result = buildInfo.path("result").asText(null);
-                int buildNumber = buildInfo.path("number").asInt(0);
+            // Get the latest build status, from the batch if the job was in it
+            BuildStatus buildInfo;
+            if (jobBuilds != null) {
+                if (jobBuilds.isEmpty()) {
+                    System.out.println("⏳ No builds yet for job " + monitor.jenkinsJob + ", waiting...");
+                    return true; // Continue monitoring
+                }
+                buildInfo = jobBuilds.get(0);
+            } else {
+                buildInfo = jenkinsService.getBuildInfoAsync(project, "lastBuild").join();
+            }
+
+            if (buildInfo != null) {
+                boolean isBuilding = buildInfo.building();
+                String result = buildInfo.result();
+                int buildNumber = buildInfo.number();
                 
                 System.out.println("🔍 Deployment " + monitor.deploymentId + " check #" + checkCount + ":");
                 System.out.println("   Build Number: " + buildNumber);
@@ -192,10 +505,13 @@ public class JenkinsBuildMonitorService {
                 
                 // Check if this is the build we're waiting for
                 if (buildNumber == monitor.expectedBuildNumber) {
+                    // Feeds the completion prediction for the next check
+                    monitor.buildStartedAt = buildInfo.timestamp() > 0 ? buildInfo.timestamp() : -1;
+                    monitor.jenkinsEstimatedDuration = buildInfo.estimatedDuration();
                     if (!isBuilding && result != null) {
                         // Additional verification to ensure build is truly finished
-                        Long buildDuration = buildInfo.path("duration").asLong(0);
-                        Long buildTimestamp = buildInfo.path("timestamp").asLong(0);
+                        long buildDuration = buildInfo.duration();
+                        long buildTimestamp = buildInfo.timestamp();
                         
                         System.out.println("🔍 Additional verification for deployment " + monitor.deploymentId + ":");
                         System.out.println("   Build Duration: " + buildDuration + "ms");
@@ -223,23 +539,21 @@ public class JenkinsBuildMonitorService {
                         }
                     }
                 } else if (buildNumber > monitor.expectedBuildNumber) {
-                    // A newer build has started, check if our expected build is complete
-                    String specificBuildUrl = monitor.jenkinsUrl + "/job/" + monitor.jenkinsJob + 
-                                            "/" + monitor.expectedBuildNumber + "/api/json";
-                    
-                    // Use same authentication for specific build check
-                    HttpEntity<String> specificEntity = new HttpEntity<>(headers);
-                    ResponseEntity<String> specificResponse = restTemplate.exchange(specificBuildUrl, HttpMethod.GET, specificEntity, String.class);
+                    // A newer build has started, check if our expected build is complete -
+                    // usually it's still within the batch's window of recent builds
+                    BuildStatus specificBuildInfo = findBuild(jobBuilds, monitor.expectedBuildNumber);
+                    if (specificBuildInfo == null) {
+                        specificBuildInfo = jenkinsService.getBuildInfoAsync(project, String.valueOf(monitor.expectedBuildNumber)).join();
+                    }
                     
-                    if (specificResponse.getStatusCode().is2xxSuccessful() && specificResponse.getBody() != null) {
-                        JsonNode specificBuildInfo = objectMapper.readTree(specificResponse.getBody());
-                        boolean specificIsBuilding = specificBuildInfo.path("building").asBoolean(false);
-                        String specificResult = specificBuildInfo.path("result").asText(null);
+                    if (specificBuildInfo != null) {
+                        boolean specificIsBuilding = specificBuildInfo.building();
+                        String specificResult = specificBuildInfo.result();
                         
                         if (!specificIsBuilding && specificResult != null) {
                             // Additional verification to ensure build is truly finished
-                            Long specificBuildDuration = specificBuildInfo.path("duration").asLong(0);
-                            Long specificBuildTimestamp = specificBuildInfo.path("timestamp").asLong(0);
+                            long specificBuildDuration = specificBuildInfo.duration();
+                            long specificBuildTimestamp = specificBuildInfo.timestamp();
                             
                             System.out.println("🔍 Additional verification for specific build " + monitor.expectedBuildNumber + ":");
                             System.out.println("   Build Duration: " + specificBuildDuration + "ms");
@@ -270,7 +584,8 @@ public class JenkinsBuildMonitorService {
             }
             
         } catch (Exception e) {
-            System.err.println("❌ Error checking build status for deployment " + monitor.deploymentId + ": " + e.getMessage());
+            System.err.println("❌ Error checking build status for deployment " + monitor.deploymentId + ": "
+                + JenkinsClient.unwrap(e).getMessage());
             // Continue monitoring even if there's an error
             return true;
         }
@@ -278,31 +593,39 @@ public class JenkinsBuildMonitorService {
         return true; // Continue monitoring
     }
 
+    private BuildStatus findBuild(List<BuildStatus> jobBuilds, int buildNumber) {
+        if (jobBuilds == null) {
+            return null;
+        }
+        for (BuildStatus build : jobBuilds) {
+            if (build.number() == buildNumber) {
+                return build;
+            }
+        }
+        return null;
+    }
+
     /**
      * Process build completion with transaction support
      */
-    @Transactional
-    public void processBuildCompletionWithTransaction(DeploymentMonitor monitor, int buildNumber, String result, JsonNode buildInfo) {
-        processBuildCompletion(monitor, buildNumber, result, buildInfo);
+    private void processBuildCompletionWithTransaction(DeploymentMonitor monitor, int buildNumber, String result, BuildStatus buildInfo) {
+        transactionTemplate.executeWithoutResult(status -> processBuildCompletion(monitor, buildNumber, result, buildInfo));
+        // Only once committed, so a completion that failed to persist is retried on the next check
+        processedBuilds.add(monitor.deploymentId + "-" + buildNumber);
     }
 
     /**
      * Send email notification in separate transaction
      */
-    @Transactional
-    public void sendEmailNotification(Long deploymentId, int buildNumber, String result) {
+    private void sendEmailNotification(Long deploymentId, int buildNumber, String result) {
         try {
-            Optional<DeploymentHistory> deploymentOpt = deploymentHistoryRepository.findById(deploymentId);
-            if (deploymentOpt.isPresent()) {
-                DeploymentHistory deployment = deploymentOpt.get();
-                
-                // Force load lazy associations (environment is optional - some projects
-                // don't require one)
-                deployment.getProject().getName();
-                if (deployment.getEnvironment() != null) {
-                    deployment.getEnvironment().getName();
+            transactionTemplate.executeWithoutResult(status -> {
+                // Project, environment (optional) and triggeredBy are fetched with the deployment
+                List<DeploymentHistory> deployments = deploymentHistoryRepository.findByIdInWithEagerLoading(List.of(deploymentId));
+                if (deployments.isEmpty()) {
+                    return;
                 }
-                deployment.getTriggeredBy().getEmail();
+                DeploymentHistory deployment = deployments.get(0);
 
                 // Check if email notifications are enabled
                 if (featureFlagService.isEmailNotificationsEnabled()) {
@@ -310,7 +633,7 @@ public class JenkinsBuildMonitorService {
                         System.out.println("📧 Sending SUCCESS email notification for deployment: " + deploymentId);
                         emailService.sendDeploymentSuccessEmail(deployment.getTriggeredBy(), deployment);
                         System.out.println("✅ SUCCESS email sent successfully for deployment: " + deploymentId);
-                    } else if ("FAILURE".equals(result) || "ABORTED".equals(result) || "UNSTABLE".equals(result)) {
+                    } else if (BuildStatus.isFailureResult(result)) {
                         System.out.println("📧 Sending FAILURE email notification for deployment: " + deploymentId);
                         emailService.sendDeploymentFailureEmail(deployment.getTriggeredBy(), deployment);
                         System.out.println("✅ FAILURE email sent successfully for deployment: " + deploymentId);
@@ -318,7 +641,7 @@ public class JenkinsBuildMonitorService {
                 } else {
                     System.out.println("🚫 Email notifications disabled via feature flag");
                 }
-            }
+            });
         } catch (Exception e) {
             System.err.println("❌ Failed to send email for deployment " + deploymentId + ": " + e.getMessage());
             e.printStackTrace();
@@ -328,7 +651,7 @@ public class JenkinsBuildMonitorService {
     /**
      * Process build completion and trigger email notification
      */
-    private void processBuildCompletion(DeploymentMonitor monitor, int buildNumber, String result, JsonNode buildInfo) {
+    private void processBuildCompletion(DeploymentMonitor monitor, int buildNumber, String result, BuildStatus buildInfo) {
         String buildKey = monitor.deploymentId + "-" + buildNumber;
         
         // Prevent duplicate processing
@@ -337,39 +660,45 @@ public class JenkinsBuildMonitorService {
             return;
         }
         
-        processedBuilds.add(buildKey);
-        
         System.out.println("🎯 Build completed for deployment: " + monitor.deploymentId);
         System.out.println("   Build Number: " + buildNumber);
         System.out.println("   Result: " + result);
         
-        // Update deployment status in database
-        Optional<DeploymentHistory> deploymentOpt = deploymentHistoryRepository.findById(monitor.deploymentId);
-        if (deploymentOpt.isPresent()) {
-            DeploymentHistory deployment = deploymentOpt.get();
-            
-            // Force load lazy associations to prevent LazyInitializationException
-            // (environment is optional - some projects don't require one)
-            deployment.getProject().getName();
-            if (deployment.getEnvironment() != null) {
-                deployment.getEnvironment().getName();
-            }
-            deployment.getTriggeredBy().getEmail();
+        // Update deployment status in database; project, environment (optional) and
+        // triggeredBy are fetched with it, since listeners read them after this transaction
+        List<DeploymentHistory> deployments = deploymentHistoryRepository.findByIdInWithEagerLoading(List.of(monitor.deploymentId));
+        if (!deployments.isEmpty()) {
+            DeploymentHistory deployment = deployments.get(0);
 
             // Update build info
             deployment.setJenkinsBuildNumber(buildNumber);
-            deployment.setJenkinsBuildUrl(buildInfo.path("url").asText());
+            deployment.setJenkinsBuildUrl(buildInfo.url() != null ? buildInfo.url() : "");
             
             // Set final status based on result
             if ("SUCCESS".equals(result)) {
                 deployment.setStatus(DeploymentHistory.Status.SUCCESS);
                 System.out.println("✅ Deployment " + monitor.deploymentId + " marked as SUCCESS");
-            } else if ("FAILURE".equals(result) || "ABORTED".equals(result) || "UNSTABLE".equals(result)) {
+            } else if (BuildStatus.isFailureResult(result)) {
                 deployment.setStatus(DeploymentHistory.Status.FAILED);
                 System.out.println("❌ Deployment " + monitor.deploymentId + " marked as FAILED");
             }
             
+            boolean finished = deployment.getStatus() == DeploymentHistory.Status.SUCCESS
+                || deployment.getStatus() == DeploymentHistory.Status.FAILED;
+            if (finished && deployment.getCompletedAt() == null) {
+                deployment.setCompletedAt(LocalDateTime.now());
+            }
+            
             deploymentHistoryRepository.save(deployment);
+            buildDurationService.recordCompletion(deployment);
+
+            // Cached build lists still show this build as running
+            buildListCacheService.invalidateProject(deployment.getProject().getId());
+
+            // The console log is final now - keep a local copy so viewing it later
+            // no longer depends on Jenkins (downloaded in the background)
+            buildLogArchiveService.archiveBuildLogAsync(deployment.getProject(),
+                deployment.getEnvironment() != null ? deployment.getEnvironment().getId() : null, buildNumber);
             
             // Email notification will be handled by separate method
             System.out.println("📧 Email notification will be handled by separate transaction");
@@ -412,6 +741,16 @@ public class JenkinsBuildMonitorService {
         stats.put("activeDeployments", activeDeployments.size());
         stats.put("processedBuilds", processedBuilds.size());
         stats.put("monitoredDeployments", activeDeployments.keySet());
+        stats.put("webhookJobs", lastNotificationByJob.keySet());
+        // Predicted end (history + Jenkins estimate) and history p90 per monitored deployment
+        Map<Long, Map<String, Long>> etas = new HashMap<>();
+        for (DeploymentMonitor monitor : activeDeployments.values()) {
+            if (monitor.predictedEndAt > 0) {
+                etas.put(monitor.deploymentId, Map.of("predictedEndAt", monitor.predictedEndAt, "p90EndAt", monitor.p90EndAt));
+            }
+        }
+        stats.put("etas", etas);
+        stats.put("cluster", monitorLeaseService.getStats());
         return stats;
     }
 } 
\ No newline at end of file
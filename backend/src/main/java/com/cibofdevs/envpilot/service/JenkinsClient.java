@@ -0,0 +1,400 @@
+package com.cibofdevs.envpilot.service;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking HTTP access to Jenkins, shared by everything that talks to a Jenkins
+ * controller. Calls return immediately with a CompletableFuture that completes on one
+ * of the async client's I/O threads, so callers must not block inside the callbacks
+ * (no DB work, no join()) - hop to another executor for that.
+ *
+ * Non-2xx responses complete exceptionally with the same HttpClientErrorException /
+ * HttpServerErrorException types RestTemplate throws, so existing error handling that
+ * inspects the Jenkins status code keeps working unchanged.
+ *
+ * Identical GETs (same URL and headers, so same credential) issued while one is still
+ * in flight share that call and its response instead of sending another request (see
+ * {@link #coalesce}), so bursts of pollers and page loads watching the same build reach
+ * Jenkins once.
+ */
+@Service
+public class JenkinsClient {
+
+    // Short timeouts for lightweight connectivity/health pings so a slow or unreachable
+    // Jenkins instance is reported as down quickly instead of after the full 30s.
+    @SuppressWarnings("deprecation")
+    private static final RequestConfig QUICK_REQUEST_CONFIG = RequestConfig.custom()
+            .setConnectTimeout(Timeout.ofSeconds(2))
+            .setResponseTimeout(Timeout.ofSeconds(3))
+            .build();
+
+    @Autowired
+    private CloseableHttpAsyncClient jenkinsHttpAsyncClient;
+
+    @Autowired
+    private CloseableHttpClient jenkinsStreamingHttpClient;
+
+    @Autowired
+    private JenkinsResilienceService jenkinsResilienceService;
+
+    // GETs in flight by URL + headers, and how many requests were sent vs. joined one
+    private final Map<String, CompletableFuture<ResponseEntity<byte[]>>> inFlightGets = new ConcurrentHashMap<>();
+    private final AtomicLong sentGets = new AtomicLong();
+    private final AtomicLong coalescedGets = new AtomicLong();
+
+    public CompletableFuture<ResponseEntity<String>> get(String url, HttpHeaders headers) {
+        return exchange(url, HttpMethod.GET, headers, null, null).thenApply(JenkinsClient::decode);
+    }
+
+    /**
+     * GET whose JSON body is read by reader straight from the response bytes (see
+     * JenkinsJsonParser), without decoding it to a String first. A malformed body
+     * completes exceptionally with UncheckedIOException; it is not retried.
+     */
+    public <T> CompletableFuture<T> getJson(String url, HttpHeaders headers, JenkinsJsonParser.Reader<T> reader) {
+        return exchange(url, HttpMethod.GET, headers, null, null)
+            .thenApply(response -> JenkinsJsonParser.parse(response.getBody(), reader));
+    }
+
+    /**
+     * {@link #getJson} with the short health-check timeouts.
+     */
+    public <T> CompletableFuture<T> getQuickJson(String url, HttpHeaders headers, JenkinsJsonParser.Reader<T> reader) {
+        return exchange(url, HttpMethod.GET, headers, null, QUICK_REQUEST_CONFIG)
+            .thenApply(response -> JenkinsJsonParser.parse(response.getBody(), reader));
+    }
+
+    /**
+     * GET with the short health-check timeouts.
+     */
+    public CompletableFuture<ResponseEntity<String>> getQuick(String url, HttpHeaders headers) {
+        return exchange(url, HttpMethod.GET, headers, null, QUICK_REQUEST_CONFIG).thenApply(JenkinsClient::decode);
+    }
+
+    public CompletableFuture<ResponseEntity<String>> post(String url, HttpHeaders headers, MultiValueMap<String, String> form) {
+        return exchange(url, HttpMethod.POST, headers, form, null).thenApply(JenkinsClient::decode);
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> exchange(String url, HttpMethod method, HttpHeaders headers,
+            MultiValueMap<String, String> form, RequestConfig requestConfig) {
+        if (HttpMethod.GET.equals(method)) {
+            return coalesce(url, headers, requestConfig);
+        }
+        return attempt(url, method, headers, form, requestConfig, 0);
+    }
+
+    /**
+     * GET that joins an identical GET already in flight, or sends one (retries included)
+     * for everyone who joins it until it completes. Each caller gets its own copy of the
+     * shared future, so one caller cancelling or timing out doesn't affect the others.
+     */
+    private CompletableFuture<ResponseEntity<byte[]>> coalesce(String url, HttpHeaders headers, RequestConfig requestConfig) {
+        String key = coalescingKey(url, headers, requestConfig);
+        CompletableFuture<ResponseEntity<byte[]>> shared = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> inFlight = inFlightGets.putIfAbsent(key, shared);
+        if (inFlight != null) {
+            coalescedGets.incrementAndGet();
+            return inFlight.copy();
+        }
+
+        sentGets.incrementAndGet();
+        CompletableFuture<ResponseEntity<byte[]>> sent;
+        try {
+            sent = attempt(url, HttpMethod.GET, headers, null, requestConfig, 0);
+        } catch (RuntimeException e) {
+            // Never leave a future nobody will complete in the map: every later
+            // identical GET would join it and hang
+            inFlightGets.remove(key, shared);
+            shared.completeExceptionally(e);
+            return shared.copy();
+        }
+        sent.whenComplete((response, ex) -> {
+            // Callers arriving from now on send a new request
+            inFlightGets.remove(key, shared);
+            if (ex != null) {
+                shared.completeExceptionally(unwrap(ex));
+            } else {
+                shared.complete(response);
+            }
+        });
+        return shared.copy();
+    }
+
+    private static String coalescingKey(String url, HttpHeaders headers, RequestConfig requestConfig) {
+        StringBuilder key = new StringBuilder(url);
+        // Health pings use other timeouts, so they don't join regular calls
+        key.append(requestConfig == QUICK_REQUEST_CONFIG ? "|quick" : "|");
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                key.append('|').append(header.getKey().toLowerCase()).append('=').append(header.getValue());
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * GETs sent to Jenkins, GETs that joined one already in flight instead, and GETs
+     * currently in flight.
+     */
+    public Map<String, Object> getCoalescingStats() {
+        long sent = sentGets.get();
+        long coalesced = coalescedGets.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("sentRequests", sent);
+        stats.put("coalescedRequests", coalesced);
+        stats.put("inFlightRequests", inFlightGets.size());
+        stats.put("coalescedRatio", sent + coalesced > 0 ? coalesced / (double) (sent + coalesced) : 0.0);
+        return stats;
+    }
+
+    /**
+     * One attempt of a call, guarded by the per-server circuit breaker and bulkhead.
+     * Failed GETs (other than quick health pings, which report as they go) are retried
+     * up to MAX_GET_RETRIES times after a jittered backoff; POSTs never are.
+     */
+    private CompletableFuture<ResponseEntity<byte[]>> attempt(String url, HttpMethod method, HttpHeaders headers,
+            MultiValueMap<String, String> form, RequestConfig requestConfig, int retries) {
+        boolean probe = requestConfig == QUICK_REQUEST_CONFIG;
+        JenkinsResilienceService.CallPermit permit;
+        try {
+            permit = jenkinsResilienceService.acquire(url, probe);
+        } catch (JenkinsResilienceService.JenkinsUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> sent;
+        try {
+            sent = send(url, method, headers, form, requestConfig);
+        } catch (RuntimeException e) {
+            // The request never left (e.g. a URL the client can't parse, or the client
+            // shutting down), so the slot is given back - otherwise the bulkhead leaks it
+            // for good - without counting against the server's health
+            permit.release(false);
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ResponseEntity<byte[]>> response = sent
+            .whenComplete((result, ex) -> permit.release(ex != null && JenkinsResilienceService.isHostFailure(ex)));
+        if (!HttpMethod.GET.equals(method) || probe) {
+            return response;
+        }
+        return response.exceptionallyCompose(ex -> {
+            Throwable cause = unwrap(ex);
+            if (retries >= JenkinsResilienceService.MAX_GET_RETRIES || !JenkinsResilienceService.isRetryable(cause)) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            long delay = jenkinsResilienceService.retryDelayMs(url, retries + 1);
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> attempt(url, method, headers, form, requestConfig, retries + 1));
+        });
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> send(String url, HttpMethod method, HttpHeaders headers,
+            MultiValueMap<String, String> form, RequestConfig requestConfig) {
+        CompletableFuture<ResponseEntity<byte[]>> future = new CompletableFuture<>();
+
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name()).setUri(url);
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                // The body's content type is set together with the body below
+                if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(header.getKey())) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    builder.addHeader(header.getKey(), value);
+                }
+            }
+        }
+        if (HttpMethod.POST.equals(method)) {
+            builder.setBody(encodeForm(form), ContentType.APPLICATION_FORM_URLENCODED);
+        }
+        if (requestConfig != null) {
+            builder.setRequestConfig(requestConfig);
+        }
+        SimpleHttpRequest request = builder.build();
+
+        jenkinsHttpAsyncClient.execute(request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    future.complete(toResponseEntity(response));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel(false);
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Callback for {@link #stream}: receives the response headers and the body as it is
+     * read from the connection.
+     */
+    @FunctionalInterface
+    public interface StreamHandler<T> {
+        T handle(HttpHeaders responseHeaders, InputStream body) throws IOException;
+    }
+
+    /**
+     * Blocking GET that hands the response body to the handler as a stream instead of
+     * buffering it, for large bodies such as console logs. Runs on the calling thread -
+     * callers use their own worker threads, never the async client's callbacks. Non-2xx
+     * responses throw the same exceptions the async methods complete with. Guarded by
+     * the circuit breaker and bulkhead like every other call, but not retried since the
+     * handler may already have consumed part of the body.
+     */
+    public <T> T stream(String url, HttpHeaders headers, StreamHandler<T> handler) throws IOException {
+        JenkinsResilienceService.CallPermit permit = jenkinsResilienceService.acquire(url, false);
+        try {
+            return doStream(url, headers, handler, permit);
+        } finally {
+            // No-op if the response already settled the outcome
+            permit.release(true);
+        }
+    }
+
+    private <T> T doStream(String url, HttpHeaders headers, StreamHandler<T> handler,
+            JenkinsResilienceService.CallPermit permit) throws IOException {
+        HttpGet request = new HttpGet(url);
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    request.addHeader(header.getKey(), value);
+                }
+            }
+        }
+
+        return jenkinsStreamingHttpClient.execute(request, response -> {
+            HttpHeaders responseHeaders = new HttpHeaders();
+            for (Header header : response.getHeaders()) {
+                responseHeaders.add(header.getName(), header.getValue());
+            }
+            HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+            // The server answered; errors from here on (e.g. the consumer going away
+            // mid-stream) say nothing about its health
+            permit.release(status.is5xxServerError());
+            if (status.is4xxClientError() || status.is5xxServerError()) {
+                byte[] errorBody = response.getEntity() != null ? EntityUtils.toByteArray(response.getEntity()) : new byte[0];
+                if (status.is4xxClientError()) {
+                    throw HttpClientErrorException.create(status, response.getReasonPhrase(), responseHeaders, errorBody, StandardCharsets.UTF_8);
+                }
+                throw HttpServerErrorException.create(status, response.getReasonPhrase(), responseHeaders, errorBody, StandardCharsets.UTF_8);
+            }
+            try (InputStream body = response.getEntity() != null ? response.getEntity().getContent() : InputStream.nullInputStream()) {
+                return handler.handle(responseHeaders, body);
+            }
+        });
+    }
+
+    private ResponseEntity<byte[]> toResponseEntity(SimpleHttpResponse response) {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            responseHeaders.add(header.getName(), header.getValue());
+        }
+
+        byte[] bodyBytes = response.getBodyBytes();
+        Charset charset = StandardCharsets.UTF_8;
+        if (response.getContentType() != null && response.getContentType().getCharset() != null) {
+            charset = response.getContentType().getCharset();
+        }
+
+        HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, response.getReasonPhrase(), responseHeaders,
+                    bodyBytes != null ? bodyBytes : new byte[0], charset);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, response.getReasonPhrase(), responseHeaders,
+                    bodyBytes != null ? bodyBytes : new byte[0], charset);
+        }
+        return new ResponseEntity<>(bodyBytes, responseHeaders, status);
+    }
+
+    private static ResponseEntity<String> decode(ResponseEntity<byte[]> response) {
+        Charset charset = StandardCharsets.UTF_8;
+        try {
+            MediaType contentType = response.getHeaders().getContentType();
+            if (contentType != null && contentType.getCharset() != null) {
+                charset = contentType.getCharset();
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Unparseable Content-Type - fall back to UTF-8
+        }
+        String body = response.getBody() != null ? new String(response.getBody(), charset) : null;
+        return new ResponseEntity<>(body, response.getHeaders(), response.getStatusCode());
+    }
+
+    private String encodeForm(MultiValueMap<String, String> form) {
+        StringJoiner joiner = new StringJoiner("&");
+        if (form != null) {
+            for (Map.Entry<String, List<String>> entry : form.entrySet()) {
+                for (String value : entry.getValue()) {
+                    joiner.add(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                            + URLEncoder.encode(value != null ? value : "", StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Strip the CompletionException/ExecutionException wrappers CompletableFuture adds,
+     * so callers can inspect the actual Jenkins/transport failure.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable current = throwable;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+}
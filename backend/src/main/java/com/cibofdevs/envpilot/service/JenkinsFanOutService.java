@@ -0,0 +1,210 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs Jenkins calls for many projects at once without letting one dashboard request
+ * flood a Jenkins server: at most MAX_CONCURRENT_CALLS calls are in flight overall and
+ * MAX_CONCURRENT_CALLS_PER_HOST per Jenkins server; the rest wait in FIFO order. Calls
+ * are async (JenkinsClient), so waiting costs no threads.
+ */
+@Service
+public class JenkinsFanOutService {
+
+    private static final int MAX_CONCURRENT_CALLS = 16;
+    private static final int MAX_CONCURRENT_CALLS_PER_HOST = 4;
+
+    @Autowired
+    private JenkinsService jenkinsService;
+
+    @Autowired
+    private BuildListCacheService buildListCacheService;
+
+    private static final class PendingCall<T> {
+        final String host;
+        final Supplier<CompletableFuture<T>> call;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        PendingCall(String host, Supplier<CompletableFuture<T>> call) {
+            this.host = host;
+            this.call = call;
+        }
+    }
+
+    // Guarded by this
+    private final Deque<PendingCall<?>> pendingCalls = new ArrayDeque<>();
+    private final Map<String, Integer> inFlightPerHost = new HashMap<>();
+    private int inFlight;
+
+    /**
+     * Run call once a slot for its host is free. Cancelling the returned future before
+     * the call started drops it from the queue.
+     */
+    public <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> call) {
+        PendingCall<T> pending = new PendingCall<>(host, call);
+        synchronized (this) {
+            pendingCalls.addLast(pending);
+        }
+        dispatch();
+        return pending.result;
+    }
+
+    private void dispatch() {
+        List<PendingCall<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PendingCall<?>> iterator = pendingCalls.iterator();
+            while (iterator.hasNext() && inFlight < MAX_CONCURRENT_CALLS) {
+                PendingCall<?> pending = iterator.next();
+                if (pending.result.isDone()) {
+                    // Cancelled (deadline passed) while waiting
+                    iterator.remove();
+                    continue;
+                }
+                int hostInFlight = inFlightPerHost.getOrDefault(pending.host, 0);
+                if (hostInFlight < MAX_CONCURRENT_CALLS_PER_HOST) {
+                    iterator.remove();
+                    inFlightPerHost.put(pending.host, hostInFlight + 1);
+                    inFlight++;
+                    ready.add(pending);
+                }
+            }
+        }
+        // Started outside the lock: a call may complete (and release) synchronously
+        for (PendingCall<?> pending : ready) {
+            start(pending);
+        }
+    }
+
+    private <T> void start(PendingCall<T> pending) {
+        CompletableFuture<T> call;
+        try {
+            call = pending.call.get();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((value, ex) -> {
+            release(pending.host);
+            if (ex != null) {
+                pending.result.completeExceptionally(ex);
+            } else {
+                pending.result.complete(value);
+            }
+        });
+    }
+
+    private void release(String host) {
+        synchronized (this) {
+            inFlight--;
+            inFlightPerHost.computeIfPresent(host, (key, count) -> count > 1 ? count - 1 : null);
+        }
+        dispatch();
+    }
+
+    /**
+     * Recent builds across projects, newest first, at most limit of them. Each project's
+     * builds are fetched through the fan-out limits; projects that have not answered
+     * within deadlineMs are left out and the result is flagged partial.
+     */
+    public CompletableFuture<Map<String, Object>> getRecentBuilds(List<Project> projects, int limit, long deadlineMs) {
+        Map<Project, CompletableFuture<Map<String, Object>>> calls = new LinkedHashMap<>();
+        for (Project project : projects) {
+            calls.put(project, submit(jenkinsService.jenkinsHost(project),
+                () -> buildListCacheService.getRecentBuilds(project, limit)));
+        }
+
+        return CompletableFuture.allOf(calls.values().toArray(new CompletableFuture[0]))
+            .exceptionally(ex -> null)
+            .completeOnTimeout(null, deadlineMs, TimeUnit.MILLISECONDS)
+            .thenApply(ignored -> {
+                List<List<Map<String, Object>>> buildLists = new ArrayList<>();
+                List<String> pendingProjects = new ArrayList<>();
+
+                for (Map.Entry<Project, CompletableFuture<Map<String, Object>>> call : calls.entrySet()) {
+                    Project project = call.getKey();
+                    CompletableFuture<Map<String, Object>> future = call.getValue();
+                    if (!future.isDone()) {
+                        pendingProjects.add(project.getName());
+                        future.cancel(false);
+                        continue;
+                    }
+                    if (future.isCompletedExceptionally()) {
+                        System.err.println("Error fetching builds for project " + project.getName());
+                        continue;
+                    }
+
+                    Map<String, Object> projectBuilds = future.join();
+                    if (!(Boolean) projectBuilds.get("success") || projectBuilds.get("builds") == null) {
+                        System.err.println("Error fetching builds for project " + project.getName() + ": " + projectBuilds.get("message"));
+                        continue;
+                    }
+                    @SuppressWarnings("unchecked")
+                    List<Map<String, Object>> builds = (List<Map<String, Object>>) projectBuilds.get("builds");
+                    for (Map<String, Object> build : builds) {
+                        // Add project information to each build
+                        build.put("projectId", project.getId());
+                        build.put("projectName", project.getName());
+                        build.put("projectJenkinsUrl", project.getJenkinsUrl());
+                        build.put("projectJenkinsJobName", project.getJenkinsJobName());
+                    }
+                    // Jenkins lists builds newest first already; sorting the short list
+                    // guarantees the order the merge relies on
+                    builds.sort((b1, b2) -> Long.compare(timestampOf(b2), timestampOf(b1)));
+                    buildLists.add(builds);
+                }
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("builds", mergeNewestFirst(buildLists, limit));
+                result.put("partial", !pendingProjects.isEmpty());
+                result.put("pendingProjects", pendingProjects);
+                if (!pendingProjects.isEmpty()) {
+                    System.out.println("⏱️ Recent builds returned without " + pendingProjects.size() + " project(s) after " + deadlineMs + "ms: " + pendingProjects);
+                }
+                return result;
+            });
+    }
+
+    /**
+     * K-way merge of newest-first build lists, stopping once limit builds are taken.
+     */
+    private List<Map<String, Object>> mergeNewestFirst(List<List<Map<String, Object>>> buildLists, int limit) {
+        // Each entry is {list index, position in that list}
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> Long.compare(
+            timestampOf(buildLists.get(b[0]).get(b[1])), timestampOf(buildLists.get(a[0]).get(a[1]))));
+        for (int i = 0; i < buildLists.size(); i++) {
+            if (!buildLists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<Map<String, Object>> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<Map<String, Object>> builds = buildLists.get(head[0]);
+            merged.add(builds.get(head[1]));
+            if (head[1] + 1 < builds.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    private static long timestampOf(Map<String, Object> build) {
+        Object timestamp = build.get("timestamp");
+        return timestamp instanceof Number number ? number.longValue() : 0L;
+    }
+}
@@ -0,0 +1,270 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.dto.JenkinsJob;
+import com.cibofdevs.envpilot.dto.JenkinsResult;
+import com.cibofdevs.envpilot.model.Project;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Probes Jenkins in the background every PROBE_INTERVAL_MS and publishes the outcome as
+ * an immutable snapshot, so the analytics dashboard and the actuator health check only
+ * read the last result instead of testing Jenkins on the request thread.
+ *
+ * Each distinct job on each Jenkins server (see JenkinsServerRegistry) is probed once,
+ * however many projects share it, all in parallel through JenkinsFanOutService's
+ * per-server limits. A server counts as reachable when it answered any of its probes,
+ * even with an error status (e.g. a deleted job); the result is recorded on the
+ * server's shared state. Rounds run on the task executor, never on a scheduler thread,
+ * since they wait for Jenkins.
+ */
+@Service
+public class JenkinsHealthProber {
+
+    public static final long PROBE_INTERVAL_MS = 30 * 1000;
+    // A probe round gives up on calls still waiting for a slot after this long
+    private static final long PROBE_DEADLINE_MS = 20 * 1000;
+
+    @Autowired
+    private JenkinsServerRegistry jenkinsServerRegistry;
+
+    @Autowired
+    private JenkinsService jenkinsService;
+
+    @Autowired
+    private JenkinsFanOutService jenkinsFanOutService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor taskExecutor;
+
+    /**
+     * The outcome of one probe round: the Jenkins health summary and issues in the shape
+     * the analytics API returns, and when the round finished (0 = no round yet).
+     */
+    public record Snapshot(Map<String, Object> health, List<Map<String, Object>> issues, long probedAt) {
+    }
+
+    // elapsedMs is -1 when the probe got no answer in time
+    private record ProbeResult(JenkinsResult<JenkinsJob> result, long elapsedMs) {
+    }
+
+    private record JobProbe(String jobName, List<Project> projects, CompletableFuture<ProbeResult> result) {
+    }
+
+    private volatile Snapshot snapshot = initialSnapshot();
+    private final AtomicBoolean probing = new AtomicBoolean();
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * First round as soon as the project index is loaded (see JenkinsServerRegistry),
+     * off the startup thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskExecutor.execute(this::probe);
+    }
+
+    @Scheduled(fixedDelay = PROBE_INTERVAL_MS, initialDelay = PROBE_INTERVAL_MS)
+    public void scheduleProbe() {
+        taskExecutor.execute(this::probe);
+    }
+
+    public void probe() {
+        // The previous round (e.g. the startup one) may still be running
+        if (!probing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            probeAll();
+        } finally {
+            probing.set(false);
+        }
+    }
+
+    private void probeAll() {
+        Map<String, Object> health = new HashMap<>();
+        List<Map<String, Object>> issues = new ArrayList<>();
+
+        try {
+            Map<JenkinsServerRegistry.ServerState, List<Project>> projectsByServer = jenkinsServerRegistry.projectsByServer();
+            if (projectsByServer.isEmpty()) {
+                health.put("status", "not_configured");
+                health.put("uptime", 0.0);
+                health.put("responseTime", -1);
+                health.put("lastCheck", LocalDateTime.now().toString());
+            } else {
+                probeServers(projectsByServer, health, issues);
+            }
+        } catch (Exception e) {
+            health.put("status", "error");
+            health.put("error", e.getMessage());
+            health.put("uptime", 0.0);
+            health.put("responseTime", -1);
+            health.put("lastCheck", LocalDateTime.now().toString());
+
+            Map<String, Object> issue = new HashMap<>();
+            issue.put("title", "Error checking Jenkins health");
+            issue.put("component", "Jenkins Monitor");
+            issue.put("environment", "System");
+            issue.put("severity", "error");
+            issue.put("timestamp", LocalDateTime.now().toString());
+            issue.put("description", "Failed to check Jenkins health: " + e.getMessage());
+            issues.add(issue);
+        }
+
+        snapshot = new Snapshot(Collections.unmodifiableMap(health), Collections.unmodifiableList(issues),
+            System.currentTimeMillis());
+    }
+
+    private void probeServers(Map<JenkinsServerRegistry.ServerState, List<Project>> projectsByServer,
+                              Map<String, Object> health, List<Map<String, Object>> issues) {
+        // One probe per distinct job per server, all started before any is awaited
+        Map<JenkinsServerRegistry.ServerState, List<JobProbe>> probesByServer = new LinkedHashMap<>();
+        for (Map.Entry<JenkinsServerRegistry.ServerState, List<Project>> entry : projectsByServer.entrySet()) {
+            Map<String, List<Project>> projectsByJob = new LinkedHashMap<>();
+            for (Project project : entry.getValue()) {
+                projectsByJob.computeIfAbsent(project.getJenkinsJobName(), job -> new ArrayList<>()).add(project);
+            }
+            List<JobProbe> probes = new ArrayList<>();
+            for (Map.Entry<String, List<Project>> job : projectsByJob.entrySet()) {
+                probes.add(new JobProbe(job.getKey(), job.getValue(), probeJob(job.getValue().get(0))));
+            }
+            probesByServer.put(entry.getKey(), probes);
+        }
+
+        int configuredProjects = 0;
+        int successfulConnections = 0;
+        int healthyServers = 0;
+        int jobs = 0;
+        int healthyJobs = 0;
+        long totalResponseTime = 0;
+        List<String> errorMessages = new ArrayList<>();
+        for (Map.Entry<JenkinsServerRegistry.ServerState, List<JobProbe>> entry : probesByServer.entrySet()) {
+            JenkinsServerRegistry.ServerState server = entry.getKey();
+            long serverResponseTime = -1;
+            List<Map.Entry<JobProbe, String>> failures = new ArrayList<>();
+            for (JobProbe probe : entry.getValue()) {
+                jobs++;
+                configuredProjects += probe.projects().size();
+                ProbeResult outcome = probe.result().join();
+                // Any answer from Jenkins, even an error status, means the server itself is up
+                boolean answered = !(outcome.result() instanceof JenkinsResult.Failure<JenkinsJob> failure)
+                    || failure.statusCode() > 0;
+                if (answered && (serverResponseTime < 0 || outcome.elapsedMs() < serverResponseTime)) {
+                    serverResponseTime = outcome.elapsedMs();
+                }
+                if (outcome.result() instanceof JenkinsResult.Failure<JenkinsJob> failure) {
+                    failures.add(Map.entry(probe, failure.message()));
+                    continue;
+                }
+                healthyJobs++;
+                successfulConnections += probe.projects().size();
+            }
+
+            boolean reachable = serverResponseTime >= 0;
+            server.recordHealth(reachable, serverResponseTime, reachable ? null : failures.get(0).getValue());
+            if (reachable) {
+                healthyServers++;
+                totalResponseTime += serverResponseTime;
+                // Server is up, so each failure is about its job
+                for (Map.Entry<JobProbe, String> failure : failures) {
+                    String projectNames = projectNames(failure.getKey().projects());
+                    errorMessages.add(server.getUrl() + " job " + failure.getKey().jobName() + " (" + projectNames + "): "
+                        + failure.getValue());
+                    issues.add(issue("Jenkins job " + failure.getKey().jobName() + " unavailable on " + server.getUrl(),
+                        server, failure.getKey().jobName(), projectNames, failure.getValue()));
+                }
+            } else {
+                // One issue for the server rather than one per job
+                List<Project> projects = new ArrayList<>();
+                entry.getValue().forEach(probe -> projects.addAll(probe.projects()));
+                String projectNames = projectNames(projects);
+                String error = failures.get(0).getValue();
+                errorMessages.add(server.getUrl() + " (" + projectNames + "): " + error);
+                issues.add(issue("Jenkins connection failed for " + server.getUrl(), server, null, projectNames, error));
+            }
+        }
+
+        double successRate = (successfulConnections / (double) configuredProjects) * 100;
+        double avgResponseTime = healthyServers > 0 ? totalResponseTime / (double) healthyServers : -1;
+
+        health.put("status", successRate > 50 ? "healthy" : "degraded");
+        health.put("uptime", Math.round(successRate * 100.0) / 100.0);
+        health.put("responseTime", avgResponseTime);
+        health.put("lastCheck", LocalDateTime.now().toString());
+        health.put("configuredProjects", configuredProjects);
+        health.put("successfulConnections", successfulConnections);
+        health.put("servers", probesByServer.size());
+        health.put("healthyServers", healthyServers);
+        health.put("jobs", jobs);
+        health.put("healthyJobs", healthyJobs);
+        if (!errorMessages.isEmpty()) {
+            health.put("errors", errorMessages);
+        }
+    }
+
+    private CompletableFuture<ProbeResult> probeJob(Project project) {
+        long startedAt = System.currentTimeMillis();
+        return jenkinsFanOutService
+            .submit(jenkinsService.jenkinsHost(project), () -> jenkinsService.testJenkinsConnectionQuickAsync(project))
+            .handle((result, ex) -> ex != null
+                ? new ProbeResult(JenkinsResult.failure(JenkinsClient.unwrap(ex).getMessage()), -1)
+                : new ProbeResult(result, System.currentTimeMillis() - startedAt))
+            .completeOnTimeout(new ProbeResult(JenkinsResult.failure("Jenkins health probe timed out"), -1),
+                PROBE_DEADLINE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static String projectNames(List<Project> projects) {
+        return projects.stream().map(Project::getName).collect(Collectors.joining(", "));
+    }
+
+    private Map<String, Object> issue(String title, JenkinsServerRegistry.ServerState server, String jobName,
+                                      String projectNames, String error) {
+        Map<String, Object> issue = new HashMap<>();
+        issue.put("title", title);
+        issue.put("component", "Jenkins");
+        issue.put("environment", "All");
+        issue.put("severity", "warning");
+        issue.put("timestamp", LocalDateTime.now().toString());
+        issue.put("description", "Failed to connect to Jenkins for project(s): " + projectNames);
+        Map<String, String> metrics = new HashMap<>();
+        metrics.put("server", server.getUrl());
+        if (jobName != null) {
+            metrics.put("job", jobName);
+        }
+        metrics.put("projects", projectNames);
+        metrics.put("error", error);
+        issue.put("metrics", Collections.unmodifiableMap(metrics));
+        return Collections.unmodifiableMap(issue);
+    }
+
+    private static Snapshot initialSnapshot() {
+        Map<String, Object> health = new HashMap<>();
+        health.put("status", "unknown");
+        health.put("uptime", 0.0);
+        health.put("responseTime", -1);
+        health.put("lastCheck", null);
+        return new Snapshot(Collections.unmodifiableMap(health), List.of(), 0);
+    }
+}
@@ -0,0 +1,255 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.dto.BuildStatus;
+import com.cibofdevs.envpilot.dto.BuildSummary;
+import com.cibofdevs.envpilot.dto.JenkinsJob;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the Jenkins responses EnvPilot polls most (build status, build lists, the
+ * per-host jobs tree) token by token straight into BuildStatus / BuildSummary records,
+ * without building a JsonNode tree or intermediate maps. Fields that aren't needed are
+ * skipped with skipChildren(), so e.g. a build's actions[] costs nothing beyond the
+ * TRIGGERED_BY_USER_* parameters.
+ */
+public final class JenkinsJsonParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private JenkinsJsonParser() {
+    }
+
+    /**
+     * Reads a value from a parser positioned on the response's top-level START_OBJECT.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Parse a response body with reader. Malformed bodies fail with UncheckedIOException.
+     */
+    public static <T> T parse(byte[] body, Reader<T> reader) {
+        if (body == null || body.length == 0) {
+            throw new UncheckedIOException(new IOException("Empty response from Jenkins"));
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object");
+            }
+            return reader.read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid JSON from Jenkins: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A single build object (lastBuild/api/json, /{n}/api/json or a builds[] entry).
+     */
+    public static BuildStatus readBuildStatus(JsonParser parser) throws IOException {
+        int number = 0;
+        String result = null;
+        boolean building = false;
+        long timestamp = 0;
+        long duration = 0;
+        long estimatedDuration = -1;
+        String url = null;
+        String description = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "number" -> number = parser.getValueAsInt();
+                case "result" -> result = text(parser);
+                case "building" -> building = parser.getValueAsBoolean();
+                case "timestamp" -> timestamp = parser.getValueAsLong();
+                case "duration" -> duration = parser.getValueAsLong();
+                case "estimatedDuration" -> estimatedDuration = parser.getValueAsLong(-1);
+                case "url" -> url = text(parser);
+                case "description" -> description = text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new BuildStatus(number, result, building, timestamp, duration, estimatedDuration, url, description);
+    }
+
+    /**
+     * A job's builds[] (job/{name}/api/json?tree=builds[...]), at most limit of them
+     * (0 = all); the rest of the array is skipped.
+     */
+    public static List<BuildSummary> readBuildSummaries(JsonParser parser, int limit) throws IOException {
+        List<BuildSummary> builds = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY || !"builds".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (limit > 0 && builds.size() >= limit) {
+                    parser.skipChildren();
+                } else {
+                    builds.add(readBuildSummary(parser));
+                }
+            }
+        }
+        return builds;
+    }
+
+    private static BuildSummary readBuildSummary(JsonParser parser) throws IOException {
+        int number = 0;
+        String result = null;
+        boolean building = false;
+        long timestamp = 0;
+        long duration = 0;
+        String url = null;
+        String description = null;
+        // TRIGGERED_BY_USER_ID, _NAME, _EMAIL
+        String[] triggeredBy = new String[3];
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (field) {
+                case "number" -> number = parser.getValueAsInt();
+                case "result" -> result = text(parser);
+                case "building" -> building = parser.getValueAsBoolean();
+                case "timestamp" -> timestamp = parser.getValueAsLong();
+                case "duration" -> duration = parser.getValueAsLong();
+                case "url" -> url = text(parser);
+                case "description" -> description = text(parser);
+                case "actions" -> {
+                    if (token == JsonToken.START_ARRAY) {
+                        readTriggeredBy(parser, triggeredBy);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new BuildSummary(number, result, building, timestamp, duration, url, description,
+            triggeredBy[0], triggeredBy[1], triggeredBy[2]);
+    }
+
+    /**
+     * Walk actions[] for parameters[] entries naming the triggering user.
+     */
+    private static void readTriggeredBy(JsonParser parser, String[] triggeredBy) throws IOException {
+        JsonToken action;
+        while ((action = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (action != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY || !"parameters".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    String name = null;
+                    String value = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String parameterField = parser.currentName();
+                        parser.nextToken();
+                        if ("name".equals(parameterField)) {
+                            name = text(parser);
+                        } else if ("value".equals(parameterField)) {
+                            value = text(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    if ("TRIGGERED_BY_USER_ID".equals(name)) {
+                        triggeredBy[0] = value;
+                    } else if ("TRIGGERED_BY_USER_NAME".equals(name)) {
+                        triggeredBy[1] = value;
+                    } else if ("TRIGGERED_BY_USER_EMAIL".equals(name)) {
+                        triggeredBy[2] = value;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The controller's jobs tree (api/json?tree=jobs[name,builds[...]]), each job's
+     * builds newest first, keyed by job name.
+     */
+    public static Map<String, List<BuildStatus>> readJobBuilds(JsonParser parser) throws IOException {
+        Map<String, List<BuildStatus>> buildsByJob = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_ARRAY || !"jobs".equals(field)) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                String name = null;
+                List<BuildStatus> builds = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String jobField = parser.currentName();
+                    JsonToken token = parser.nextToken();
+                    if ("name".equals(jobField)) {
+                        name = text(parser);
+                    } else if ("builds".equals(jobField) && token == JsonToken.START_ARRAY) {
+                        builds = new ArrayList<>();
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            builds.add(readBuildStatus(parser));
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (name != null && builds != null) {
+                    buildsByJob.put(name, builds);
+                }
+            }
+        }
+        return buildsByJob;
+    }
+
+    /**
+     * A job object (job/{name}/api/json?tree=name,url).
+     */
+    public static JenkinsJob readJob(JsonParser parser) throws IOException {
+        String name = null;
+        String url = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "name" -> name = text(parser);
+                case "url" -> url = text(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        return new JenkinsJob(name, url);
+    }
+
+    /**
+     * The current scalar as text; null for JSON null, objects and arrays (skipped).
+     */
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+}
@@ -0,0 +1,276 @@
+package com.cibofdevs.envpilot.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-Jenkins-server protection for every call JenkinsClient makes, so one unreachable
+ * controller can't tie up the schedulers and pages that also talk to healthy ones:
+ *
+ * - circuit breaker: once FAILURE_RATE_THRESHOLD percent of the last WINDOW_SIZE calls
+ *   (at least MIN_CALLS) failed, calls fail fast for OPEN_DURATION_MS; then up to
+ *   HALF_OPEN_TRIAL_CALLS trial calls decide whether it closes again
+ * - bulkhead: at most MAX_CONCURRENT_CALLS in flight per server, the rest fail fast
+ * - retry delays with jitter for idempotent GETs (see JenkinsClient)
+ *
+ * Only transport errors and 5xx responses count as failures; a 4xx means the server
+ * answered. Rejected calls fail with JenkinsUnavailableException, which the existing
+ * error handling turns into success=false results.
+ */
+@Service
+public class JenkinsResilienceService {
+
+    private static final int WINDOW_SIZE = 20;
+    private static final int MIN_CALLS = 10;
+    private static final int FAILURE_RATE_THRESHOLD = 50;
+    private static final long OPEN_DURATION_MS = 30 * 1000;
+    private static final int HALF_OPEN_TRIAL_CALLS = 2;
+    private static final int MAX_CONCURRENT_CALLS = 20;
+
+    public static final int MAX_GET_RETRIES = 2;
+    private static final long RETRY_BASE_DELAY_MS = 250;
+    private static final long RETRY_MAX_DELAY_MS = 2000;
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * A call that was not attempted because its Jenkins server is considered down or is
+     * already handling MAX_CONCURRENT_CALLS calls.
+     */
+    public static class JenkinsUnavailableException extends RuntimeException {
+        public JenkinsUnavailableException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class HostState {
+        final String host;
+        // Ring buffer of the last WINDOW_SIZE outcomes, true = failed
+        final boolean[] outcomes = new boolean[WINDOW_SIZE];
+        int recordedCalls;
+        int nextOutcome;
+        int failedCalls;
+        CircuitState state = CircuitState.CLOSED;
+        long openedAt;
+        int activeCalls;
+        int halfOpenTrials;
+        long rejectedCalls;
+        long retriedCalls;
+
+        HostState(String host) {
+            this.host = host;
+        }
+
+        void record(boolean failed) {
+            if (recordedCalls == WINDOW_SIZE) {
+                if (outcomes[nextOutcome]) {
+                    failedCalls--;
+                }
+            } else {
+                recordedCalls++;
+            }
+            outcomes[nextOutcome] = failed;
+            nextOutcome = (nextOutcome + 1) % WINDOW_SIZE;
+            if (failed) {
+                failedCalls++;
+            }
+        }
+
+        void reset() {
+            recordedCalls = 0;
+            nextOutcome = 0;
+            failedCalls = 0;
+        }
+
+        int failureRate() {
+            return recordedCalls == 0 ? 0 : failedCalls * 100 / recordedCalls;
+        }
+    }
+
+    /**
+     * Slot taken by one call; release it exactly once with the call's outcome.
+     */
+    public final class CallPermit {
+        private final HostState hostState;
+        private final boolean trial;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private CallPermit(HostState hostState, boolean trial) {
+            this.hostState = hostState;
+            this.trial = trial;
+        }
+
+        public void release(boolean hostFailure) {
+            if (released.compareAndSet(false, true)) {
+                onCallFinished(hostState, trial, hostFailure);
+            }
+        }
+    }
+
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Take a slot for a call to url. Probes (short connectivity checks) are let through
+     * an open circuit so a recovered server is noticed without waiting out
+     * OPEN_DURATION_MS; their outcome counts like any other call.
+     */
+    public CallPermit acquire(String url, boolean probe) {
+        HostState hostState = hosts.computeIfAbsent(hostOf(url), HostState::new);
+        synchronized (hostState) {
+            long now = System.currentTimeMillis();
+            if (hostState.state == CircuitState.OPEN && now - hostState.openedAt >= OPEN_DURATION_MS) {
+                hostState.state = CircuitState.HALF_OPEN;
+                hostState.halfOpenTrials = 0;
+            }
+
+            // Calls made while the circuit is not closed decide whether it closes again
+            boolean trial = false;
+            if (hostState.state == CircuitState.OPEN) {
+                if (!probe) {
+                    hostState.rejectedCalls++;
+                    long retryIn = (OPEN_DURATION_MS - (now - hostState.openedAt) + 999) / 1000;
+                    throw new JenkinsUnavailableException("Jenkins at " + hostState.host
+                        + " is unavailable (circuit open after repeated failures, retrying in " + retryIn + "s)");
+                }
+                trial = true;
+            } else if (hostState.state == CircuitState.HALF_OPEN) {
+                if (hostState.halfOpenTrials >= HALF_OPEN_TRIAL_CALLS && !probe) {
+                    hostState.rejectedCalls++;
+                    throw new JenkinsUnavailableException("Jenkins at " + hostState.host
+                        + " is unavailable (checking whether it has recovered)");
+                }
+                hostState.halfOpenTrials++;
+                trial = true;
+            }
+            if (hostState.activeCalls >= MAX_CONCURRENT_CALLS) {
+                if (trial && hostState.state == CircuitState.HALF_OPEN) {
+                    hostState.halfOpenTrials--;
+                }
+                hostState.rejectedCalls++;
+                throw new JenkinsUnavailableException("Jenkins at " + hostState.host + " is busy ("
+                    + MAX_CONCURRENT_CALLS + " calls already in progress)");
+            }
+            hostState.activeCalls++;
+            return new CallPermit(hostState, trial);
+        }
+    }
+
+    private void onCallFinished(HostState hostState, boolean trial, boolean hostFailure) {
+        synchronized (hostState) {
+            hostState.activeCalls--;
+            if (trial) {
+                if (hostFailure) {
+                    open(hostState, "trial call failed");
+                } else if (hostState.state != CircuitState.CLOSED) {
+                    hostState.state = CircuitState.CLOSED;
+                    hostState.reset();
+                    System.out.println("✅ Jenkins circuit closed for " + hostState.host);
+                }
+                return;
+            }
+            if (hostState.state != CircuitState.CLOSED) {
+                // Started before the circuit opened; the trial calls decide from here
+                return;
+            }
+
+            hostState.record(hostFailure);
+            if (hostState.recordedCalls >= MIN_CALLS && hostState.failureRate() >= FAILURE_RATE_THRESHOLD) {
+                open(hostState, hostState.failureRate() + "% of the last " + hostState.recordedCalls + " calls failed");
+            }
+        }
+    }
+
+    private void open(HostState hostState, String reason) {
+        hostState.state = CircuitState.OPEN;
+        hostState.openedAt = System.currentTimeMillis();
+        hostState.reset();
+        System.out.println("🔌 Jenkins circuit opened for " + hostState.host + ": " + reason);
+    }
+
+    /**
+     * Whether a failed call hit a problem with the Jenkins server itself (unreachable,
+     * timed out, 5xx) rather than with the request.
+     */
+    public static boolean isHostFailure(Throwable error) {
+        Throwable cause = JenkinsClient.unwrap(error);
+        return !(cause instanceof HttpClientErrorException) && !(cause instanceof JenkinsUnavailableException);
+    }
+
+    /**
+     * Whether an idempotent call that failed this way is worth repeating.
+     */
+    public static boolean isRetryable(Throwable error) {
+        Throwable cause = JenkinsClient.unwrap(error);
+        if (cause instanceof HttpServerErrorException e) {
+            int status = e.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return isHostFailure(cause);
+    }
+
+    /**
+     * Delay before retry number attempt (1-based): exponential backoff with full jitter.
+     */
+    public long retryDelayMs(String url, int attempt) {
+        HostState hostState = hosts.get(hostOf(url));
+        if (hostState != null) {
+            synchronized (hostState) {
+                hostState.retriedCalls++;
+            }
+        }
+        long cap = Math.min(RETRY_MAX_DELAY_MS, RETRY_BASE_DELAY_MS << (attempt - 1));
+        return ThreadLocalRandom.current().nextLong(cap / 2, cap + 1);
+    }
+
+    /**
+     * Circuit and bulkhead state per Jenkins server, for the monitoring settings page.
+     */
+    public List<Map<String, Object>> getHostStates() {
+        List<Map<String, Object>> states = new ArrayList<>();
+        for (HostState hostState : hosts.values()) {
+            synchronized (hostState) {
+                Map<String, Object> state = new HashMap<>();
+                state.put("host", hostState.host);
+                state.put("state", hostState.state.name());
+                state.put("failureRate", hostState.failureRate());
+                state.put("recordedCalls", hostState.recordedCalls);
+                state.put("activeCalls", hostState.activeCalls);
+                state.put("maxConcurrentCalls", MAX_CONCURRENT_CALLS);
+                state.put("rejectedCalls", hostState.rejectedCalls);
+                state.put("retriedCalls", hostState.retriedCalls);
+                if (hostState.state != CircuitState.CLOSED) {
+                    state.put("openedAt", LocalDateTime.ofInstant(Instant.ofEpochMilli(hostState.openedAt), ZoneId.systemDefault()));
+                }
+                states.add(state);
+            }
+        }
+        return states;
+    }
+
+    private static String hostOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() != null && uri.getAuthority() != null) {
+                return uri.getScheme() + "://" + uri.getAuthority().toLowerCase();
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to the raw URL
+        }
+        return url;
+    }
+}
@@ -0,0 +1,396 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.JenkinsServer;
+import com.cibofdevs.envpilot.model.Project;
+import com.cibofdevs.envpilot.repository.JenkinsServerRepository;
+import com.cibofdevs.envpilot.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The Jenkins servers (URL + credential) projects deploy through, with the state shared
+ * by every project on a server: its Authorization header, CSRF crumb and last health
+ * check. Also keeps an in-memory index of projects by (server URL, job name), updated
+ * when ProjectService saves or deletes a project, so the build monitor and webhook
+ * ingestion resolve a job's project without a database query. The index is built from
+ * the database at startup (and on invalidate()); every REFRESH_INTERVAL_MS projects
+ * saved since the last refresh, e.g. on other nodes, are re-indexed. Projects deleted
+ * on another node stay indexed here until the next rebuild.
+ *
+ * Indexed projects are detached copies holding only the project's own columns (no
+ * owner, environments or other associations).
+ */
+@Service
+public class JenkinsServerRegistry {
+
+    private static final long REFRESH_INTERVAL_MS = 60 * 1000;
+
+    @Autowired
+    private JenkinsServerRepository jenkinsServerRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    /**
+     * Shared state of one Jenkins server, created on first use.
+     */
+    public static final class ServerState {
+        private final String key;
+        private final String url;
+        private final String authorization;
+        private volatile Long serverId;
+        private CompletableFuture<JenkinsService.JenkinsCrumb> crumb;
+        // Last connection test (see SystemMonitoringService); lastCheckedAt 0 = never
+        private volatile long lastCheckedAt;
+        private volatile boolean healthy;
+        private volatile long responseTimeMs = -1;
+        private volatile String lastError;
+
+        ServerState(String key, String url, String username, String token) {
+            this.key = key;
+            this.url = url;
+            String credentials = username + ":" + token;
+            this.authorization = "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getAuthorization() {
+            return authorization;
+        }
+
+        public Long getServerId() {
+            return serverId;
+        }
+
+        public long getLastCheckedAt() {
+            return lastCheckedAt;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public long getResponseTimeMs() {
+            return responseTimeMs;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        /**
+         * The cached crumb, or one fetched with fetch if none is cached.
+         */
+        synchronized CompletableFuture<JenkinsService.JenkinsCrumb> crumb(Supplier<CompletableFuture<JenkinsService.JenkinsCrumb>> fetch) {
+            if (crumb == null) {
+                crumb = fetch.get();
+            }
+            return crumb;
+        }
+
+        /**
+         * Drop the cached crumb if it is still stale.
+         */
+        synchronized void discardCrumb(CompletableFuture<JenkinsService.JenkinsCrumb> stale) {
+            if (crumb == stale) {
+                crumb = null;
+            }
+        }
+
+        /**
+         * Drop the cached crumb if Jenkins rejected it, i.e. it is still the one that was
+         * sent. A crumb fetched since (or still being fetched) is kept.
+         */
+        synchronized void discardCrumbIf(Predicate<JenkinsService.JenkinsCrumb> rejected) {
+            if (crumb != null && crumb.isDone() && !crumb.isCompletedExceptionally() && rejected.test(crumb.join())) {
+                crumb = null;
+            }
+        }
+
+        public void recordHealth(boolean healthy, long responseTimeMs, String error) {
+            this.healthy = healthy;
+            this.responseTimeMs = healthy ? responseTimeMs : -1;
+            this.lastError = error;
+            this.lastCheckedAt = System.currentTimeMillis();
+        }
+    }
+
+    private final Map<String, ServerState> servers = new ConcurrentHashMap<>();
+
+    // Project copies by id, by server URL + job name, and by job name alone
+    private final Map<Long, Project> projectsById = new ConcurrentHashMap<>();
+    private final Map<String, Project> projectsByJob = new ConcurrentHashMap<>();
+    private final Map<String, Project> projectsByJobName = new ConcurrentHashMap<>();
+
+    // Start of the last refresh; null until the index is first built
+    private volatile LocalDateTime lastRefreshAt;
+
+    /**
+     * Key identifying the server a project's Jenkins configuration points at.
+     */
+    public static String serverKey(Project project) {
+        return normalizeUrl(project.getJenkinsUrl()) + "|" + project.getJenkinsUsername() + "|" + project.getJenkinsToken();
+    }
+
+    public ServerState server(Project project) {
+        return servers.computeIfAbsent(serverKey(project), key ->
+            new ServerState(key, normalizeUrl(project.getJenkinsUrl()), project.getJenkinsUsername(), project.getJenkinsToken()));
+    }
+
+    /**
+     * Find or create the jenkins_servers row for a project's Jenkins configuration, for
+     * linking before the project is saved. Null if the project has no complete configuration.
+     */
+    public JenkinsServer resolveServer(Project project) {
+        if (!isConfigured(project)) {
+            return null;
+        }
+        ServerState state = server(project);
+        Long serverId = state.serverId;
+        if (serverId != null) {
+            return jenkinsServerRepository.getReferenceById(serverId);
+        }
+
+        String url = normalizeUrl(project.getJenkinsUrl());
+        String fingerprint = tokenFingerprint(project.getJenkinsToken());
+        JenkinsServer server = jenkinsServerRepository
+            .findByUrlAndUsernameAndTokenFingerprint(url, project.getJenkinsUsername(), fingerprint)
+            .orElse(null);
+        if (server == null) {
+            try {
+                server = jenkinsServerRepository.save(new JenkinsServer(null, url, project.getJenkinsUsername(),
+                    fingerprint, null));
+                System.out.println("🗄️ Registered Jenkins server " + url + " (" + project.getJenkinsUsername() + ")");
+            } catch (DataIntegrityViolationException e) {
+                // Another node registered it at the same time
+                server = jenkinsServerRepository
+                    .findByUrlAndUsernameAndTokenFingerprint(url, project.getJenkinsUsername(), fingerprint)
+                    .orElseThrow(() -> e);
+            }
+        }
+        state.serverId = server.getId();
+        return server;
+    }
+
+    /**
+     * SHA-256 of a Jenkins token (hex), which tells servers reached with different
+     * tokens apart without storing the token a second time.
+     */
+    static String tokenFingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Index a saved project under its current server and job, replacing its old entries.
+     */
+    public void onProjectSaved(Project project) {
+        if (project.getId() == null) {
+            return;
+        }
+        unindex(project.getId());
+        if (!isConfigured(project)) {
+            return;
+        }
+        Project copy = detachedCopy(project);
+        projectsById.put(copy.getId(), copy);
+        projectsByJob.put(jobKey(copy.getJenkinsUrl(), copy.getJenkinsJobName()), copy);
+        projectsByJobName.put(copy.getJenkinsJobName(), copy);
+    }
+
+    public void onProjectDeleted(Long projectId) {
+        unindex(projectId);
+    }
+
+    /**
+     * The project deploying the given job on the server at jenkinsUrl. Falls back to the
+     * job name alone when jenkinsUrl is null, and to the database on an index miss.
+     */
+    public Optional<Project> findProject(String jenkinsUrl, String jobName) {
+        if (jobName == null) {
+            return Optional.empty();
+        }
+        Project project = jenkinsUrl != null
+            ? projectsByJob.get(jobKey(jenkinsUrl, jobName))
+            : projectsByJobName.get(jobName);
+        if (project != null) {
+            return Optional.of(project);
+        }
+        return loadByJobName(jobName);
+    }
+
+    /**
+     * A project deploying the given job, on whichever server (Jenkins notifications
+     * only carry the job name).
+     */
+    public Optional<Project> findProjectByJobName(String jobName) {
+        return findProject(null, jobName);
+    }
+
+    /**
+     * The indexed (configured) projects grouped by server.
+     */
+    public Map<ServerState, List<Project>> projectsByServer() {
+        Map<ServerState, List<Project>> grouped = new LinkedHashMap<>();
+        for (Project project : projectsById.values()) {
+            grouped.computeIfAbsent(server(project), server -> new ArrayList<>()).add(project);
+        }
+        return grouped;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        invalidate();
+    }
+
+    /**
+     * Rebuild the index from the whole projects table and link configured projects that
+     * have no server yet (created before servers existed, or by an older node).
+     */
+    public synchronized void invalidate() {
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<Project> projects = projectRepository.findAll();
+            Set<Long> seen = new HashSet<>();
+            int linked = 0;
+            for (Project project : projects) {
+                seen.add(project.getId());
+                onProjectSaved(project);
+                if (!isConfigured(project)) {
+                    continue;
+                }
+                JenkinsServer server = resolveServer(project);
+                if (project.getJenkinsServer() == null || !server.getId().equals(project.getJenkinsServer().getId())) {
+                    projectRepository.linkJenkinsServer(project.getId(), server);
+                    linked++;
+                }
+            }
+            for (Long projectId : new ArrayList<>(projectsById.keySet())) {
+                if (!seen.contains(projectId)) {
+                    unindex(projectId);
+                }
+            }
+            evictUnusedServers();
+            lastRefreshAt = startedAt;
+            if (linked > 0) {
+                System.out.println("🗄️ Linked " + linked + " project(s) to their Jenkins server");
+            }
+        } catch (Exception e) {
+            // Keep serving the current index
+            System.err.println("⚠️ Failed to rebuild the Jenkins server registry: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-index projects saved since the last refresh. Looks back an extra
+     * REFRESH_INTERVAL_MS to allow for clock differences between nodes.
+     */
+    @Scheduled(fixedDelay = REFRESH_INTERVAL_MS, initialDelay = REFRESH_INTERVAL_MS)
+    public synchronized void refresh() {
+        if (lastRefreshAt == null) {
+            invalidate();
+            return;
+        }
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            List<Project> changed = projectRepository.findByUpdatedAtAfter(
+                lastRefreshAt.minus(Duration.ofMillis(REFRESH_INTERVAL_MS)));
+            for (Project project : changed) {
+                onProjectSaved(project);
+            }
+            evictUnusedServers();
+            lastRefreshAt = startedAt;
+        } catch (Exception e) {
+            // Keep serving the current index
+            System.err.println("⚠️ Failed to refresh the Jenkins server registry: " + e.getMessage());
+        }
+    }
+
+    // Servers no indexed project uses any more, e.g. after a token change
+    private void evictUnusedServers() {
+        Set<String> usedServers = new HashSet<>();
+        for (Project project : projectsById.values()) {
+            usedServers.add(serverKey(project));
+        }
+        servers.keySet().retainAll(usedServers);
+    }
+
+    private Optional<Project> loadByJobName(String jobName) {
+        Optional<Project> project = projectRepository.findByJenkinsJobName(jobName);
+        project.ifPresent(this::onProjectSaved);
+        return project.map(found -> projectsById.getOrDefault(found.getId(), found));
+    }
+
+    private void unindex(Long projectId) {
+        Project old = projectsById.remove(projectId);
+        if (old != null) {
+            projectsByJob.remove(jobKey(old.getJenkinsUrl(), old.getJenkinsJobName()), old);
+            projectsByJobName.remove(old.getJenkinsJobName(), old);
+        }
+    }
+
+    private static Project detachedCopy(Project project) {
+        Project copy = new Project();
+        copy.setId(project.getId());
+        copy.setName(project.getName());
+        copy.setDescription(project.getDescription());
+        copy.setStatus(project.getStatus());
+        copy.setCreatedAt(project.getCreatedAt());
+        copy.setUpdatedAt(project.getUpdatedAt());
+        copy.setJenkinsJobName(project.getJenkinsJobName());
+        copy.setJenkinsUrl(project.getJenkinsUrl());
+        copy.setJenkinsUsername(project.getJenkinsUsername());
+        copy.setJenkinsToken(project.getJenkinsToken());
+        copy.setRequireEnvironmentSelection(project.isRequireEnvironmentSelection());
+        return copy;
+    }
+
+    private static String jobKey(String jenkinsUrl, String jobName) {
+        return normalizeUrl(jenkinsUrl) + "|" + jobName;
+    }
+
+    static String normalizeUrl(String jenkinsUrl) {
+        return jenkinsUrl.endsWith("/") ? jenkinsUrl : jenkinsUrl + "/";
+    }
+
+    private static boolean isConfigured(Project project) {
+        return project.getJenkinsUrl() != null && !project.getJenkinsUrl().trim().isEmpty() &&
+               project.getJenkinsJobName() != null && !project.getJenkinsJobName().trim().isEmpty() &&
+               project.getJenkinsUsername() != null && !project.getJenkinsUsername().trim().isEmpty() &&
+               project.getJenkinsToken() != null && !project.getJenkinsToken().trim().isEmpty();
+    }
+}
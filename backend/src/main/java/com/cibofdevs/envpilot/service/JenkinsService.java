@@ -1,189 +1,242 @@
 package com.cibofdevs.envpilot.service;
 
+import com.cibofdevs.envpilot.dto.BuildStatus;
+import com.cibofdevs.envpilot.dto.JenkinsJob;
+import com.cibofdevs.envpilot.dto.JenkinsResult;
+import com.cibofdevs.envpilot.dto.BuildSummary;
 import com.cibofdevs.envpilot.model.Project;
 import com.cibofdevs.envpilot.model.Environment;
 import com.cibofdevs.envpilot.model.User;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Jenkins operations used by the controllers and schedulers. Every operation runs on
+ * the shared non-blocking JenkinsClient and is exposed as a CompletableFuture
+ * ("...Async"); the few synchronous variants that remain are thin join() wrappers for
+ * callers that have not been moved off the blocking path yet.
+ */
 @Service
 public class JenkinsService {
 
     @Autowired
-    private RestTemplate restTemplate;
+    private JenkinsClient jenkinsClient;
 
     @Autowired
-    @Qualifier("jenkinsHealthCheckRestTemplate")
-    private RestTemplate healthCheckRestTemplate;
+    private JenkinsServerRegistry jenkinsServerRegistry;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Job parameter definitions per (Jenkins URL, job name) (see fetchParameterDefinitions)
+    private static final long PARAMETER_DEFINITIONS_TTL_MS = 5 * 60 * 1000; // 5 minutes
+    private final Map<String, CachedParameterDefinitions> parameterDefinitionsCache = new ConcurrentHashMap<>();
+
+    private static final class CachedParameterDefinitions {
+        // Completes with null if the lookup failed (see loadParameterDefinitions)
+        final CompletableFuture<ParameterDefinitions> definitions;
+        final long loadedAt;
+
+        CachedParameterDefinitions(CompletableFuture<ParameterDefinitions> definitions, long loadedAt) {
+            this.definitions = definitions;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // A job's parameter definitions with the validators (ETag, Last-Modified) Jenkins
+    // sent with them, either of which may be null
+    private record ParameterDefinitions(List<JsonNode> definitions, String etag, String lastModified) {
+    }
+
+    // Console log text is forwarded in chunks of this many chars (see readProgressiveLog)
+    private static final int LOG_CHUNK_CHARS = 8192;
+
+    // Following a queued trigger to its build (see resolveQueuedBuild)
+    private static final long QUEUE_POLL_INTERVAL_MS = 2000;
+    private static final long QUEUE_WAIT_TIMEOUT_MS = 10 * 60 * 1000; // 10 minutes
+
     /**
      * Trigger Jenkins job with parameters
      */
-    public Map<String, Object> triggerJenkinsJob(Project project, Environment environment, String version, String notes,
+    public CompletableFuture<Map<String, Object>> triggerJenkinsJobAsync(Project project, Environment environment, String version, String notes,
             String branch, String envName, Map<String, String> extraParameters, User triggeredBy) {
         Map<String, Object> result = new HashMap<>();
 
-        try {
-            System.out.println("🚀 Triggering Jenkins job for project: " + project.getName());
-            System.out.println("   Project ID: " + project.getId());
-            System.out.println("   Jenkins Job: " + project.getJenkinsJobName());
-            System.out.println("   Environment: " + (environment != null ? environment.getName() : "N/A"));
-            System.out.println("   Version: " + version);
-            System.out.println("   Triggered By: " + triggeredBy.getName());
-            
-            // Validate Jenkins configuration
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete for this project");
-                return result;
-            }
+        System.out.println("🚀 Triggering Jenkins job for project: " + project.getName());
+        System.out.println("   Project ID: " + project.getId());
+        System.out.println("   Jenkins Job: " + project.getJenkinsJobName());
+        System.out.println("   Environment: " + (environment != null ? environment.getName() : "N/A"));
+        System.out.println("   Version: " + version);
+        System.out.println("   Triggered By: " + triggeredBy.getName());
 
-            // Prepare Jenkins URL. Jenkins rejects /buildWithParameters with a 400 ("is
-            // not parameterized") for a job that declares no parameters at all, so use
-            // plain /build for those - any parameters we'd otherwise send (including the
-            // PROJECT_ID/TRIGGERED_BY_* bookkeeping fields) have nowhere to go on such a
-            // job anyway, since Jenkins only maps them onto declared parameter names.
-            String jenkinsUrl = project.getJenkinsUrl();
-            if (!jenkinsUrl.endsWith("/")) {
-                jenkinsUrl += "/";
-            }
-            boolean isParameterized = !fetchParameterDefinitions(project).isEmpty();
-            String buildUrl = jenkinsUrl + "job/" + project.getJenkinsJobName()
-                + (isParameterized ? "/buildWithParameters" : "/build");
+        // Validate Jenkins configuration
+        if (!isJenkinsConfigured(project)) {
+            result.put("success", false);
+            result.put("message", "Jenkins configuration is incomplete for this project");
+            return CompletableFuture.completedFuture(result);
+        }
+
+        // Prepare Jenkins URL. Jenkins rejects /buildWithParameters with a 400 ("is
+        // not parameterized") for a job that declares no parameters at all, so use
+        // plain /build for those - any parameters we'd otherwise send (including the
+        // PROJECT_ID/TRIGGERED_BY_* bookkeeping fields) have nowhere to go on such a
+        // job anyway, since Jenkins only maps them onto declared parameter names.
+        return fetchParameterDefinitions(project).thenCompose(definitions -> {
+            boolean isParameterized = !definitions.isEmpty();
+            String buildUrl = jobUrl(project, isParameterized ? "buildWithParameters" : "build");
 
             // Prepare headers with Basic Auth
-            HttpHeaders headers = new HttpHeaders();
+            HttpHeaders headers = buildAuthHeaders(project);
             headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
 
-            if (!addCrumb(project, headers)) {
-                result.put("success", false);
-                result.put("message", "Failed to get Jenkins crumb");
-                return result;
-            }
+            return addCrumb(project, headers).thenCompose(crumbAdded -> {
+                if (!crumbAdded) {
+                    result.put("success", false);
+                    result.put("message", "Failed to get Jenkins crumb");
+                    return CompletableFuture.completedFuture(result);
+                }
 
-            // Prepare parameters. Dynamic parameters (whatever the job actually declares,
-            // discovered live via getJobParameters) go first so a job's own parameter wins
-            // if it happens to share a name with one of the fixed ones below; the EnvPilot
-            // bookkeeping fields are stamped last, unconditionally, so they can never be
-            // overridden by a same-named dynamic parameter. Skipped entirely for a
-            // non-parameterized job - Jenkins has nowhere to map them since /build (unlike
-            // /buildWithParameters) doesn't accept form parameters at all.
-            MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
-            if (isParameterized) {
-                if (extraParameters != null) {
-                    for (Map.Entry<String, String> entry : extraParameters.entrySet()) {
-                        if (entry.getKey() != null && entry.getValue() != null) {
-                            parameters.add(entry.getKey(), entry.getValue());
+                // Same (cached) definitions as above, so no second metadata call
+                String branchParamName = findGitBranchParameterName(definitions);
+
+                // Prepare parameters. Dynamic parameters (whatever the job actually declares,
+                // discovered live via getJobParameters) go first so a job's own parameter wins
+                // if it happens to share a name with one of the fixed ones below; the EnvPilot
+                // bookkeeping fields are stamped last, unconditionally, so they can never be
+                // overridden by a same-named dynamic parameter. Skipped entirely for a
+                // non-parameterized job - Jenkins has nowhere to map them since /build (unlike
+                // /buildWithParameters) doesn't accept form parameters at all.
+                MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+                if (isParameterized) {
+                    if (extraParameters != null) {
+                        for (Map.Entry<String, String> entry : extraParameters.entrySet()) {
+                            if (entry.getKey() != null && entry.getValue() != null) {
+                                parameters.add(entry.getKey(), entry.getValue());
+                            }
                         }
                     }
+                    String envToSend = (envName != null && !envName.isEmpty()) ? envName : (environment != null ? environment.getName() : null);
+                    if (envToSend != null && !envToSend.isEmpty() && !parameters.containsKey("ENV")) {
+                        parameters.add("ENV", envToSend);
+                    }
+                    if (version != null && !version.trim().isEmpty() && !parameters.containsKey("VERSION")) {
+                        parameters.add("VERSION", version);
+                    }
+                    if (notes != null && !notes.trim().isEmpty() && !parameters.containsKey("NOTES")) {
+                        parameters.add("NOTES", notes);
+                    }
+                    if (branch != null && !branch.trim().isEmpty()) {
+                        // The Jenkins job may declare its Git Parameter branch field under any name
+                        // (the "pay-channel-non-sit" job uses "Branch"), so look up the real name
+                        // rather than assuming one; fall back to "Branch" if it can't be discovered.
+                        parameters.set(branchParamName != null ? branchParamName : "Branch", branch);
+                    }
+                    parameters.set("PROJECT_ID", project.getId().toString());
+                    parameters.set("PROJECT_NAME", project.getName());
+                    parameters.set("TRIGGERED_BY_USER_ID", triggeredBy.getId().toString());
+                    parameters.set("TRIGGERED_BY_USER_NAME", triggeredBy.getName());
+                    parameters.set("TRIGGERED_BY_USER_EMAIL", triggeredBy.getEmail());
                 }
-                String envToSend = (envName != null && !envName.isEmpty()) ? envName : (environment != null ? environment.getName() : null);
-                if (envToSend != null && !envToSend.isEmpty() && !parameters.containsKey("ENV")) {
-                    parameters.add("ENV", envToSend);
-                }
-                if (version != null && !version.trim().isEmpty() && !parameters.containsKey("VERSION")) {
-                    parameters.add("VERSION", version);
-                }
-                if (notes != null && !notes.trim().isEmpty() && !parameters.containsKey("NOTES")) {
-                    parameters.add("NOTES", notes);
-                }
-                if (branch != null && !branch.trim().isEmpty()) {
-                    // The Jenkins job may declare its Git Parameter branch field under any name
-                    // (the "pay-channel-non-sit" job uses "Branch"), so look up the real name
-                    // rather than assuming one; fall back to "Branch" if it can't be discovered.
-                    String branchParamName = findGitBranchParameterName(project);
-                    parameters.set(branchParamName != null ? branchParamName : "Branch", branch);
-                }
-                parameters.set("PROJECT_ID", project.getId().toString());
-                parameters.set("PROJECT_NAME", project.getName());
-                parameters.set("TRIGGERED_BY_USER_ID", triggeredBy.getId().toString());
-                parameters.set("TRIGGERED_BY_USER_NAME", triggeredBy.getName());
-                parameters.set("TRIGGERED_BY_USER_EMAIL", triggeredBy.getEmail());
+
+                // Make the request
+                return postWithCrumb(project, buildUrl, headers, parameters)
+                    .thenCompose(response -> handleTriggerResponse(project, buildUrl, response, result));
+            });
+        }).exceptionally(ex -> {
+            Throwable cause = JenkinsClient.unwrap(ex);
+            result.put("success", false);
+            if (cause instanceof HttpClientErrorException e) {
+                result.put("message", "Jenkins API error: " + e.getMessage());
+                result.put("statusCode", e.getStatusCode().value());
+            } else {
+                result.put("message", "Error triggering Jenkins job: " + cause.getMessage());
+            }
+            return result;
+        }).thenApply(finalResult -> {
+            // Log final result
+            if ((Boolean) finalResult.get("success")) {
+                System.out.println("✅ Jenkins job triggered successfully");
+                System.out.println("   Final build number: " + finalResult.get("buildNumber"));
+                System.out.println("   Build URL: " + finalResult.get("buildUrl"));
+            } else {
+                System.out.println("❌ Jenkins job trigger failed: " + finalResult.get("message"));
             }
+            return finalResult;
+        });
+    }
 
-            HttpEntity<MultiValueMap<String, String>> request = new HttpEntity<>(parameters, headers);
+    private CompletableFuture<Map<String, Object>> handleTriggerResponse(Project project, String buildUrl,
+            ResponseEntity<String> response, Map<String, Object> result) {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            result.put("success", false);
+            result.put("message", "Failed to trigger Jenkins job. Status: " + response.getStatusCode());
+            return CompletableFuture.completedFuture(result);
+        }
 
-            // Make the request
-            ResponseEntity<String> response = restTemplate.postForEntity(buildUrl, request, String.class);
+        result.put("success", true);
+        result.put("message", "Jenkins job triggered successfully");
+        result.put("buildUrl", buildUrl);
+
+        // Jenkins answers a trigger with the queue item it created (Location:
+        // .../queue/item/<id>/), not with a build - the build number only exists once the
+        // item leaves the queue. Hand back the queue item as a ticket right away; callers
+        // resolve the real build number with resolveQueuedBuild().
+        String location = response.getHeaders().getFirst("Location");
+        if (location != null && location.contains("/queue/item/")) {
+            String queueItemUrl = location.endsWith("/") ? location : location + "/";
+            result.put("buildLocation", location);
+            result.put("queueItemUrl", queueItemUrl);
+            String[] locationParts = queueItemUrl.split("/");
+            String queueId = locationParts[locationParts.length - 1];
+            if (queueId.matches("\\d+")) {
+                result.put("queueId", Long.parseLong(queueId));
+            }
+            System.out.println("📍 Queued as: " + queueItemUrl);
+            return CompletableFuture.completedFuture(result);
+        }
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                result.put("success", true);
-                result.put("message", "Jenkins job triggered successfully");
-                result.put("buildUrl", buildUrl);
-
-                // Extract build number from Location header if available
-                String location = response.getHeaders().getFirst("Location");
-                if (location != null) {
-                    result.put("buildLocation", location);
-                    System.out.println("📍 Location header: " + location);
-                    
-                    // Try to extract build number from location URL
-                    try {
-                        String[] locationParts = location.split("/");
-                        System.out.println("🔍 Location parts: " + String.join(", ", locationParts));
-                        
-                        for (int i = locationParts.length - 1; i >= 0; i--) {
-                            String part = locationParts[i];
-                            System.out.println("   Checking part " + i + ": '" + part + "'");
-                            
-                            if (part.matches("\\d+")) {
-                                int buildNum = Integer.parseInt(part);
-                                result.put("buildNumber", buildNum);
-                                System.out.println("✅ Extracted build number from location: " + buildNum);
-                                break;
-                            }
-                        }
-                    } catch (Exception e) {
-                        // If we can't parse build number, continue without it
-                        System.out.println("❌ Could not extract build number from location: " + location);
-                        System.out.println("   Error: " + e.getMessage());
-                    }
-                } else {
-                    System.out.println("⚠️ No Location header found in response");
-                }
-                
-                // Get build number from last build (since Location header is not available)
-                try {
-                    // Wait longer for Jenkins to process the build and get the correct build number
-                    Thread.sleep(3000); // Increased wait time
-                    
+        // Older Jenkins versions (or a proxy stripping headers) give no queue item to
+        // follow: fall back to reading the last build once Jenkins has had time to start
+        // it, scheduled as a delayed stage rather than a sleep
+        System.out.println("⚠️ No queue item Location header found in response, falling back to lastBuild + 1");
+        return CompletableFuture.supplyAsync(() -> project, CompletableFuture.delayedExecutor(3, TimeUnit.SECONDS))
+            .thenCompose(this::getLastBuildStatusAsync)
+            .handle((currentLastBuild, ex) -> {
+                if (ex != null) {
+                    System.out.println("❌ Could not get build number: " + JenkinsClient.unwrap(ex).getMessage());
+                } else if (currentLastBuild instanceof JenkinsResult.Success<BuildStatus> success) {
                     // Get the next build number by checking current last build and incrementing
-                    Map<String, Object> currentLastBuild = getLastBuildStatus(project);
-                    
-                    if ((Boolean) currentLastBuild.get("success")) {
-                        Integer currentBuildNumber = (Integer) currentLastBuild.get("buildNumber");
-                        Integer nextBuildNumber = currentBuildNumber + 1;
-                        result.put("buildNumber", nextBuildNumber);
-                        System.out.println("✅ Next build number calculated: " + nextBuildNumber + " (current: " + currentBuildNumber + ")");
-                    }
-                } catch (Exception e) {
-                    System.out.println("❌ Could not get build number: " + e.getMessage());
+                    int currentBuildNumber = success.value().number();
+                    int nextBuildNumber = currentBuildNumber + 1;
+                    result.put("buildNumber", nextBuildNumber);
+                    System.out.println("✅ Next build number calculated: " + nextBuildNumber + " (current: " + currentBuildNumber + ")");
                 }
-                
+
                 // Log build number for debugging (without strict validation)
                 if (result.containsKey("buildNumber")) {
                     Integer buildNumber = (Integer) result.get("buildNumber");
@@ -191,234 +244,265 @@ public class JenkinsService {
                 } else {
                     System.out.println("⚠️ No build number available to return");
                 }
-            } else {
-                result.put("success", false);
-                result.put("message", "Failed to trigger Jenkins job. Status: " + response.getStatusCode());
-            }
+                return result;
+            });
+    }
 
-        } catch (HttpClientErrorException e) {
-            result.put("success", false);
-            result.put("message", "Jenkins API error: " + e.getMessage());
-            result.put("statusCode", e.getStatusCode().value());
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "Error triggering Jenkins job: " + e.getMessage());
-        }
+    /**
+     * Follow a queue item returned by a trigger until Jenkins starts the build, and
+     * complete with its real "buildNumber" and "buildUrl" (from executable.number/url).
+     * The queue item is polled without blocking a thread, for at most
+     * QUEUE_WAIT_TIMEOUT_MS; completes exceptionally if the item is cancelled, expires
+     * or doesn't start within that time.
+     */
+    public CompletableFuture<Map<String, Object>> resolveQueuedBuild(Project project, String queueItemUrl) {
+        CompletableFuture<Map<String, Object>> build = new CompletableFuture<>();
+        pollQueueItem(project, queueItemUrl + "api/json", System.currentTimeMillis() + QUEUE_WAIT_TIMEOUT_MS, build);
+        return build;
+    }
 
-        // Log final result
-        if ((Boolean) result.get("success")) {
-            System.out.println("✅ Jenkins job triggered successfully");
-            System.out.println("   Final build number: " + result.get("buildNumber"));
-            System.out.println("   Build URL: " + result.get("buildUrl"));
-        } else {
-            System.out.println("❌ Jenkins job trigger failed: " + result.get("message"));
-        }
+    private void pollQueueItem(Project project, String queueApiUrl, long deadline, CompletableFuture<Map<String, Object>> build) {
+        jenkinsClient.get(queueApiUrl, buildAuthHeaders(project)).whenComplete((response, ex) -> {
+            try {
+                if (ex != null) {
+                    Throwable cause = JenkinsClient.unwrap(ex);
+                    // Jenkins forgets a queue item a few minutes after it left the queue
+                    if (cause instanceof HttpClientErrorException e && e.getStatusCode().value() == 404) {
+                        build.completeExceptionally(new IllegalStateException("Queue item no longer exists: " + queueApiUrl));
+                        return;
+                    }
+                    System.out.println("⚠️ Could not read queue item " + queueApiUrl + ": " + cause.getMessage());
+                } else {
+                    JsonNode item = readJson(response.getBody());
+                    if (item.path("cancelled").asBoolean(false)) {
+                        build.completeExceptionally(new IllegalStateException("Queued build was cancelled in Jenkins"));
+                        return;
+                    }
+                    JsonNode executable = item.get("executable");
+                    if (executable != null && executable.hasNonNull("number")) {
+                        Map<String, Object> buildInfo = new HashMap<>();
+                        buildInfo.put("buildNumber", executable.get("number").asInt());
+                        buildInfo.put("buildUrl", executable.path("url").asText(null));
+                        System.out.println("✅ Queue item resolved to build #" + buildInfo.get("buildNumber"));
+                        build.complete(buildInfo);
+                        return;
+                    }
+                }
 
-        return result;
+                if (System.currentTimeMillis() >= deadline) {
+                    build.completeExceptionally(new TimeoutException("Build did not leave the Jenkins queue within "
+                        + (QUEUE_WAIT_TIMEOUT_MS / 1000) + " seconds"));
+                    return;
+                }
+                CompletableFuture.delayedExecutor(QUEUE_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)
+                    .execute(() -> pollQueueItem(project, queueApiUrl, deadline, build));
+            } catch (Exception e) {
+                build.completeExceptionally(e);
+            }
+        });
     }
 
     /**
      * Get last build status from Jenkins
      */
-    public Map<String, Object> getLastBuildStatus(Project project) {
-        Map<String, Object> result = new HashMap<>();
+    public CompletableFuture<JenkinsResult<BuildStatus>> getLastBuildStatusAsync(Project project) {
+        System.out.println("🔍 Getting last build status for project: " + project.getName());
+        System.out.println("   Project ID: " + project.getId());
+        System.out.println("   Jenkins Job: " + project.getJenkinsJobName());
 
-        try {
-            System.out.println("🔍 Getting last build status for project: " + project.getName());
-            System.out.println("   Project ID: " + project.getId());
-            System.out.println("   Jenkins Job: " + project.getJenkinsJobName());
-            
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete");
-                return result;
-            }
+        if (!isJenkinsConfigured(project)) {
+            return CompletableFuture.completedFuture(JenkinsResult.failure("Jenkins configuration is incomplete"));
+        }
 
-            String jenkinsUrl = project.getJenkinsUrl();
-            if (!jenkinsUrl.endsWith("/")) {
-                jenkinsUrl += "/";
+        String jenkinsUrl = normalizeJenkinsUrl(project.getJenkinsUrl());
+        String buildStatusUrl = jobUrl(project, "lastBuild/api/json?"
+            + treeQuery("number,result,building,duration,estimatedDuration,timestamp,url,description"));
+
+        System.out.println("   Jenkins URL: " + jenkinsUrl);
+        System.out.println("   Build Status URL: " + buildStatusUrl);
+
+        return jenkinsClient.getJson(buildStatusUrl, buildAuthHeaders(project), JenkinsJsonParser::readBuildStatus).handle((buildInfo, ex) -> {
+            if (ex != null) {
+                Throwable cause = JenkinsClient.unwrap(ex);
+                if (cause instanceof HttpClientErrorException e) {
+                    int statusCode = e.getStatusCode().value();
+                    String message = switch (statusCode) {
+                        case 404 -> "Job not found. Please check Jenkins job configuration.";
+                        case 401 -> "Authentication failed. Please check Jenkins credentials.";
+                        case 403 -> "Access denied. Please check Jenkins permissions.";
+                        default -> "Jenkins API error: " + e.getMessage();
+                    };
+                    return JenkinsResult.<BuildStatus>failure(message, statusCode);
+                }
+                return JenkinsResult.<BuildStatus>failure("Error getting build status: " + cause.getMessage());
             }
-            String buildStatusUrl = jenkinsUrl + "job/" + project.getJenkinsJobName() + "/lastBuild/api/json";
-            
-            System.out.println("   Jenkins URL: " + jenkinsUrl);
-            System.out.println("   Build Status URL: " + buildStatusUrl);
 
-            // Prepare headers with Basic Auth
-            HttpHeaders headers = new HttpHeaders();
-            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
+            System.out.println("✅ Retrieved build number from Jenkins: " + buildInfo.number());
+            System.out.println("   Build URL: " + buildInfo.url());
+            System.out.println("   Building: " + buildInfo.building());
+            System.out.println("   Result: " + buildInfo.resultOrInProgress());
+
+            return JenkinsResult.success(buildInfo);
+        });
+    }
 
-            HttpEntity<String> request = new HttpEntity<>(headers);
+    /**
+     * Get a single build's status - "lastBuild" or a build number as buildRef.
+     * Completes exceptionally if Jenkins can't be reached or answers with an error.
+     */
+    public CompletableFuture<BuildStatus> getBuildInfoAsync(Project project, String buildRef) {
+        String buildUrl = jobUrl(project, buildRef + "/api/json?"
+            + treeQuery("number,result,building,duration,estimatedDuration,timestamp,url,description"));
+        return jenkinsClient.getJson(buildUrl, buildAuthHeaders(project), JenkinsJsonParser::readBuildStatus);
+    }
 
-            ResponseEntity<String> response = restTemplate.exchange(buildStatusUrl, HttpMethod.GET, request, String.class);
+    /**
+     * Get the most recent builds of every top-level job on the project's Jenkins
+     * controller in one request, keyed by job name, each job's builds newest first.
+     * Pollers watching several jobs on the same controller use this to make one call
+     * per host per tick instead of one lastBuild call per job. Jobs nested in folders
+     * are not listed, so callers fall back to {@link #getBuildInfoAsync} for any job
+     * missing from the result. Completes exceptionally if the request fails.
+     */
+    public CompletableFuture<Map<String, List<BuildStatus>>> getJobBuildsAsync(Project project, int buildsPerJob) {
+        String jenkinsUrl = normalizeJenkinsUrl(project.getJenkinsUrl());
+        String treeUrl = jenkinsUrl + "api/json?" + treeQuery("jobs[name,builds[number,result,building,duration,estimatedDuration,timestamp,url]{0,"
+            + buildsPerJob + "}]");
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode buildInfo = objectMapper.readTree(response.getBody());
-                
-                int buildNumber = buildInfo.get("number").asInt();
-                System.out.println("✅ Retrieved build number from Jenkins: " + buildNumber);
-                System.out.println("   Build URL: " + buildInfo.get("url").asText());
-                System.out.println("   Building: " + buildInfo.get("building").asBoolean());
-                System.out.println("   Result: " + (buildInfo.has("result") ? buildInfo.get("result").asText() : "IN_PROGRESS"));
+        return jenkinsClient.getJson(treeUrl, buildAuthHeaders(project), JenkinsJsonParser::readJobBuilds);
+    }
 
-                result.put("success", true);
-                result.put("buildNumber", buildNumber);
-                result.put("result", buildInfo.has("result") ? buildInfo.get("result").asText() : "IN_PROGRESS");
-                result.put("building", buildInfo.get("building").asBoolean());
-                result.put("timestamp", buildInfo.get("timestamp").asLong());
-                result.put("duration", buildInfo.get("duration").asLong());
-                result.put("url", buildInfo.get("url").asText());
-
-                if (buildInfo.has("description") && !buildInfo.get("description").isNull()) {
-                    result.put("description", buildInfo.get("description").asText());
-                }
-            } else {
-                System.out.println("❌ Failed to get build status. Status: " + response.getStatusCode());
-                result.put("success", false);
-                result.put("message", "Failed to get build status. Status: " + response.getStatusCode());
-            }
+    /**
+     * Grouping key for batched polling: projects whose Jenkins URL and credentials match
+     * can be served by the same {@link #getJobBuildsAsync} request.
+     */
+    public String jenkinsHostKey(Project project) {
+        return JenkinsServerRegistry.serverKey(project);
+    }
 
-        } catch (HttpClientErrorException e) {
-            result.put("success", false);
-            if (e.getStatusCode().value() == 404) {
-                result.put("message", "Job not found. Please check Jenkins job configuration.");
-            } else if (e.getStatusCode().value() == 401) {
-                result.put("message", "Authentication failed. Please check Jenkins credentials.");
-            } else if (e.getStatusCode().value() == 403) {
-                result.put("message", "Access denied. Please check Jenkins permissions.");
-            } else {
-                result.put("message", "Jenkins API error: " + e.getMessage());
-            }
-            result.put("statusCode", e.getStatusCode().value());
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "Error getting build status: " + e.getMessage());
+    /**
+     * The Jenkins server a project talks to (host[:port]), regardless of credentials -
+     * used to cap concurrent requests per server.
+     */
+    public String jenkinsHost(Project project) {
+        try {
+            java.net.URI uri = java.net.URI.create(normalizeJenkinsUrl(project.getJenkinsUrl().trim()));
+            return uri.getAuthority() != null ? uri.getAuthority().toLowerCase() : project.getJenkinsUrl();
+        } catch (IllegalArgumentException e) {
+            return project.getJenkinsUrl();
         }
+    }
 
-        return result;
+    /**
+     * Blocking variant of {@link #getLastBuildStatusAsync(Project)} for callers that
+     * still run synchronously (the deployment sync path).
+     */
+    public JenkinsResult<BuildStatus> getLastBuildStatus(Project project) {
+        return getLastBuildStatusAsync(project).join();
     }
 
     /**
      * Test Jenkins connection
      */
-    public Map<String, Object> testJenkinsConnection(Project project) {
-        return testJenkinsConnection(project, restTemplate);
+    public CompletableFuture<Map<String, Object>> testJenkinsConnectionAsync(Project project) {
+        return testJenkinsConnection(project, false).thenApply(result -> result.toMap(job -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("success", true);
+            map.put("message", "Jenkins connection successful");
+            map.put("jobName", job.name());
+            map.put("jobUrl", job.url());
+            return map;
+        }));
     }
 
     /**
-     * Lightweight connectivity probe using a short-timeout RestTemplate, meant for
-     * frequent monitoring/health-check callers (e.g. the analytics dashboard) that
-     * must not be blocked for a long time by a slow or unreachable Jenkins instance.
+     * Lightweight connectivity probe using short timeouts, meant for frequent
+     * monitoring/health-check callers (e.g. JenkinsHealthProber) that must not be
+     * held up for a long time by a slow or unreachable Jenkins instance.
      */
-    public Map<String, Object> testJenkinsConnectionQuick(Project project) {
-        return testJenkinsConnection(project, healthCheckRestTemplate);
+    public CompletableFuture<JenkinsResult<JenkinsJob>> testJenkinsConnectionQuickAsync(Project project) {
+        return testJenkinsConnection(project, true);
     }
 
-    private Map<String, Object> testJenkinsConnection(Project project, RestTemplate httpClient) {
-        Map<String, Object> result = new HashMap<>();
-
-        try {
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete");
-                return result;
-            }
-
-            String jenkinsUrl = project.getJenkinsUrl();
-            if (!jenkinsUrl.endsWith("/")) {
-                jenkinsUrl += "/";
-            }
-            String testUrl = jenkinsUrl + "job/" + project.getJenkinsJobName() + "/api/json";
-
-            // Prepare headers with Basic Auth
-            HttpHeaders headers = new HttpHeaders();
-            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
+    private CompletableFuture<JenkinsResult<JenkinsJob>> testJenkinsConnection(Project project, boolean quick) {
+        if (!isJenkinsConfigured(project)) {
+            return CompletableFuture.completedFuture(JenkinsResult.failure("Jenkins configuration is incomplete"));
+        }
 
-            HttpEntity<String> request = new HttpEntity<>(headers);
+        String testUrl = jobUrl(project, "api/json?" + treeQuery("name,url"));
 
-            ResponseEntity<String> response = httpClient.exchange(testUrl, HttpMethod.GET, request, String.class);
+        HttpHeaders headers = buildAuthHeaders(project);
+        CompletableFuture<JenkinsJob> jobFuture = quick
+            ? jenkinsClient.getQuickJson(testUrl, headers, JenkinsJsonParser::readJob)
+            : jenkinsClient.getJson(testUrl, headers, JenkinsJsonParser::readJob);
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode jobInfo = objectMapper.readTree(response.getBody());
-                result.put("success", true);
-                result.put("message", "Jenkins connection successful");
-                result.put("jobName", jobInfo.get("name").asText());
-                result.put("jobUrl", jobInfo.get("url").asText());
-            } else {
-                result.put("success", false);
-                result.put("message", "Failed to connect to Jenkins. Status: " + response.getStatusCode());
+        return jobFuture.handle((job, ex) -> {
+            if (ex != null) {
+                Throwable cause = JenkinsClient.unwrap(ex);
+                if (cause instanceof HttpClientErrorException e) {
+                    return JenkinsResult.<JenkinsJob>failure("Jenkins connection failed: " + e.getMessage(), e.getStatusCode().value());
+                }
+                return JenkinsResult.<JenkinsJob>failure("Error testing Jenkins connection: " + cause.getMessage());
             }
-
-        } catch (HttpClientErrorException e) {
-            result.put("success", false);
-            result.put("message", "Jenkins connection failed: " + e.getMessage());
-            result.put("statusCode", e.getStatusCode().value());
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "Error testing Jenkins connection: " + e.getMessage());
-        }
-
-        return result;
+            return JenkinsResult.success(job);
+        });
     }
 
     /**
      * Get build logs from Jenkins
      */
-    public Map<String, Object> getBuildLogs(Project project, Integer buildNumber) {
-        Map<String, Object> result = new HashMap<>();
-
-        try {
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete");
-                return result;
-            }
-
-            String jenkinsUrl = project.getJenkinsUrl();
-            if (!jenkinsUrl.endsWith("/")) {
-                jenkinsUrl += "/";
-            }
-            
-            // If buildNumber is null, get the last build
-            String buildLogsUrl;
-            if (buildNumber != null) {
-                buildLogsUrl = jenkinsUrl + "job/" + project.getJenkinsJobName() + "/" + buildNumber + "/consoleText";
-            } else {
-                buildLogsUrl = jenkinsUrl + "job/" + project.getJenkinsJobName() + "/lastBuild/consoleText";
-            }
-
-            // Prepare headers with Basic Auth
-            HttpHeaders headers = new HttpHeaders();
-            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
+    public CompletableFuture<Map<String, Object>> getBuildLogsAsync(Project project, Integer buildNumber) {
+        if (!isJenkinsConfigured(project)) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Jenkins configuration is incomplete");
+            return CompletableFuture.completedFuture(result);
+        }
 
-            HttpEntity<String> request = new HttpEntity<>(headers);
+        // If buildNumber is null, get the last build
+        String buildLogsUrl;
+        if (buildNumber != null) {
+            buildLogsUrl = jobUrl(project, buildNumber + "/consoleText");
+        } else {
+            buildLogsUrl = jobUrl(project, "lastBuild/consoleText");
+        }
 
-            ResponseEntity<String> response = restTemplate.exchange(buildLogsUrl, HttpMethod.GET, request, String.class);
+        return jenkinsClient.get(buildLogsUrl, buildAuthHeaders(project)).handle((response, ex) -> {
+            Map<String, Object> result = new HashMap<>();
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                result.put("success", true);
-                result.put("logs", response.getBody());
-                result.put("buildNumber", buildNumber);
-            } else {
-                result.put("success", false);
-                result.put("message", "Failed to get build logs. Status: " + response.getStatusCode());
+            if (ex == null) {
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    result.put("success", true);
+                    result.put("logs", response.getBody());
+                    result.put("buildNumber", buildNumber);
+                } else {
+                    result.put("success", false);
+                    result.put("message", "Failed to get build logs. Status: " + response.getStatusCode());
+                }
+                return CompletableFuture.completedFuture(result);
             }
 
-        } catch (HttpClientErrorException e) {
+            Throwable cause = JenkinsClient.unwrap(ex);
             result.put("success", false);
+            if (!(cause instanceof HttpClientErrorException e)) {
+                System.out.println("❌ Unexpected error in getBuildLogs: " + cause.getMessage());
+                cause.printStackTrace();
+                result.put("message", "Error getting build logs: " + cause.getMessage());
+                return CompletableFuture.completedFuture(result);
+            }
+
             System.out.println("🔍 Jenkins API Error - Status: " + e.getStatusCode().value() + ", Message: " + e.getMessage());
-            
+            result.put("statusCode", e.getStatusCode().value());
+
             if (e.getStatusCode().value() == 404) {
                 // Try to get available builds to provide better error message
-                try {
-                    System.out.println("🔍 Attempting to get available builds for project: " + project.getName());
-                    Map<String, Object> availableBuilds = getAvailableBuildNumbers(project);
-                    if ((Boolean) availableBuilds.get("success")) {
+                System.out.println("🔍 Attempting to get available builds for project: " + project.getName());
+                return getAvailableBuildNumbers(project).handle((availableBuilds, availableEx) -> {
+                    if (availableEx != null) {
+                        result.put("message", String.format("Build #%d not found. The specified build number may not exist.", buildNumber));
+                        System.out.println("❌ Exception while getting available builds: " + JenkinsClient.unwrap(availableEx).getMessage());
+                    } else if ((Boolean) availableBuilds.get("success")) {
+                        @SuppressWarnings("unchecked")
                         List<Integer> buildNumbers = (List<Integer>) availableBuilds.get("buildNumbers");
                         if (buildNumbers != null && !buildNumbers.isEmpty()) {
                             String availableBuildsStr = buildNumbers.stream().limit(10).map(String::valueOf).collect(Collectors.joining(", "));
@@ -432,10 +516,8 @@ public class JenkinsService {
                         result.put("message", String.format("Build #%d not found. The specified build number may not exist.", buildNumber));
                         System.out.println("❌ Failed to get available builds: " + availableBuilds.get("message"));
                     }
-                } catch (Exception ex) {
-                    result.put("message", String.format("Build #%d not found. The specified build number may not exist.", buildNumber));
-                    System.out.println("❌ Exception while getting available builds: " + ex.getMessage());
-                }
+                    return result;
+                });
             } else if (e.getStatusCode().value() == 401) {
                 result.put("message", "Authentication failed. Please check Jenkins credentials.");
             } else if (e.getStatusCode().value() == 403) {
@@ -443,181 +525,164 @@ public class JenkinsService {
             } else {
                 result.put("message", "Jenkins API error: " + e.getMessage());
             }
-            result.put("statusCode", e.getStatusCode().value());
-        } catch (Exception e) {
-            result.put("success", false);
-            System.out.println("❌ Unexpected error in getBuildLogs: " + e.getMessage());
-            e.printStackTrace();
-            result.put("message", "Error getting build logs: " + e.getMessage());
+            return CompletableFuture.completedFuture(result);
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * One slice of a progressive console log read: where the next read starts
+     * (Jenkins' X-Text-Size) and whether the build may still append (X-More-Data).
+     */
+    public static final class ProgressiveLogSlice {
+        public final long nextOffset;
+        public final boolean moreData;
+
+        ProgressiveLogSlice(long nextOffset, boolean moreData) {
+            this.nextOffset = nextOffset;
+            this.moreData = moreData;
         }
+    }
+
+    /**
+     * Receives console log text chunk by chunk.
+     */
+    @FunctionalInterface
+    public interface LogChunkConsumer {
+        void accept(String chunk) throws IOException;
+    }
+
+    /**
+     * Read a build's console log from byte offset start via logText/progressiveText,
+     * passing it to the consumer in chunks of at most LOG_CHUNK_CHARS as it arrives
+     * rather than loading it into memory. Blocks the calling thread until the slice is read.
+     */
+    public ProgressiveLogSlice readProgressiveLog(Project project, Integer buildNumber, long start,
+            LogChunkConsumer consumer) throws IOException {
+        String logUrl = jobUrl(project, (buildNumber != null ? buildNumber : "lastBuild")
+            + "/logText/progressiveText?start=" + start);
+
+        return jenkinsClient.stream(logUrl, buildAuthHeaders(project), (responseHeaders, body) -> {
+            Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8);
+            char[] buffer = new char[LOG_CHUNK_CHARS];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                consumer.accept(new String(buffer, 0, read));
+            }
 
-        return result;
+            String textSize = responseHeaders.getFirst("X-Text-Size");
+            long nextOffset = textSize != null ? Long.parseLong(textSize.trim()) : start;
+            boolean moreData = Boolean.parseBoolean(responseHeaders.getFirst("X-More-Data"));
+            return new ProgressiveLogSlice(nextOffset, moreData);
+        });
     }
 
     /**
      * Get recent builds from Jenkins
      */
-    public Map<String, Object> getRecentBuilds(Project project, Integer limit) {
-        Map<String, Object> result = new HashMap<>();
+    public CompletableFuture<Map<String, Object>> getRecentBuildsAsync(Project project, Integer limit) {
+        if (!isJenkinsConfigured(project)) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Jenkins configuration is incomplete");
+            return CompletableFuture.completedFuture(result);
+        }
 
-        try {
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete");
-                return result;
-            }
+        // Let Jenkins cut the list down ({0,N} range) instead of sending the whole history
+        String buildsUrl = jobUrl(project, "api/json?"
+            + treeQuery("builds[number,result,building,timestamp,duration,url,description,actions[parameters[name,value]]]"
+                + (limit != null && limit > 0 ? "{0," + limit + "}" : "")));
 
-            String jenkinsUrl = project.getJenkinsUrl();
-            if (!jenkinsUrl.endsWith("/")) {
-                jenkinsUrl += "/";
-            }
-            String buildsUrl = jenkinsUrl + "job/" + project.getJenkinsJobName() + "/api/json?tree=builds[number,result,building,timestamp,duration,url,description,actions[parameters[name,value]]]";
+        int maxBuilds = limit != null && limit > 0 ? limit : 0;
+        return jenkinsClient.getJson(buildsUrl, buildAuthHeaders(project),
+                parser -> JenkinsJsonParser.readBuildSummaries(parser, maxBuilds)).handle((builds, ex) -> {
+            Map<String, Object> result = new HashMap<>();
 
-            // Prepare headers with Basic Auth
-            HttpHeaders headers = new HttpHeaders();
-            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
-
-            HttpEntity<String> request = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(buildsUrl, HttpMethod.GET, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode jobInfo = objectMapper.readTree(response.getBody());
-                JsonNode builds = jobInfo.get("builds");
-                
-                // Convert JsonNode to List<Map<String, Object>> and limit the number of builds if needed
-                if (builds != null && builds.isArray()) {
-                    List<Map<String, Object>> buildsList = new ArrayList<>();
-                    int maxBuilds = limit != null && limit > 0 ? Math.min(limit, builds.size()) : builds.size();
-                    
-                    for (int i = 0; i < maxBuilds; i++) {
-                        JsonNode buildNode = builds.get(i);
-                        Map<String, Object> buildMap = new HashMap<>();
-                        
-                        if (buildNode.has("number")) buildMap.put("number", buildNode.get("number").asInt());
-                        if (buildNode.has("result")) buildMap.put("result", buildNode.get("result").asText());
-                        if (buildNode.has("building")) buildMap.put("building", buildNode.get("building").asBoolean());
-                        if (buildNode.has("timestamp")) buildMap.put("timestamp", buildNode.get("timestamp").asLong());
-                        if (buildNode.has("duration")) buildMap.put("duration", buildNode.get("duration").asLong());
-                        if (buildNode.has("url")) buildMap.put("url", buildNode.get("url").asText());
-                        if (buildNode.has("description")) buildMap.put("description", buildNode.get("description").asText());
-                        
-                        // Extract user information from build parameters
-                        if (buildNode.has("actions")) {
-                            JsonNode actions = buildNode.get("actions");
-                            for (JsonNode action : actions) {
-                                if (action.has("parameters")) {
-                                    JsonNode parameters = action.get("parameters");
-                                    for (JsonNode param : parameters) {
-                                        String paramName = param.get("name").asText();
-                                        String paramValue = param.get("value").asText();
-                                        
-                                        if ("TRIGGERED_BY_USER_ID".equals(paramName)) {
-                                            buildMap.put("triggeredByUserId", paramValue);
-                                        } else if ("TRIGGERED_BY_USER_NAME".equals(paramName)) {
-                                            buildMap.put("triggeredByUserName", paramValue);
-                                        } else if ("TRIGGERED_BY_USER_EMAIL".equals(paramName)) {
-                                            buildMap.put("triggeredByUserEmail", paramValue);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                        
-                        buildsList.add(buildMap);
-                    }
-                    
-                    result.put("builds", buildsList);
+            if (ex != null) {
+                Throwable cause = JenkinsClient.unwrap(ex);
+                result.put("success", false);
+                if (cause instanceof HttpClientErrorException e) {
+                    result.put("message", "Jenkins API error: " + e.getMessage());
+                    result.put("statusCode", e.getStatusCode().value());
                 } else {
-                    result.put("builds", new ArrayList<>());
+                    result.put("message", "Error getting recent builds: " + cause.getMessage());
                 }
-                
-                result.put("success", true);
-            } else {
-                result.put("success", false);
-                result.put("message", "Failed to get recent builds. Status: " + response.getStatusCode());
+                return result;
             }
 
-        } catch (HttpClientErrorException e) {
-            result.put("success", false);
-            result.put("message", "Jenkins API error: " + e.getMessage());
-            result.put("statusCode", e.getStatusCode().value());
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "Error getting recent builds: " + e.getMessage());
-        }
+            List<Map<String, Object>> buildsList = new ArrayList<>(builds.size());
+            for (BuildSummary build : builds) {
+                buildsList.add(build.toMap());
+            }
+            result.put("builds", buildsList);
+            result.put("success", true);
+            return result;
+        });
+    }
 
-        return result;
+    /**
+     * Blocking variant of {@link #getRecentBuildsAsync(Project, Integer)}.
+     */
+    public Map<String, Object> getRecentBuilds(Project project, Integer limit) {
+        return getRecentBuildsAsync(project, limit).join();
     }
 
     /**
      * Get available build numbers for a project
      */
-    private Map<String, Object> getAvailableBuildNumbers(Project project) {
-        Map<String, Object> result = new HashMap<>();
+    private CompletableFuture<Map<String, Object>> getAvailableBuildNumbers(Project project) {
+        System.out.println("🔍 Getting available builds for project: " + project.getName());
 
-        try {
-            System.out.println("🔍 Getting available builds for project: " + project.getName());
-            
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete");
-                System.out.println("❌ Jenkins configuration incomplete for project: " + project.getName());
-                return result;
-            }
+        if (!isJenkinsConfigured(project)) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", false);
+            result.put("message", "Jenkins configuration is incomplete");
+            System.out.println("❌ Jenkins configuration incomplete for project: " + project.getName());
+            return CompletableFuture.completedFuture(result);
+        }
 
-            String jenkinsUrl = project.getJenkinsUrl();
-            if (!jenkinsUrl.endsWith("/")) {
-                jenkinsUrl += "/";
-            }
-            String buildsUrl = jenkinsUrl + "job/" + project.getJenkinsJobName() + "/api/json?tree=builds[number]";
-            System.out.println("🔍 Jenkins URL: " + buildsUrl);
+        String buildsUrl = jobUrl(project, "api/json?" + treeQuery("builds[number]"));
+        System.out.println("🔍 Jenkins URL: " + buildsUrl);
 
-            // Prepare headers with Basic Auth
-            HttpHeaders headers = new HttpHeaders();
-            String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-            headers.set("Authorization", "Basic " + encodedAuth);
-
-            HttpEntity<String> request = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(buildsUrl, HttpMethod.GET, request, String.class);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode jobInfo = objectMapper.readTree(response.getBody());
-                JsonNode builds = jobInfo.get("builds");
-                
-                if (builds != null && builds.isArray()) {
-                    List<Integer> buildNumbers = new ArrayList<>();
-                    for (JsonNode build : builds) {
-                        if (build.has("number")) {
-                            buildNumbers.add(build.get("number").asInt());
+        return jenkinsClient.get(buildsUrl, buildAuthHeaders(project)).handle((response, ex) -> {
+            Map<String, Object> result = new HashMap<>();
+
+            try {
+                if (ex != null) {
+                    throw JenkinsClient.unwrap(ex);
+                }
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    JsonNode jobInfo = readJson(response.getBody());
+                    JsonNode builds = jobInfo.get("builds");
+
+                    if (builds != null && builds.isArray()) {
+                        List<Integer> buildNumbers = new ArrayList<>();
+                        for (JsonNode build : builds) {
+                            if (build.has("number")) {
+                                buildNumbers.add(build.get("number").asInt());
+                            }
                         }
+                        result.put("success", true);
+                        result.put("buildNumbers", buildNumbers);
+                        System.out.println("✅ Found " + buildNumbers.size() + " builds: " + buildNumbers);
+                    } else {
+                        result.put("success", true);
+                        result.put("buildNumbers", new ArrayList<>());
+                        System.out.println("⚠️ No builds array found in response");
                     }
-                    result.put("success", true);
-                    result.put("buildNumbers", buildNumbers);
-                    System.out.println("✅ Found " + buildNumbers.size() + " builds: " + buildNumbers);
                 } else {
-                    result.put("success", true);
-                    result.put("buildNumbers", new ArrayList<>());
-                    System.out.println("⚠️ No builds array found in response");
+                    result.put("success", false);
+                    result.put("message", "Failed to get build numbers. Status: " + response.getStatusCode());
+                    System.out.println("❌ Failed to get build numbers. Status: " + response.getStatusCode());
                 }
-            } else {
+            } catch (Throwable e) {
                 result.put("success", false);
-                result.put("message", "Failed to get build numbers. Status: " + response.getStatusCode());
-                System.out.println("❌ Failed to get build numbers. Status: " + response.getStatusCode());
+                result.put("message", "Error getting build numbers: " + e.getMessage());
+                System.out.println("❌ Exception in getAvailableBuildNumbers: " + e.getMessage());
+                e.printStackTrace();
             }
 
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "Error getting build numbers: " + e.getMessage());
-            System.out.println("❌ Exception in getAvailableBuildNumbers: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        return result;
+            return result;
+        });
     }
 
     /**
@@ -625,28 +690,27 @@ public class JenkinsService {
      * Returns success=true with an empty branch list when the job has no such parameter,
      * so callers can treat "no branch field" and "no branches found" the same way.
      */
-    public Map<String, Object> getGitBranches(Project project) {
+    public CompletableFuture<Map<String, Object>> getGitBranchesAsync(Project project) {
         Map<String, Object> result = new HashMap<>();
 
-        try {
-            if (!isJenkinsConfigured(project)) {
-                result.put("success", false);
-                result.put("message", "Jenkins configuration is incomplete");
-                return result;
-            }
+        if (!isJenkinsConfigured(project)) {
+            result.put("success", false);
+            result.put("message", "Jenkins configuration is incomplete");
+            return CompletableFuture.completedFuture(result);
+        }
 
-            String paramName = findGitBranchParameterName(project);
+        return findGitBranchParameterName(project).thenCompose(paramName -> {
             if (paramName == null) {
                 result.put("success", true);
                 result.put("branchParameterName", null);
                 result.put("branches", new ArrayList<String>());
-                return result;
+                return CompletableFuture.completedFuture(result);
             }
 
             String jenkinsUrl = normalizeJenkinsUrl(project.getJenkinsUrl());
-            String fillUrl = jenkinsUrl + "job/" + project.getJenkinsJobName()
-                + "/descriptorByName/net.uaznia.lukanus.hudson.plugins.gitparameter.GitParameterDefinition/fillValueItems?param="
-                + java.net.URLEncoder.encode(paramName, StandardCharsets.UTF_8);
+            String fillUrl = jobUrl(project,
+                "descriptorByName/net.uaznia.lukanus.hudson.plugins.gitparameter.GitParameterDefinition/fillValueItems?param="
+                + UriUtils.encodeQueryParam(paramName, StandardCharsets.UTF_8));
             System.out.println("🔍 Fetching branch choices: " + fillUrl);
 
             // The Git Parameter plugin guards fillValueItems with @POST (it triggers a git
@@ -656,20 +720,19 @@ public class JenkinsService {
             // of the crumb, so send Origin/Referer matching what the job's own build page
             // would send, the same way the browser does.
             HttpHeaders headers = buildAuthHeaders(project);
-            addCrumb(project, headers);
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.set(HttpHeaders.ORIGIN, jenkinsOrigin(jenkinsUrl));
-            headers.set(HttpHeaders.REFERER, jenkinsUrl + "job/" + project.getJenkinsJobName() + "/build?delay=0sec");
-            HttpEntity<String> request = new HttpEntity<>(headers);
-
-            List<String> branches = new ArrayList<>();
-            try {
-                ResponseEntity<String> response = restTemplate.exchange(fillUrl, HttpMethod.POST, request, String.class);
+            return addCrumb(project, headers).thenCompose(crumbAdded -> {
+                headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+                headers.set(HttpHeaders.ORIGIN, jenkinsOrigin(jenkinsUrl));
+                headers.set(HttpHeaders.REFERER, jobUrl(project, "build?delay=0sec"));
+
+                return postWithCrumb(project, fillUrl, headers, null);
+            }).thenApply(response -> {
+                List<String> branches = new ArrayList<>();
                 System.out.println("   Response status: " + response.getStatusCode());
                 System.out.println("   Response body: " + response.getBody());
 
                 if (response.getStatusCode().is2xxSuccessful()) {
-                    JsonNode values = objectMapper.readTree(response.getBody()).get("values");
+                    JsonNode values = readJson(response.getBody()).get("values");
                     if (values != null && values.isArray()) {
                         for (JsonNode v : values) {
                             String value = v.has("value") ? v.get("value").asText() : v.path("name").asText(null);
@@ -679,34 +742,40 @@ public class JenkinsService {
                         }
                     }
                 }
-            } catch (HttpClientErrorException | HttpServerErrorException e) {
-                // RestTemplate throws on non-2xx before we can log the body above, so surface
-                // it here instead; Jenkins usually explains CSRF/permission failures in it.
+                System.out.println("   Parsed " + branches.size() + " branch(es)");
+
+                result.put("success", true);
+                result.put("branchParameterName", paramName);
+                result.put("branches", branches);
+                return result;
+            });
+        }).exceptionally(ex -> {
+            Throwable cause = JenkinsClient.unwrap(ex);
+            if (cause instanceof HttpClientErrorException e) {
+                // Surface the body here; Jenkins usually explains CSRF/permission failures in it.
+                System.out.println("❌ fillValueItems failed. Status: " + e.getStatusCode() + ", body: " + e.getResponseBodyAsString());
+            } else if (cause instanceof HttpServerErrorException e) {
                 System.out.println("❌ fillValueItems failed. Status: " + e.getStatusCode() + ", body: " + e.getResponseBodyAsString());
-                throw e;
             }
-            System.out.println("   Parsed " + branches.size() + " branch(es)");
-
-            result.put("success", true);
-            result.put("branchParameterName", paramName);
-            result.put("branches", branches);
-        } catch (Exception e) {
-            System.out.println("❌ Error getting Git branches: " + e.getMessage());
-            e.printStackTrace();
+            System.out.println("❌ Error getting Git branches: " + cause.getMessage());
+            cause.printStackTrace();
             result.put("success", false);
-            result.put("message", "Error getting Git branches: " + e.getMessage());
-        }
-
-        return result;
+            result.put("message", "Error getting Git branches: " + cause.getMessage());
+            return result;
+        });
     }
 
     /**
      * Find the name of the job's Git Parameter branch field (Git Parameter plugin), by
-     * inspecting the job's parameter definitions for one backed by that plugin. Returns
-     * null if the job isn't configured with one, or if it can't be reached.
+     * inspecting the job's parameter definitions for one backed by that plugin. Completes
+     * with null if the job isn't configured with one, or if it can't be reached.
      */
-    private String findGitBranchParameterName(Project project) {
-        for (JsonNode paramDef : fetchParameterDefinitions(project)) {
+    private CompletableFuture<String> findGitBranchParameterName(Project project) {
+        return fetchParameterDefinitions(project).thenApply(this::findGitBranchParameterName);
+    }
+
+    private String findGitBranchParameterName(List<JsonNode> definitions) {
+        for (JsonNode paramDef : definitions) {
             String klass = paramDef.path("_class").asText("");
             String type = paramDef.path("type").asText("");
             if (classifyParameterType(klass, type) == JenkinsParameterType.GIT_PARAMETER) {
@@ -721,51 +790,53 @@ public class JenkinsService {
      * Boolean, Choice, Password, or otherwise), so callers can render/submit a form that
      * matches whatever a given Jenkins job actually needs instead of a fixed field set.
      */
-    public Map<String, Object> getJobParameters(Project project) {
+    public CompletableFuture<Map<String, Object>> getJobParametersAsync(Project project) {
         Map<String, Object> result = new HashMap<>();
 
         if (!isJenkinsConfigured(project)) {
             result.put("success", false);
             result.put("message", "Jenkins configuration is incomplete");
-            return result;
+            return CompletableFuture.completedFuture(result);
         }
 
-        List<Map<String, Object>> parameters = new ArrayList<>();
-        for (JsonNode paramDef : fetchParameterDefinitions(project)) {
-            String klass = paramDef.path("_class").asText("");
-            String type = paramDef.path("type").asText("");
-            JenkinsParameterType paramType = classifyParameterType(klass, type);
-
-            Map<String, Object> param = new HashMap<>();
-            param.put("name", paramDef.path("name").asText(null));
-            param.put("type", paramType.name());
-            param.put("description", paramDef.hasNonNull("description") ? paramDef.path("description").asText() : null);
-
-            // Jenkins returns an encrypted Secret blob for a password parameter's default,
-            // not a usable plaintext value - never surface it.
-            if (paramType == JenkinsParameterType.PASSWORD) {
-                param.put("defaultValue", null);
-            } else {
-                JsonNode defaultValue = paramDef.path("defaultParameterValue").path("value");
-                param.put("defaultValue", defaultValue.isMissingNode() || defaultValue.isNull() ? null : defaultValue.asText());
-            }
+        return fetchParameterDefinitions(project).thenApply(definitions -> {
+            List<Map<String, Object>> parameters = new ArrayList<>();
+            for (JsonNode paramDef : definitions) {
+                String klass = paramDef.path("_class").asText("");
+                String type = paramDef.path("type").asText("");
+                JenkinsParameterType paramType = classifyParameterType(klass, type);
+
+                Map<String, Object> param = new HashMap<>();
+                param.put("name", paramDef.path("name").asText(null));
+                param.put("type", paramType.name());
+                param.put("description", paramDef.hasNonNull("description") ? paramDef.path("description").asText() : null);
+
+                // Jenkins returns an encrypted Secret blob for a password parameter's default,
+                // not a usable plaintext value - never surface it.
+                if (paramType == JenkinsParameterType.PASSWORD) {
+                    param.put("defaultValue", null);
+                } else {
+                    JsonNode defaultValue = paramDef.path("defaultParameterValue").path("value");
+                    param.put("defaultValue", defaultValue.isMissingNode() || defaultValue.isNull() ? null : defaultValue.asText());
+                }
 
-            if (paramType == JenkinsParameterType.CHOICE && paramDef.path("choices").isArray()) {
-                List<String> choices = new ArrayList<>();
-                for (JsonNode choice : paramDef.path("choices")) {
-                    choices.add(choice.asText());
+                if (paramType == JenkinsParameterType.CHOICE && paramDef.path("choices").isArray()) {
+                    List<String> choices = new ArrayList<>();
+                    for (JsonNode choice : paramDef.path("choices")) {
+                        choices.add(choice.asText());
+                    }
+                    param.put("choices", choices);
+                } else {
+                    param.put("choices", null);
                 }
-                param.put("choices", choices);
-            } else {
-                param.put("choices", null);
-            }
 
-            parameters.add(param);
-        }
+                parameters.add(param);
+            }
 
-        result.put("success", true);
-        result.put("parameters", parameters);
-        return result;
+            result.put("success", true);
+            result.put("parameters", parameters);
+            return result;
+        });
     }
 
     private enum JenkinsParameterType {
@@ -791,66 +862,149 @@ public class JenkinsService {
         return JenkinsParameterType.UNKNOWN;
     }
 
+    /**
+     * Get the job's raw parameter definitions, from the job-metadata cache when a recent
+     * enough copy exists. Concurrent callers share one in-flight request, and entries
+     * expire after PARAMETER_DEFINITIONS_TTL_MS so a job reconfigured directly in Jenkins
+     * is picked up within that bound. An expired copy is revalidated rather than
+     * refetched when Jenkins sent an ETag or Last-Modified with it: a 304 keeps it for
+     * another TTL without a new body to parse. Failed lookups are not cached. Completes
+     * with an empty list if the job can't be reached or has no parameters.
+     */
+    private CompletableFuture<List<JsonNode>> fetchParameterDefinitions(Project project) {
+        String key = jobMetadataKey(project);
+        long now = System.currentTimeMillis();
+        CachedParameterDefinitions cached = parameterDefinitionsCache.compute(key, (k, existing) -> {
+            if (existing != null && now - existing.loadedAt < PARAMETER_DEFINITIONS_TTL_MS) {
+                return existing;
+            }
+            ParameterDefinitions expired = existing != null ? existing.definitions.getNow(null) : null;
+            return new CachedParameterDefinitions(loadParameterDefinitions(project, expired), now);
+        });
+
+        return cached.definitions.thenApply(definitions -> {
+            if (definitions == null) {
+                parameterDefinitionsCache.remove(key, cached);
+                return List.of();
+            }
+            return definitions.definitions();
+        });
+    }
+
+    /**
+     * Drop cached job metadata for the project's Jenkins job, e.g. after its Jenkins
+     * configuration was edited.
+     */
+    public void invalidateJobMetadata(Project project) {
+        if (project.getJenkinsUrl() != null && project.getJenkinsJobName() != null) {
+            parameterDefinitionsCache.remove(jobMetadataKey(project));
+        }
+    }
+
+    private String jobMetadataKey(Project project) {
+        return normalizeJenkinsUrl(project.getJenkinsUrl()) + "|" + project.getJenkinsJobName();
+    }
+
     /**
      * Fetch the job's raw parameter definitions in one call. Freestyle jobs expose
      * ParametersDefinitionProperty under "actions"; Pipeline and multibranch jobs commonly
      * expose it under "property" instead - query both so parameters are found regardless
-     * of job type. Returns an empty list if the job can't be reached or has none.
+     * of job type. Completes with null if the job can't be reached, so the failure
+     * isn't cached, or with an empty list if it has no parameters. With an expired copy
+     * the request is conditional, and the copy is returned if Jenkins answers 304.
      */
-    private List<JsonNode> fetchParameterDefinitions(Project project) {
-        List<JsonNode> definitions = new ArrayList<>();
-        try {
-            String jenkinsUrl = normalizeJenkinsUrl(project.getJenkinsUrl());
-            String url = jenkinsUrl + "job/" + project.getJenkinsJobName()
-                + "/api/json?tree=actions[parameterDefinitions[name,type,_class,description,defaultParameterValue[value],choices]],"
-                + "property[parameterDefinitions[name,type,_class,description,defaultParameterValue[value],choices]]";
-            System.out.println("🔍 Looking up Jenkins job parameters: " + url);
-            HttpEntity<String> request = new HttpEntity<>(buildAuthHeaders(project));
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, request, String.class);
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                System.out.println("⚠️ Failed to fetch job parameters. Status: " + response.getStatusCode());
-                return definitions;
-            }
+    private CompletableFuture<ParameterDefinitions> loadParameterDefinitions(Project project, ParameterDefinitions expired) {
+        String url = jobUrl(project, "api/json?"
+            + treeQuery("actions[parameterDefinitions[name,type,_class,description,defaultParameterValue[value],choices]],"
+                + "property[parameterDefinitions[name,type,_class,description,defaultParameterValue[value],choices]]"));
+        System.out.println("🔍 Looking up Jenkins job parameters: " + url);
+
+        HttpHeaders headers = buildAuthHeaders(project);
+        if (expired != null && expired.etag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, expired.etag());
+        }
+        if (expired != null && expired.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, expired.lastModified());
+        }
 
-            // Jenkins can expose the same ParametersDefinitionProperty under both "actions"
-            // and "property" for the same job (observed on Freestyle jobs), so dedupe by
-            // parameter name rather than assuming each key contributes distinct parameters.
-            JsonNode jobInfo = objectMapper.readTree(response.getBody());
-            Set<String> seenNames = new HashSet<>();
-            for (String key : new String[] {"actions", "property"}) {
-                JsonNode entries = jobInfo.get(key);
-                if (entries == null) {
-                    continue;
+        return jenkinsClient.get(url, headers).handle((response, ex) -> {
+            List<JsonNode> definitions = new ArrayList<>();
+            if (ex != null) {
+                System.out.println("⚠️ Could not discover job parameters: " + JenkinsClient.unwrap(ex).getMessage());
+                return null;
+            }
+            if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && expired != null) {
+                System.out.println("   Job parameters unchanged (304), keeping cached definitions");
+                return expired;
+            }
+            try {
+                if (!response.getStatusCode().is2xxSuccessful()) {
+                    System.out.println("⚠️ Failed to fetch job parameters. Status: " + response.getStatusCode());
+                    return null;
                 }
-                for (JsonNode entry : entries) {
-                    JsonNode paramDefs = entry.get("parameterDefinitions");
-                    if (paramDefs == null) {
+
+                // Jenkins can expose the same ParametersDefinitionProperty under both "actions"
+                // and "property" for the same job (observed on Freestyle jobs), so dedupe by
+                // parameter name rather than assuming each key contributes distinct parameters.
+                JsonNode jobInfo = readJson(response.getBody());
+                Set<String> seenNames = new HashSet<>();
+                for (String key : new String[] {"actions", "property"}) {
+                    JsonNode entries = jobInfo.get(key);
+                    if (entries == null) {
                         continue;
                     }
-                    for (JsonNode paramDef : paramDefs) {
-                        String name = paramDef.path("name").asText("");
-                        if (!seenNames.add(name)) {
+                    for (JsonNode entry : entries) {
+                        JsonNode paramDefs = entry.get("parameterDefinitions");
+                        if (paramDefs == null) {
                             continue;
                         }
-                        System.out.println("   Found parameter: " + name
-                            + " (_class=" + paramDef.path("_class").asText("") + ", type=" + paramDef.path("type").asText("") + ")");
-                        definitions.add(paramDef);
+                        for (JsonNode paramDef : paramDefs) {
+                            String name = paramDef.path("name").asText("");
+                            if (!seenNames.add(name)) {
+                                continue;
+                            }
+                            System.out.println("   Found parameter: " + name
+                                + " (_class=" + paramDef.path("_class").asText("") + ", type=" + paramDef.path("type").asText("") + ")");
+                            definitions.add(paramDef);
+                        }
                     }
                 }
+                if (definitions.isEmpty()) {
+                    System.out.println("⚠️ No parameters found on job: " + project.getJenkinsJobName());
+                }
+            } catch (Exception e) {
+                System.out.println("⚠️ Could not discover job parameters: " + e.getMessage());
+                return null;
             }
-            if (definitions.isEmpty()) {
-                System.out.println("⚠️ No parameters found on job: " + project.getJenkinsJobName());
-            }
-        } catch (Exception e) {
-            System.out.println("⚠️ Could not discover job parameters: " + e.getMessage());
-        }
-        return definitions;
+            return new ParameterDefinitions(List.copyOf(definitions), response.getHeaders().getETag(),
+                response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+        });
     }
 
     private String normalizeJenkinsUrl(String jenkinsUrl) {
         return jenkinsUrl.endsWith("/") ? jenkinsUrl : jenkinsUrl + "/";
     }
 
+    /**
+     * URL of path (e.g. "lastBuild/api/json?...") below the project's Jenkins job. Every
+     * job URL is built here so the job name is percent-encoded in one place: the HTTP
+     * clients parse URLs strictly and reject names with spaces or other reserved
+     * characters. A folder path ("folder/job/name") keeps its slashes. Query parameters
+     * in path must already be encoded (see treeQuery).
+     */
+    private String jobUrl(Project project, String path) {
+        return normalizeJenkinsUrl(project.getJenkinsUrl()) + "job/"
+            + UriUtils.encodePath(project.getJenkinsJobName(), StandardCharsets.UTF_8) + "/" + path;
+    }
+
+    /**
+     * "tree=" query parameter for a tree expression, percent-encoded: the HTTP client
+     * parses URLs strictly and rejects the raw brackets and {0,N} range braces.
+     */
+    static String treeQuery(String expression) {
+        return "tree=" + UriUtils.encodeQueryParam(expression, StandardCharsets.UTF_8);
+    }
+
     /**
      * Derive the Origin header value (scheme://host[:port], no path) from a normalized
      * Jenkins base URL, for requests that need to look like they came from the Jenkins UI.
@@ -866,50 +1020,117 @@ public class JenkinsService {
 
     private HttpHeaders buildAuthHeaders(Project project) {
         HttpHeaders headers = new HttpHeaders();
-        String auth = project.getJenkinsUsername() + ":" + project.getJenkinsToken();
-        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-        headers.set("Authorization", "Basic " + encodedAuth);
+        headers.set("Authorization", jenkinsServerRegistry.server(project).getAuthorization());
         return headers;
     }
 
+    private JsonNode readJson(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
-     * Fetch a CSRF crumb from Jenkins and add it to the given headers, needed for
-     * POST requests when CSRF protection is enabled. Some Jenkins instances validate
-     * the crumb against the session it was issued under (not just the Basic Auth
-     * identity), so the crumb-issuing response's session cookie is captured and
-     * forwarded too - otherwise a session-tied crumb check fails with "No valid
-     * crumb was included in the request" even though the crumb value itself is
-     * correct. Returns false (headers left unchanged) if the crumb can't be obtained.
+     * A CSRF crumb together with the session cookie it was issued under.
      */
-    private boolean addCrumb(Project project, HttpHeaders headers) {
-        try {
-            String jenkinsUrl = normalizeJenkinsUrl(project.getJenkinsUrl());
-            String crumbUrl = jenkinsUrl + "crumbIssuer/api/json";
-            HttpEntity<String> crumbRequest = new HttpEntity<>(buildAuthHeaders(project));
-            ResponseEntity<String> crumbResponse = restTemplate.exchange(crumbUrl, HttpMethod.GET, crumbRequest, String.class);
-            if (crumbResponse.getStatusCode().is2xxSuccessful()) {
-                JsonNode crumbJson = objectMapper.readTree(crumbResponse.getBody());
-                headers.set(crumbJson.get("crumbRequestField").asText(), crumbJson.get("crumb").asText());
-
-                List<String> setCookies = crumbResponse.getHeaders().get(HttpHeaders.SET_COOKIE);
-                if (setCookies != null && !setCookies.isEmpty()) {
-                    String cookieHeader = setCookies.stream()
-                        .map(setCookie -> setCookie.split(";", 2)[0])
-                        .collect(Collectors.joining("; "));
-                    headers.set(HttpHeaders.COOKIE, cookieHeader);
-                }
-                return true;
-            }
-        } catch (Exception e) {
-            System.out.println("⚠️ Could not fetch Jenkins crumb: " + e.getMessage());
+    static final class JenkinsCrumb {
+        final String requestField;
+        final String value;
+        final String cookie;
+
+        JenkinsCrumb(String requestField, String value, String cookie) {
+            this.requestField = requestField;
+            this.value = value;
+            this.cookie = cookie;
         }
-        return false;
+    }
+
+    /**
+     * Add a CSRF crumb to the given headers, needed for POST requests when CSRF
+     * protection is enabled. Some Jenkins instances validate the crumb against the
+     * session it was issued under (not just the Basic Auth identity), so the session
+     * cookie captured with the crumb is forwarded too - otherwise a session-tied crumb
+     * check fails with "No valid crumb was included in the request" even though the
+     * crumb value itself is correct. Crumbs are cached per Jenkins server (see
+     * JenkinsServerRegistry) and reused until Jenkins rejects one (see {@link #postWithCrumb}). Completes with
+     * false (headers left unchanged) if the crumb can't be obtained.
+     */
+    private CompletableFuture<Boolean> addCrumb(Project project, HttpHeaders headers) {
+        return getCrumb(project).handle((crumb, ex) -> {
+            if (ex != null) {
+                System.out.println("⚠️ Could not fetch Jenkins crumb: " + JenkinsClient.unwrap(ex).getMessage());
+                return false;
+            }
+            headers.set(crumb.requestField, crumb.value);
+            if (crumb.cookie != null) {
+                headers.set(HttpHeaders.COOKIE, crumb.cookie);
+            }
+            return true;
+        });
+    }
+
+    private CompletableFuture<JenkinsCrumb> getCrumb(Project project) {
+        JenkinsServerRegistry.ServerState server = jenkinsServerRegistry.server(project);
+        CompletableFuture<JenkinsCrumb> crumb = server.crumb(() -> fetchCrumb(project));
+        // Don't keep failures around; the next POST should try again
+        crumb.whenComplete((value, ex) -> {
+            if (ex != null) {
+                server.discardCrumb(crumb);
+            }
+        });
+        return crumb;
+    }
+
+    private CompletableFuture<JenkinsCrumb> fetchCrumb(Project project) {
+        String jenkinsUrl = normalizeJenkinsUrl(project.getJenkinsUrl());
+        String crumbUrl = jenkinsUrl + "crumbIssuer/api/json";
+        System.out.println("🔑 Fetching Jenkins crumb: " + crumbUrl);
+        return jenkinsClient.get(crumbUrl, buildAuthHeaders(project)).thenApply(crumbResponse -> {
+            JsonNode crumbJson = readJson(crumbResponse.getBody());
+
+            String cookieHeader = null;
+            List<String> setCookies = crumbResponse.getHeaders().get(HttpHeaders.SET_COOKIE);
+            if (setCookies != null && !setCookies.isEmpty()) {
+                cookieHeader = setCookies.stream()
+                    .map(setCookie -> setCookie.split(";", 2)[0])
+                    .collect(Collectors.joining("; "));
+            }
+            return new JenkinsCrumb(crumbJson.get("crumbRequestField").asText(), crumbJson.get("crumb").asText(), cookieHeader);
+        });
+    }
+
+    /**
+     * POST with the crumb already added to the headers by {@link #addCrumb}. If Jenkins
+     * answers 403 (crumb expired, or its session was dropped) the server's cached crumb
+     * is discarded if it is the one sent, and the request is retried once with the
+     * current (or a freshly issued) one.
+     */
+    private CompletableFuture<ResponseEntity<String>> postWithCrumb(Project project, String url, HttpHeaders headers,
+            MultiValueMap<String, String> form) {
+        return jenkinsClient.post(url, headers, form).exceptionallyCompose(ex -> {
+            Throwable cause = JenkinsClient.unwrap(ex);
+            if (!(cause instanceof HttpClientErrorException e) || e.getStatusCode().value() != 403) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            System.out.println("🔑 Jenkins rejected the cached crumb (403), fetching a new one and retrying");
+            // Only if it is still the crumb this request sent - another request may have
+            // replaced it already
+            jenkinsServerRegistry.server(project).discardCrumbIf(crumb -> crumb.value.equals(headers.getFirst(crumb.requestField)));
+            return addCrumb(project, headers).thenCompose(crumbAdded -> {
+                if (!crumbAdded) {
+                    return CompletableFuture.failedFuture(cause);
+                }
+                return jenkinsClient.post(url, headers, form);
+            });
+        });
     }
 
     /**
      * Check if Jenkins is properly configured for a project
      */
-    private boolean isJenkinsConfigured(Project project) {
+    public boolean isJenkinsConfigured(Project project) {
         return project.getJenkinsUrl() != null && !project.getJenkinsUrl().trim().isEmpty() &&
                project.getJenkinsJobName() != null && !project.getJenkinsJobName().trim().isEmpty() &&
                project.getJenkinsUsername() != null && !project.getJenkinsUsername().trim().isEmpty() &&
@@ -0,0 +1,162 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.DeploymentHistory;
+import com.cibofdevs.envpilot.model.Project;
+import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ingests Jenkins build notifications (Notification plugin format: name, build.number,
+ * build.phase, build.status). The webhook request only validates and enqueues the event,
+ * deduplicated on (job, build number, phase) so redeliveries are acknowledged without
+ * running again; a small worker pool then queues the affected deployments for an
+ * immediate check on the reconciliation loop.
+ */
+@Service
+public class JenkinsWebhookService {
+
+    private static final int WORKER_THREADS = 4;
+    private static final int QUEUE_CAPACITY = 1000;
+    // How long a delivered (job, build, phase) is remembered for deduplication
+    private static final long DEDUPE_WINDOW_MS = 60 * 60 * 1000;
+
+    @Autowired
+    private JenkinsServerRegistry jenkinsServerRegistry;
+
+    @Autowired
+    private DeploymentHistoryRepository deploymentHistoryRepository;
+
+    @Autowired
+    private DeploymentReconciliationService deploymentReconciliationService;
+
+    @Autowired
+    private JenkinsBuildMonitorService jenkinsBuildMonitorService;
+
+    private final Map<String, Long> deliveredEvents = new ConcurrentHashMap<>();
+    private final AtomicLong acceptedEvents = new AtomicLong();
+    private final AtomicLong duplicateEvents = new AtomicLong();
+    private final AtomicLong rejectedEvents = new AtomicLong();
+
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final ThreadPoolExecutor webhookExecutor = new ThreadPoolExecutor(WORKER_THREADS, WORKER_THREADS,
+        0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "jenkins-webhook-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    public enum Outcome {
+        ACCEPTED, DUPLICATE, INVALID, REJECTED
+    }
+
+    /**
+     * Validate and enqueue a notification. Returns a result map with success, message
+     * and outcome (ACCEPTED, DUPLICATE, INVALID or REJECTED when the queue is full).
+     */
+    public Map<String, Object> accept(Map<String, Object> payload) {
+        Map<String, Object> result = new HashMap<>();
+        String jobName = payload.get("name") instanceof String name ? name.trim() : null;
+        Map<?, ?> build = payload.get("build") instanceof Map<?, ?> map ? map : null;
+        Integer buildNumber = build != null && build.get("number") instanceof Number number ? number.intValue() : null;
+        if (jobName == null || jobName.isEmpty() || buildNumber == null) {
+            result.put("success", false);
+            result.put("outcome", Outcome.INVALID.name());
+            result.put("message", "Webhook payload must contain name and build.number");
+            return result;
+        }
+        // Older notification formats only send the final status
+        String phase = build.get("phase") instanceof String value ? value.toUpperCase()
+            : (build.get("status") != null ? "COMPLETED" : "UNKNOWN");
+        String status = build.get("status") instanceof String value ? value : null;
+
+        String eventKey = jobName + "#" + buildNumber + "#" + phase;
+        long now = System.currentTimeMillis();
+        if (deliveredEvents.putIfAbsent(eventKey, now) != null) {
+            duplicateEvents.incrementAndGet();
+            result.put("success", true);
+            result.put("outcome", Outcome.DUPLICATE.name());
+            result.put("message", "Notification already received");
+            return result;
+        }
+
+        try {
+            webhookExecutor.execute(() -> process(jobName, buildNumber, phase, status));
+        } catch (RejectedExecutionException e) {
+            // Let Jenkins deliver it again later
+            deliveredEvents.remove(eventKey);
+            rejectedEvents.incrementAndGet();
+            result.put("success", false);
+            result.put("outcome", Outcome.REJECTED.name());
+            result.put("message", "Webhook queue is full, retry later");
+            return result;
+        }
+
+        acceptedEvents.incrementAndGet();
+        if (acceptedEvents.get() % 100 == 0) {
+            deliveredEvents.values().removeIf(deliveredAt -> now - deliveredAt > DEDUPE_WINDOW_MS);
+        }
+        result.put("success", true);
+        result.put("outcome", Outcome.ACCEPTED.name());
+        result.put("message", "Notification queued");
+        return result;
+    }
+
+    private void process(String jobName, int buildNumber, String phase, String status) {
+        try {
+            System.out.println("🔔 Processing Jenkins notification: " + jobName + " #" + buildNumber + " " + phase
+                + (status != null ? " (" + status + ")" : ""));
+            jenkinsBuildMonitorService.onBuildNotification(jobName, buildNumber, phase);
+
+            if ("QUEUED".equals(phase)) {
+                return;
+            }
+            Optional<Project> projectOpt = jenkinsServerRegistry.findProjectByJobName(jobName);
+            if (projectOpt.isEmpty()) {
+                System.out.println("⚠️ Project not found for job: " + jobName);
+                return;
+            }
+            List<DeploymentHistory> deployments = deploymentHistoryRepository.findByProjectAndJenkinsBuildNumber(projectOpt.get(), buildNumber);
+            if (deployments.isEmpty()) {
+                System.out.println("⚠️ No active deployment found for build #" + buildNumber);
+                return;
+            }
+            for (DeploymentHistory deployment : deployments) {
+                if (deployment.getStatus() == DeploymentHistory.Status.PENDING
+                        || deployment.getStatus() == DeploymentHistory.Status.IN_PROGRESS) {
+                    deploymentReconciliationService.scheduleNow(deployment.getId(), DeploymentReconciliationService.Source.WEBHOOK);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Error processing Jenkins notification for " + jobName + " #" + buildNumber + ": " + e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("acceptedEvents", acceptedEvents.get());
+        stats.put("duplicateEvents", duplicateEvents.get());
+        stats.put("rejectedEvents", rejectedEvents.get());
+        stats.put("queuedEvents", webhookExecutor.getQueue().size());
+        stats.put("activeWorkers", webhookExecutor.getActiveCount());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        webhookExecutor.shutdown();
+    }
+}
@@ -0,0 +1,180 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.model.MonitoredDeployment;
+import com.cibofdevs.envpilot.repository.MonitorNodeRepository;
+import com.cibofdevs.envpilot.repository.MonitoredDeploymentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Splits deployment monitoring across EnvPilot nodes sharing one database. Every node
+ * heartbeats into monitor_nodes; each monitored_deployments row is leased to one node,
+ * which renews its leases with every heartbeat. Rows whose lease ran out (their node
+ * died) or that a node gave up are claimed with SELECT ... FOR UPDATE SKIP LOCKED, so
+ * nodes claiming at the same time never take the same row. Each node aims for an equal
+ * share of the rows, so adding a node splits the polling work. The live node with the
+ * lowest id is the leader and runs the cluster-wide deployment syncs.
+ */
+@Service
+public class MonitorLeaseService {
+
+    public static final int LEASE_SECONDS = 30;
+    // A node whose heartbeat is older than this no longer counts towards the shares
+    private static final int NODE_TIMEOUT_SECONDS = 30;
+    // Dead nodes' rows are removed after this long
+    private static final int DEAD_NODE_RETENTION_SECONDS = 24 * 60 * 60;
+
+    @Autowired
+    private MonitorNodeRepository monitorNodeRepository;
+
+    @Autowired
+    private MonitoredDeploymentRepository monitoredDeploymentRepository;
+
+    @Value("${envpilot.monitoring.node-id:}")
+    private String configuredNodeId;
+
+    private volatile String nodeId;
+    private volatile List<String> liveNodeIds = List.of();
+    private volatile LocalDateTime lastHeartbeatAt;
+
+    public String getNodeId() {
+        if (nodeId == null) {
+            synchronized (this) {
+                if (nodeId == null) {
+                    nodeId = configuredNodeId != null && !configuredNodeId.isBlank()
+                        ? configuredNodeId.trim()
+                        : hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+                }
+            }
+        }
+        return nodeId;
+    }
+
+    /**
+     * Record this node as alive, renew its leases and refresh the list of live nodes.
+     * Returns the ids of the deployments this node still holds.
+     */
+    public List<Long> heartbeat() {
+        String self = getNodeId();
+        monitorNodeRepository.heartbeat(self);
+        monitoredDeploymentRepository.renewLeases(self, LEASE_SECONDS);
+        List<String> live = monitorNodeRepository.findLiveNodeIds(NODE_TIMEOUT_SECONDS);
+        liveNodeIds = live.contains(self) ? live : withSelf(live, self);
+        lastHeartbeatAt = LocalDateTime.now();
+        monitorNodeRepository.deleteDeadNodes(DEAD_NODE_RETENTION_SECONDS);
+        return monitoredDeploymentRepository.findDeploymentIdsByOwnerNode(self);
+    }
+
+    /**
+     * How many monitored deployments this node should hold: an equal share of all of them
+     * across the live nodes, rounded up.
+     */
+    public int fairShare() {
+        long total = monitoredDeploymentRepository.count();
+        int nodes = Math.max(1, liveNodeIds.size());
+        return (int) ((total + nodes - 1) / nodes);
+    }
+
+    /**
+     * Claim up to limit unowned or expired deployments for this node.
+     */
+    @Transactional
+    public List<MonitoredDeployment> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        List<MonitoredDeployment> claimable = monitoredDeploymentRepository.lockClaimable(limit);
+        if (claimable.isEmpty()) {
+            return claimable;
+        }
+        List<Long> ids = claimable.stream().map(MonitoredDeployment::getDeploymentId).toList();
+        monitoredDeploymentRepository.claim(ids, getNodeId(), LEASE_SECONDS);
+        return claimable;
+    }
+
+    /**
+     * Give deployments back so another node can claim them.
+     */
+    public void release(Collection<Long> deploymentIds) {
+        if (!deploymentIds.isEmpty()) {
+            monitoredDeploymentRepository.release(deploymentIds, getNodeId());
+        }
+    }
+
+    /**
+     * Register a deployment as monitored by this node.
+     */
+    public void register(Long deploymentId, String projectName, String jenkinsJob, String jenkinsUrl,
+                         Integer expectedBuildNumber, LocalDateTime startedAt, LocalDateTime nextCheckAt) {
+        monitoredDeploymentRepository.register(deploymentId, projectName, jenkinsJob, jenkinsUrl, expectedBuildNumber,
+            startedAt, nextCheckAt, getNodeId(), LEASE_SECONDS);
+    }
+
+    /**
+     * Whether this node runs the cluster-wide deployment syncs. A node that has not
+     * heartbeated yet (or lost the database) is not the leader.
+     */
+    public boolean isLeader() {
+        List<String> live = liveNodeIds;
+        return lastHeartbeatAt != null
+            && lastHeartbeatAt.isAfter(LocalDateTime.now().minusSeconds(NODE_TIMEOUT_SECONDS))
+            && !live.isEmpty() && live.get(0).equals(getNodeId());
+    }
+
+    /**
+     * Deployments currently leased to other live nodes; this node leaves them alone.
+     */
+    public List<Long> getDeploymentIdsLeasedElsewhere() {
+        return monitoredDeploymentRepository.findDeploymentIdsLeasedByOtherNodes(getNodeId());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodeId", getNodeId());
+        stats.put("liveNodes", liveNodeIds);
+        stats.put("leader", isLeader());
+        stats.put("lastHeartbeatAt", lastHeartbeatAt);
+        return stats;
+    }
+
+    /**
+     * Hand this node's deployments over right away instead of after the lease runs out.
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            int released = monitoredDeploymentRepository.releaseAll(getNodeId());
+            monitorNodeRepository.deleteById(getNodeId());
+            System.out.println("🔍 Released " + released + " monitored deployment(s) on shutdown");
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to release monitored deployments on shutdown: " + e.getMessage());
+        }
+    }
+
+    private static List<String> withSelf(List<String> live, String self) {
+        List<String> nodes = new ArrayList<>(live);
+        nodes.add(self);
+        nodes.sort(null);
+        return nodes;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "envpilot";
+        }
+    }
+}
@@ -18,6 +18,9 @@ public class ProjectService {
     @Autowired
     private ProjectAssignmentRepository projectAssignmentRepository;
 
+    @Autowired
+    private JenkinsServerRegistry jenkinsServerRegistry;
+
     public List<Project> getAllProjects() {
         return projectRepository.findAll();
     }
@@ -31,15 +34,27 @@ public class ProjectService {
     }
 
     public Project createProject(Project project) {
-        return projectRepository.save(project);
+        return save(project);
     }
 
     public Project updateProject(Project project) {
-        return projectRepository.save(project);
+        return save(project);
     }
 
     public void deleteProject(Long id) {
         projectRepository.deleteById(id);
+        jenkinsServerRegistry.onProjectDeleted(id);
+    }
+
+    /**
+     * Save with the project linked to the server its Jenkins configuration points at,
+     * and keep the registry's job index in step.
+     */
+    private Project save(Project project) {
+        project.setJenkinsServer(jenkinsServerRegistry.resolveServer(project));
+        Project saved = projectRepository.save(project);
+        jenkinsServerRegistry.onProjectSaved(saved);
+        return saved;
     }
 
     public boolean existsById(Long id) {
@@ -15,6 +15,9 @@ public class RealTimeNotificationService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private BuildDurationService buildDurationService;
+
     /**
      * Send real-time deployment status update
      */
@@ -28,6 +31,10 @@ public class RealTimeNotificationService {
         notification.put("version", deployment.getVersion());
         notification.put("triggeredBy", deployment.getTriggeredBy().getName());
         notification.put("timestamp", deployment.getCompletedAt() != null ? deployment.getCompletedAt() : deployment.getCreatedAt());
+        if (deployment.getStatus() == DeploymentHistory.Status.PENDING || deployment.getStatus() == DeploymentHistory.Status.IN_PROGRESS) {
+            // p50/p90 of how long this project's deployments take (see BuildDurationService)
+            notification.put("eta", buildDurationService.getEta(deployment));
+        }
 
         // Send to all users
         messagingTemplate.convertAndSend("/topic/deployments", notification);
@@ -42,6 +49,22 @@ public class RealTimeNotificationService {
         System.out.println("🔔 Real-time notification sent for deployment: " + deployment.getId());
     }
 
+    /**
+     * Send the predicted end of a running deployment: the history-based p50/p90 ETA and
+     * the monitor's current prediction (which also weighs in Jenkins' estimate)
+     */
+    public void sendDeploymentEtaUpdate(Long deploymentId, String projectName, Map<String, Object> eta, long predictedEndAt) {
+        Map<String, Object> notification = new HashMap<>();
+        notification.put("type", "deployment_eta_update");
+        notification.put("deploymentId", deploymentId);
+        notification.put("projectName", projectName);
+        notification.put("eta", eta);
+        notification.put("predictedEndAt", predictedEndAt);
+        notification.put("timestamp", System.currentTimeMillis());
+
+        messagingTemplate.convertAndSend("/topic/deployments", notification);
+    }
+
     /**
      * Send real-time email notification status
      */
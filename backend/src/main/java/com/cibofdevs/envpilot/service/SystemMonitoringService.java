@@ -2,8 +2,6 @@ package com.cibofdevs.envpilot.service;
 
 import com.cibofdevs.envpilot.model.DeploymentHistory;
 import com.cibofdevs.envpilot.repository.DeploymentHistoryRepository;
-import com.cibofdevs.envpilot.repository.ProjectRepository;
-import com.cibofdevs.envpilot.model.Project;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
@@ -26,10 +24,7 @@ public class SystemMonitoringService {
     private DeploymentHistoryRepository deploymentHistoryRepository;
 
     @Autowired
-    private ProjectRepository projectRepository;
-
-    @Autowired
-    private JenkinsService jenkinsService;
+    private JenkinsHealthProber jenkinsHealthProber;
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
@@ -51,7 +46,7 @@ public class SystemMonitoringService {
         Map<String, Object> appHealth = getApplicationHealth();
         systemHealth.put("application", appHealth);
 
-        // Jenkins health (check all configured projects)
+        // Jenkins health (last background probe of every Jenkins server and job)
         Map<String, Object> jenkinsHealth = getJenkinsHealth();
         systemHealth.put("jenkins", jenkinsHealth);
 
@@ -203,117 +198,9 @@ public class SystemMonitoringService {
         return appHealth;
     }
 
-    // Live-pinging Jenkins is only done for informational monitoring widgets, so a
-    // short cache is fine and keeps repeated analytics/dashboard loads fast instead
-    // of re-testing every configured project's Jenkins connection on every request.
-    private static final long JENKINS_STATUS_CACHE_TTL_MS = 30_000;
-    private volatile long jenkinsStatusCacheTimestamp = 0;
-    private volatile Map<String, Object> cachedJenkinsHealth;
-    private volatile List<Map<String, Object>> cachedJenkinsIssues;
-
-    /**
-     * Tests Jenkins connectivity for every configured project exactly once, and
-     * derives both the health summary and the issues list from that single pass
-     * (previously getJenkinsHealth()/getJenkinsIssues() each re-tested every
-     * project independently, doubling the number of live Jenkins calls).
-     */
-    private synchronized void refreshJenkinsStatusIfStale() {
-        if (cachedJenkinsHealth != null &&
-                System.currentTimeMillis() - jenkinsStatusCacheTimestamp < JENKINS_STATUS_CACHE_TTL_MS) {
-            return;
-        }
-
-        Map<String, Object> health = new HashMap<>();
-        List<Map<String, Object>> issues = new ArrayList<>();
-
-        try {
-            List<Project> configuredProjects = projectRepository.findAll().stream()
-                .filter(project -> isJenkinsConfigured(project))
-                .collect(Collectors.toList());
-
-            if (configuredProjects.isEmpty()) {
-                health.put("status", "not_configured");
-                health.put("uptime", 0.0);
-                health.put("responseTime", -1);
-                health.put("lastCheck", LocalDateTime.now().toString());
-            } else {
-                int successfulConnections = 0;
-                long totalResponseTime = 0;
-                List<String> errors = new ArrayList<>();
-
-                for (Project project : configuredProjects) {
-                    String errorMessage = null;
-                    try {
-                        long startTime = System.currentTimeMillis();
-                        Map<String, Object> testResult = jenkinsService.testJenkinsConnectionQuick(project);
-                        long endTime = System.currentTimeMillis();
-
-                        if (Boolean.TRUE.equals(testResult.get("success"))) {
-                            successfulConnections++;
-                            totalResponseTime += (endTime - startTime);
-                        } else {
-                            errorMessage = String.valueOf(testResult.get("message"));
-                        }
-                    } catch (Exception e) {
-                        errorMessage = e.getMessage();
-                    }
-
-                    if (errorMessage != null) {
-                        errors.add(project.getName() + ": " + errorMessage);
-
-                        Map<String, Object> issue = new HashMap<>();
-                        issue.put("title", "Jenkins connection failed for " + project.getName());
-                        issue.put("component", "Jenkins");
-                        issue.put("environment", "All");
-                        issue.put("severity", "warning");
-                        issue.put("timestamp", LocalDateTime.now().toString());
-                        issue.put("description", "Failed to connect to Jenkins for project: " + project.getName());
-                        Map<String, String> metrics = new HashMap<>();
-                        metrics.put("project", project.getName());
-                        metrics.put("error", errorMessage);
-                        issue.put("metrics", metrics);
-                        issues.add(issue);
-                    }
-                }
-
-                double successRate = (successfulConnections / (double) configuredProjects.size()) * 100;
-                double avgResponseTime = successfulConnections > 0 ? totalResponseTime / (double) successfulConnections : -1;
-
-                health.put("status", successRate > 50 ? "healthy" : "degraded");
-                health.put("uptime", Math.round(successRate * 100.0) / 100.0);
-                health.put("responseTime", avgResponseTime);
-                health.put("lastCheck", LocalDateTime.now().toString());
-                health.put("configuredProjects", configuredProjects.size());
-                health.put("successfulConnections", successfulConnections);
-                if (!errors.isEmpty()) {
-                    health.put("errors", errors);
-                }
-            }
-        } catch (Exception e) {
-            health.put("status", "error");
-            health.put("error", e.getMessage());
-            health.put("uptime", 0.0);
-            health.put("responseTime", -1);
-            health.put("lastCheck", LocalDateTime.now().toString());
-
-            Map<String, Object> issue = new HashMap<>();
-            issue.put("title", "Error checking Jenkins health");
-            issue.put("component", "Jenkins Monitor");
-            issue.put("environment", "System");
-            issue.put("severity", "error");
-            issue.put("timestamp", LocalDateTime.now().toString());
-            issue.put("description", "Failed to check Jenkins health: " + e.getMessage());
-            issues.add(issue);
-        }
-
-        cachedJenkinsHealth = health;
-        cachedJenkinsIssues = issues;
-        jenkinsStatusCacheTimestamp = System.currentTimeMillis();
-    }
-
+    // Read from the background prober's last snapshot, never by testing Jenkins here
     private Map<String, Object> getJenkinsHealth() {
-        refreshJenkinsStatusIfStale();
-        return cachedJenkinsHealth;
+        return jenkinsHealthProber.getSnapshot().health();
     }
 
     private Map<String, Object> getCpuUsage() {
@@ -550,8 +437,7 @@ public class SystemMonitoringService {
     }
 
     private List<Map<String, Object>> getJenkinsIssues() {
-        refreshJenkinsStatusIfStale();
-        return cachedJenkinsIssues;
+        return jenkinsHealthProber.getSnapshot().issues();
     }
 
     private List<Map<String, Object>> getPerformanceIssues() {
@@ -641,13 +527,6 @@ public class SystemMonitoringService {
         return issues;
     }
 
-    private boolean isJenkinsConfigured(Project project) {
-        return project.getJenkinsUrl() != null && !project.getJenkinsUrl().trim().isEmpty() &&
-               project.getJenkinsJobName() != null && !project.getJenkinsJobName().trim().isEmpty() &&
-               project.getJenkinsUsername() != null && !project.getJenkinsUsername().trim().isEmpty() &&
-               project.getJenkinsToken() != null && !project.getJenkinsToken().trim().isEmpty();
-    }
-
     private String formatBytes(long bytes) {
         if (bytes < 1024) return bytes + " B";
         int exp = (int) (Math.log(bytes) / Math.log(1024));
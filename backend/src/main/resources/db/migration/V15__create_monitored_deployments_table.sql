@@ -0,0 +1,16 @@
+-- Deployments whose Jenkins build is being monitored, so monitoring survives restarts
+CREATE TABLE monitored_deployments (
+    deployment_id BIGINT PRIMARY KEY,
+    project_name VARCHAR(255),
+    jenkins_job VARCHAR(255) NOT NULL,
+    jenkins_url VARCHAR(500),
+    expected_build_number INTEGER,
+    started_at TIMESTAMP NOT NULL,
+    next_check_at TIMESTAMP NOT NULL,
+    attempt_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (deployment_id) REFERENCES deployment_history(id) ON DELETE CASCADE
+);
+
+-- Create index for due-check lookups
+CREATE INDEX idx_monitored_deployments_next_check ON monitored_deployments(next_check_at);
@@ -0,0 +1,14 @@
+-- Nodes (EnvPilot instances) taking part in deployment monitoring
+CREATE TABLE monitor_nodes (
+    node_id VARCHAR(255) PRIMARY KEY,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Which node monitors a deployment, until when
+ALTER TABLE monitored_deployments
+ADD COLUMN owner_node VARCHAR(255),
+ADD COLUMN lease_expires_at TIMESTAMP;
+
+-- Create index for lease lookups
+CREATE INDEX idx_monitored_deployments_owner ON monitored_deployments(owner_node, lease_expires_at);
@@ -0,0 +1,32 @@
+-- Jenkins controllers (URL + credential) shared by the projects that deploy through them
+CREATE TABLE jenkins_servers (
+    id BIGSERIAL PRIMARY KEY,
+    url VARCHAR(500) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    token VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    UNIQUE (url, username, token)
+);
+
+ALTER TABLE projects
+ADD COLUMN jenkins_server_id BIGINT REFERENCES jenkins_servers(id);
+
+-- One server per distinct configuration of the existing projects (URLs normalized to a
+-- trailing slash, as JenkinsServerRegistry does)
+INSERT INTO jenkins_servers (url, username, token)
+SELECT DISTINCT
+    CASE WHEN jenkins_url LIKE '%/' THEN jenkins_url ELSE jenkins_url || '/' END,
+    jenkins_username,
+    jenkins_token
+FROM projects
+WHERE jenkins_url <> '' AND jenkins_username <> '' AND jenkins_token <> '';
+
+UPDATE projects p
+SET jenkins_server_id = s.id
+FROM jenkins_servers s
+WHERE s.url = CASE WHEN p.jenkins_url LIKE '%/' THEN p.jenkins_url ELSE p.jenkins_url || '/' END
+  AND s.username = p.jenkins_username
+  AND s.token = p.jenkins_token;
+
+-- Create index for the projects of a server
+CREATE INDEX idx_projects_jenkins_server ON projects(jenkins_server_id);
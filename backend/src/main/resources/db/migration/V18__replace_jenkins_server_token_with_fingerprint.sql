@@ -0,0 +1,11 @@
+-- Identify a server's credential by a SHA-256 fingerprint of its token instead of a
+-- second plaintext copy; the token itself is only stored on the projects using it
+ALTER TABLE jenkins_servers ADD COLUMN token_fingerprint VARCHAR(64);
+
+UPDATE jenkins_servers SET token_fingerprint = encode(sha256(convert_to(token, 'UTF8')), 'hex');
+
+ALTER TABLE jenkins_servers DROP CONSTRAINT IF EXISTS jenkins_servers_url_username_token_key;
+ALTER TABLE jenkins_servers DROP COLUMN token;
+ALTER TABLE jenkins_servers ALTER COLUMN token_fingerprint SET NOT NULL;
+ALTER TABLE jenkins_servers ADD CONSTRAINT jenkins_servers_url_username_token_fingerprint_key
+    UNIQUE (url, username, token_fingerprint);
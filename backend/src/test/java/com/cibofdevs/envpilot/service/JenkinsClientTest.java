@@ -0,0 +1,82 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.config.JenkinsHttpClientConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JenkinsClientTest {
+
+    // A space in the path: the async client can't build a request for it
+    private static final String MALFORMED_URL = "http://jenkins.invalid:8080/job/my app/api/json";
+
+    private CloseableHttpAsyncClient httpClient;
+    private JenkinsResilienceService jenkinsResilienceService;
+    private JenkinsClient jenkinsClient;
+
+    @BeforeEach
+    void setUp() {
+        JenkinsHttpClientConfig config = new JenkinsHttpClientConfig();
+        httpClient = config.jenkinsHttpAsyncClient(config.jenkinsConnectionManager());
+        jenkinsResilienceService = new JenkinsResilienceService();
+
+        jenkinsClient = new JenkinsClient();
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsHttpAsyncClient", httpClient);
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsResilienceService", jenkinsResilienceService);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+    }
+
+    @Test
+    void requestThatCannotBeSentGivesItsSlotBack() {
+        // More calls than the bulkhead has slots: a leaked permit would show up as "busy"
+        List<CompletableFuture<ResponseEntity<String>>> calls = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            calls.add(jenkinsClient.post(MALFORMED_URL, new HttpHeaders(), null));
+        }
+
+        for (CompletableFuture<ResponseEntity<String>> call : calls) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        }
+        Map<String, Object> hostState = jenkinsResilienceService.getHostStates().get(0);
+        assertThat(hostState).containsEntry("activeCalls", 0);
+        assertThat(hostState).containsEntry("rejectedCalls", 0L);
+        assertThat(hostState).containsEntry("state", "CLOSED");
+    }
+
+    @Test
+    void getThatFailsBeforeBeingSentIsNotLeftInFlight() {
+        // Without a resilience service every attempt throws before anything is sent
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsResilienceService", null);
+
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<ResponseEntity<String>> call = jenkinsClient.get("http://jenkins.invalid:8080/api/json", new HttpHeaders());
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(NullPointerException.class);
+        }
+        assertThat(jenkinsClient.getCoalescingStats())
+            .containsEntry("inFlightRequests", 0)
+            .containsEntry("coalescedRequests", 0L);
+    }
+}
@@ -0,0 +1,130 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.config.JenkinsHttpClientConfig;
+import com.cibofdevs.envpilot.model.Project;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expired job parameter definitions are revalidated with the ETag Jenkins sent rather
+ * than fetched again.
+ */
+class JenkinsServiceParameterCacheTest {
+
+    private static final String ETAG = "\"params-v1\"";
+    private static final String PARAMETERS = """
+        {"actions":[{"parameterDefinitions":[{"_class":"hudson.model.StringParameterDefinition",
+        "name":"VERSION","type":"StringParameterDefinition","description":null,
+        "defaultParameterValue":{"value":"1.0"}}]}],"property":[]}
+        """;
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private JenkinsService jenkinsService;
+    // If-None-Match of each request (null when absent) and the status it was answered with
+    private final List<String> conditions = new CopyOnWriteArrayList<>();
+    private final List<Integer> statuses = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            conditions.add(ifNoneMatch);
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            if (ETAG.equals(ifNoneMatch)) {
+                statuses.add(304);
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            statuses.add(200);
+            byte[] body = PARAMETERS.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        JenkinsHttpClientConfig config = new JenkinsHttpClientConfig();
+        httpClient = config.jenkinsHttpAsyncClient(config.jenkinsConnectionManager());
+
+        JenkinsClient jenkinsClient = new JenkinsClient();
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsHttpAsyncClient", httpClient);
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsResilienceService", new JenkinsResilienceService());
+
+        jenkinsService = new JenkinsService();
+        ReflectionTestUtils.setField(jenkinsService, "jenkinsClient", jenkinsClient);
+        ReflectionTestUtils.setField(jenkinsService, "jenkinsServerRegistry", new JenkinsServerRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void expiredDefinitionsAreRevalidatedWithTheirETag() throws Exception {
+        Project project = project();
+
+        assertThat(parameterNames(project)).containsExactly("VERSION");
+        // Within the TTL the cached copy is used without asking Jenkins
+        assertThat(parameterNames(project)).containsExactly("VERSION");
+        assertThat(statuses).containsExactly(200);
+
+        expireCache();
+        assertThat(parameterNames(project)).containsExactly("VERSION");
+        assertThat(conditions).containsExactly(null, ETAG);
+        assertThat(statuses).containsExactly(200, 304);
+
+        // The revalidated copy counts as fresh again
+        assertThat(parameterNames(project)).containsExactly("VERSION");
+        assertThat(statuses).hasSize(2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> parameterNames(Project project) throws Exception {
+        Map<String, Object> result = jenkinsService.getJobParametersAsync(project).get(10, TimeUnit.SECONDS);
+        assertThat(result).containsEntry("success", true);
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> parameter : (List<Map<String, Object>>) result.get("parameters")) {
+            names.add((String) parameter.get("name"));
+        }
+        return names;
+    }
+
+    private void expireCache() {
+        Map<?, ?> cache = (Map<?, ?>) ReflectionTestUtils.getField(jenkinsService, "parameterDefinitionsCache");
+        cache.values().forEach(cached -> ReflectionTestUtils.setField(cached, "loadedAt", 0L));
+    }
+
+    private Project project() {
+        Project project = new Project();
+        project.setId(1L);
+        project.setName("Test");
+        project.setJenkinsUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        project.setJenkinsJobName("app");
+        project.setJenkinsUsername("user");
+        project.setJenkinsToken("token");
+        return project;
+    }
+}
@@ -0,0 +1,134 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.config.JenkinsHttpClientConfig;
+import com.cibofdevs.envpilot.dto.BuildStatus;
+import com.cibofdevs.envpilot.model.Project;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sends the URLs JenkinsService builds through the real JenkinsClient to a local HTTP
+ * server, so anything the HTTP client refuses to parse fails here rather than on a
+ * live poll.
+ */
+class JenkinsServiceUrlTest {
+
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+    private JenkinsService jenkinsService;
+    private final List<URI> requests = new CopyOnWriteArrayList<>();
+    private volatile String responseBody = "{}";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.add(exchange.getRequestURI());
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        JenkinsHttpClientConfig config = new JenkinsHttpClientConfig();
+        httpClient = config.jenkinsHttpAsyncClient(config.jenkinsConnectionManager());
+
+        JenkinsClient jenkinsClient = new JenkinsClient();
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsHttpAsyncClient", httpClient);
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsResilienceService", new JenkinsResilienceService());
+
+        jenkinsService = new JenkinsService();
+        ReflectionTestUtils.setField(jenkinsService, "jenkinsClient", jenkinsClient);
+        ReflectionTestUtils.setField(jenkinsService, "jenkinsServerRegistry", new JenkinsServerRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void jobsTreeQueryReachesJenkins() throws Exception {
+        responseBody = """
+            {"jobs":[{"name":"app","builds":[{"number":7,"result":"SUCCESS","building":false,"duration":1200,
+            "estimatedDuration":1300,"timestamp":1700000000000,"url":"http://jenkins/job/app/7/"}]}]}
+            """;
+
+        Map<String, List<BuildStatus>> builds = jenkinsService.getJobBuildsAsync(project("app"), 3)
+            .get(10, TimeUnit.SECONDS);
+
+        assertThat(builds.get("app")).extracting(BuildStatus::number).containsExactly(7);
+        assertThat(requests).hasSize(1);
+        URI request = requests.get(0);
+        assertThat(request.getPath()).isEqualTo("/api/json");
+        assertThat(request.getQuery())
+            .isEqualTo("tree=jobs[name,builds[number,result,building,duration,estimatedDuration,timestamp,url]{0,3}]");
+    }
+
+    @Test
+    void recentBuildsRangeReachesJenkins() throws Exception {
+        responseBody = """
+            {"builds":[{"number":5,"result":"SUCCESS","building":false,"timestamp":1700000000000,"duration":900,
+            "url":"http://jenkins/job/app/5/"},{"number":4,"result":"FAILURE","building":false,
+            "timestamp":1690000000000,"duration":800,"url":"http://jenkins/job/app/4/"}]}
+            """;
+
+        Map<String, Object> result = jenkinsService.getRecentBuildsAsync(project("app"), 2).get(10, TimeUnit.SECONDS);
+
+        assertThat(result).containsEntry("success", true);
+        assertThat((List<?>) result.get("builds")).hasSize(2);
+        URI request = requests.get(0);
+        assertThat(request.getPath()).isEqualTo("/job/app/api/json");
+        assertThat(request.getQuery())
+            .isEqualTo("tree=builds[number,result,building,timestamp,duration,url,description,actions[parameters[name,value]]]{0,2}");
+    }
+
+    @Test
+    void jobNameWithSpacesAndFolderReachesJenkins() throws Exception {
+        responseBody = """
+            {"number":12,"result":null,"building":true,"duration":0,"estimatedDuration":60000,
+            "timestamp":1700000000000,"url":"http://jenkins/job/team/job/my%20app/12/"}
+            """;
+
+        BuildStatus build = jenkinsService.getBuildInfoAsync(project("team/job/my app #1"), "12")
+            .get(10, TimeUnit.SECONDS);
+
+        assertThat(build.number()).isEqualTo(12);
+        URI request = requests.get(0);
+        assertThat(request.getRawPath()).isEqualTo("/job/team/job/my%20app%20%231/12/api/json");
+        assertThat(request.getPath()).isEqualTo("/job/team/job/my app #1/12/api/json");
+        assertThat(request.getQuery())
+            .isEqualTo("tree=number,result,building,duration,estimatedDuration,timestamp,url,description");
+    }
+
+    private Project project(String jobName) {
+        Project project = new Project();
+        project.setId(1L);
+        project.setName("Test");
+        project.setJenkinsUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        project.setJenkinsJobName(jobName);
+        project.setJenkinsUsername("user");
+        project.setJenkinsToken("token");
+        return project;
+    }
+}
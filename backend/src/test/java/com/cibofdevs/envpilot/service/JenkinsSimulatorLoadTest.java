@@ -0,0 +1,197 @@
+package com.cibofdevs.envpilot.service;
+
+import com.cibofdevs.envpilot.config.JenkinsHttpClientConfig;
+import com.cibofdevs.envpilot.dto.BuildStatus;
+import com.cibofdevs.envpilot.dto.JenkinsResult;
+import com.cibofdevs.envpilot.model.Project;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives JenkinsService against the in-process Jenkins simulator with thousands of
+ * jobs, injected latency and errors, and reports throughput and latency percentiles.
+ * Calls go through the real async client, JenkinsClient's retries, circuit breaker
+ * and bulkhead, and JenkinsFanOutService's per-server limits, as in production.
+ */
+class JenkinsSimulatorLoadTest {
+
+    private static final int JOBS = 2000;
+
+    private JenkinsSimulatorService simulator;
+    private CloseableHttpAsyncClient httpClient;
+    private JenkinsService jenkinsService;
+    private JenkinsFanOutService jenkinsFanOutService;
+
+    @BeforeEach
+    void setUp() {
+        JenkinsHttpClientConfig config = new JenkinsHttpClientConfig();
+        httpClient = config.jenkinsHttpAsyncClient(config.jenkinsConnectionManager());
+
+        JenkinsClient jenkinsClient = new JenkinsClient();
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsHttpAsyncClient", httpClient);
+        ReflectionTestUtils.setField(jenkinsClient, "jenkinsResilienceService", new JenkinsResilienceService());
+
+        jenkinsService = new JenkinsService();
+        ReflectionTestUtils.setField(jenkinsService, "jenkinsClient", jenkinsClient);
+        ReflectionTestUtils.setField(jenkinsService, "jenkinsServerRegistry", new JenkinsServerRegistry());
+
+        jenkinsFanOutService = new JenkinsFanOutService();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        if (simulator != null) {
+            simulator.stop();
+        }
+    }
+
+    @Test
+    void batchedTreeQueriesCoverEveryJob() throws Exception {
+        startSimulator(0.0, 5, 50);
+        List<Project> projects = projects(JOBS);
+
+        // One tree request per poll instead of one lastBuild request per job
+        int polls = 20;
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<Map<String, List<BuildStatus>>>> requests = new ArrayList<>();
+        for (int i = 0; i < polls; i++) {
+            requests.add(jenkinsService.getJobBuildsAsync(projects.get(i), 1));
+        }
+        for (CompletableFuture<Map<String, List<BuildStatus>>> request : requests) {
+            Map<String, List<BuildStatus>> buildsByJob = request.get(30, TimeUnit.SECONDS);
+            assertThat(buildsByJob).hasSize(JOBS);
+            assertThat(buildsByJob.values()).allSatisfy(builds -> assertThat(builds).hasSize(1));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        // The {0,1} range reached the simulator intact, so it sent one build per job
+        Map<String, Long> byEndpoint = requestsByEndpoint();
+        System.out.println("📊 " + polls + " tree polls of " + JOBS + " jobs in " + elapsedMs + "ms, "
+            + byEndpoint.get("jobsTree") + " request(s) reached Jenkins");
+        assertThat(byEndpoint.get("jobsTree")).isBetween(1L, (long) polls);
+        assertThat(byEndpoint).doesNotContainKey("build");
+    }
+
+    @Test
+    void recentBuildsTreeQueriesUnderLatency() throws Exception {
+        startSimulator(0.0, 5, 50);
+        List<Project> projects = projects(500);
+
+        long startedAt = System.nanoTime();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Map<String, Object>>> requests = new ArrayList<>();
+        for (Project project : projects) {
+            long requestedAt = System.nanoTime();
+            requests.add(jenkinsFanOutService
+                .submit(jenkinsService.jenkinsHost(project), () -> jenkinsService.getRecentBuildsAsync(project, 5))
+                .whenComplete((result, ex) -> latencies.add(System.nanoTime() - requestedAt)));
+        }
+        for (CompletableFuture<Map<String, Object>> request : requests) {
+            Map<String, Object> result = request.get(60, TimeUnit.SECONDS);
+            assertThat(result).containsEntry("success", true);
+            assertThat((List<?>) result.get("builds")).hasSize(1);
+        }
+        report("recent builds", projects.size(), startedAt, latencies);
+        assertThat(requestsByEndpoint().get("job")).isEqualTo((long) projects.size());
+    }
+
+    @Test
+    void perJobPollingWithInjectedErrors() throws Exception {
+        // Half of the injected errors are 503s, which JenkinsClient retries
+        startSimulator(0.02, 5, 50);
+        List<Project> projects = projects(1000);
+
+        long startedAt = System.nanoTime();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<JenkinsResult<BuildStatus>>> requests = new ArrayList<>();
+        for (Project project : projects) {
+            long requestedAt = System.nanoTime();
+            requests.add(jenkinsFanOutService
+                .submit(jenkinsService.jenkinsHost(project), () -> jenkinsService.getLastBuildStatusAsync(project))
+                .whenComplete((result, ex) -> latencies.add(System.nanoTime() - requestedAt)));
+        }
+        int succeeded = 0;
+        for (CompletableFuture<JenkinsResult<BuildStatus>> request : requests) {
+            if (request.get(60, TimeUnit.SECONDS) instanceof JenkinsResult.Success<BuildStatus>) {
+                succeeded++;
+            }
+        }
+        report("lastBuild", projects.size(), startedAt, latencies);
+        System.out.println("   " + succeeded + "/" + projects.size() + " succeeded, simulator injected "
+            + simulator.getStats().get("injectedErrors") + " error(s)");
+        assertThat(succeeded).isGreaterThanOrEqualTo(projects.size() * 95 / 100);
+    }
+
+    private void startSimulator(double errorRate, long latencyMedianMs, long latencyP99Ms) {
+        simulator = new JenkinsSimulatorService();
+        ReflectionTestUtils.setField(simulator, "port", 0);
+        ReflectionTestUtils.setField(simulator, "initialJobs", JOBS);
+        ReflectionTestUtils.setField(simulator, "handlerThreads", 16);
+        ReflectionTestUtils.setField(simulator, "buildDurationMs", 60000L);
+        ReflectionTestUtils.setField(simulator, "buildDurationJitter", 0.3);
+        ReflectionTestUtils.setField(simulator, "buildFailureRate", 0.1);
+        ReflectionTestUtils.setField(simulator, "queueDelayMs", 2000L);
+        ReflectionTestUtils.setField(simulator, "latencyMedianMs", latencyMedianMs);
+        ReflectionTestUtils.setField(simulator, "latencyP99Ms", latencyP99Ms);
+        ReflectionTestUtils.setField(simulator, "errorRate", errorRate);
+        ReflectionTestUtils.setField(simulator, "hangRate", 0.0);
+        ReflectionTestUtils.setField(simulator, "hangMs", 120000L);
+        try {
+            simulator.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the Jenkins simulator", e);
+        }
+    }
+
+    // One project per simulated job, all on the same server and credential
+    private List<Project> projects(int count) {
+        List<Project> projects = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Project project = new Project();
+            project.setId((long) i);
+            project.setName("Load " + i);
+            project.setJenkinsUrl(simulator.getBaseUrl());
+            project.setJenkinsJobName(String.format("sim-job-%04d", i));
+            project.setJenkinsUsername("load");
+            project.setJenkinsToken("token");
+            projects.add(project);
+        }
+        return projects;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> requestsByEndpoint() {
+        return (Map<String, Long>) simulator.getStats().get("requestsByEndpoint");
+    }
+
+    private static void report(String name, int calls, long startedAt, List<Long> latenciesNs) {
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        List<Long> sorted = new ArrayList<>(latenciesNs);
+        Collections.sort(sorted);
+        System.out.println("📊 " + calls + " " + name + " calls in " + elapsedMs + "ms ("
+            + (calls * 1000L / elapsedMs) + "/s), p50 " + percentileMs(sorted, 50) + "ms, p99 "
+            + percentileMs(sorted, 99) + "ms");
+    }
+
+    private static long percentileMs(List<Long> sortedNs, int percentile) {
+        if (sortedNs.isEmpty()) {
+            return -1;
+        }
+        int index = Math.min(sortedNs.size() - 1, (int) Math.ceil(sortedNs.size() * percentile / 100.0) - 1);
+        return TimeUnit.NANOSECONDS.toMillis(sortedNs.get(Math.max(0, index)));
+    }
+}
@@ -0,0 +1,708 @@
+package com.cibofdevs.envpilot.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process Jenkins stand-in for load and soak tests, so JenkinsService and the build
+ * monitor can be driven at thousands of concurrent deployments without a real Jenkins.
+ * Test-scoped: load tests (see JenkinsSimulatorLoadTest) create and start one directly;
+ * for soak runs of the whole application it is started by the jenkins-simulator profile
+ * (see application-jenkins-simulator.yml). Point a project's Jenkins URL at
+ * {@link #getBaseUrl()} and use any job name (jobs are created on first use, and
+ * sim-job-0001 ... are created up front).
+ *
+ * Implements the endpoints EnvPilot calls: crumbIssuer, build / buildWithParameters
+ * (answering with a queue item Location), queue/item/{id}/api/json, the job, build and
+ * jobs tree api/json queries (honouring builds[...]{0,N}), consoleText and
+ * logText/progressiveText. Builds run for a configurable duration with jitter and fail
+ * at a configurable rate. Every response is delayed by a log-normal latency (median and
+ * p99 configurable), and a share of requests can be answered with 500/503 or left
+ * hanging. Delays are scheduled rather than slept, so thousands of slow requests don't
+ * need thousands of threads.
+ *
+ * GET /simulator/stats returns request counters; POST /simulator/faults?errorRate=
+ * &hangRate=&latencyMedianMs=&latencyP99Ms= changes the fault settings while a test runs.
+ */
+@Service
+@ConditionalOnProperty(prefix = "envpilot.jenkins-simulator", name = "enabled", havingValue = "true")
+public class JenkinsSimulatorService {
+
+    private static final String CRUMB_FIELD = "Jenkins-Crumb";
+    private static final String CRUMB = "simulated-crumb";
+    private static final int MAX_BUILDS_PER_JOB = 50;
+    private static final int LOG_LINES_PER_BUILD = 200;
+    private static final long QUEUE_ITEM_RETENTION_MS = 5 * 60 * 1000;
+    // z-score of the 99th percentile, to derive the log-normal sigma from median and p99
+    private static final double Z_99 = 2.326;
+
+    private static final Pattern JOB_PATH = Pattern.compile("^/job/([^/]+)(/.*)?$");
+    private static final Pattern BUILD_PATH = Pattern.compile("^/(lastBuild|\\d+)(/.*)$");
+    private static final Pattern QUEUE_PATH = Pattern.compile("^/queue/item/(\\d+)/api/json$");
+    private static final Pattern BUILDS_RANGE = Pattern.compile("builds\\[.*?]\\{\\d+,(\\d+)}");
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper STATS_MAPPER = new ObjectMapper();
+
+    @Value("${envpilot.jenkins-simulator.port:9096}")
+    private int port;
+
+    @Value("${envpilot.jenkins-simulator.jobs:1000}")
+    private int initialJobs;
+
+    @Value("${envpilot.jenkins-simulator.handler-threads:16}")
+    private int handlerThreads;
+
+    @Value("${envpilot.jenkins-simulator.build-duration-ms:60000}")
+    private long buildDurationMs;
+
+    // Each build's duration is buildDurationMs +/- this fraction
+    @Value("${envpilot.jenkins-simulator.build-duration-jitter:0.3}")
+    private double buildDurationJitter;
+
+    @Value("${envpilot.jenkins-simulator.build-failure-rate:0.1}")
+    private double buildFailureRate;
+
+    @Value("${envpilot.jenkins-simulator.queue-delay-ms:2000}")
+    private long queueDelayMs;
+
+    @Value("${envpilot.jenkins-simulator.latency-median-ms:20}")
+    private volatile long latencyMedianMs;
+
+    @Value("${envpilot.jenkins-simulator.latency-p99-ms:200}")
+    private volatile long latencyP99Ms;
+
+    @Value("${envpilot.jenkins-simulator.error-rate:0}")
+    private volatile double errorRate;
+
+    @Value("${envpilot.jenkins-simulator.hang-rate:0}")
+    private volatile double hangRate;
+
+    // How long a hanging request is held open before the connection is dropped
+    @Value("${envpilot.jenkins-simulator.hang-ms:120000}")
+    private long hangMs;
+
+    private static final class SimBuild {
+        final int number;
+        final long startedAt;
+        final long durationMs;
+        final String outcome;
+        final String url;
+        final Map<String, String> parameters;
+
+        SimBuild(int number, long startedAt, long durationMs, String outcome, String url, Map<String, String> parameters) {
+            this.number = number;
+            this.startedAt = startedAt;
+            this.durationMs = durationMs;
+            this.outcome = outcome;
+            this.url = url;
+            this.parameters = parameters;
+        }
+
+        boolean building(long now) {
+            return now < startedAt + durationMs;
+        }
+    }
+
+    private static final class SimJob {
+        final String name;
+        final String url;
+        // Newest first
+        final Deque<SimBuild> builds = new ArrayDeque<>();
+        int nextBuildNumber = 1;
+
+        SimJob(String name, String url) {
+            this.name = name;
+            this.url = url;
+        }
+
+        synchronized List<SimBuild> recentBuilds(int limit) {
+            List<SimBuild> recent = new ArrayList<>(Math.min(limit, builds.size()));
+            for (SimBuild build : builds) {
+                if (recent.size() >= limit) {
+                    break;
+                }
+                recent.add(build);
+            }
+            return recent;
+        }
+
+        synchronized SimBuild findBuild(String ref) {
+            if ("lastBuild".equals(ref)) {
+                return builds.peekFirst();
+            }
+            int number = Integer.parseInt(ref);
+            for (SimBuild build : builds) {
+                if (build.number == number) {
+                    return build;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class QueueItem {
+        final long id;
+        final SimJob job;
+        final Map<String, String> parameters;
+        final long queuedAt;
+        volatile SimBuild build;
+
+        QueueItem(long id, SimJob job, Map<String, String> parameters, long queuedAt) {
+            this.id = id;
+            this.job = job;
+            this.parameters = parameters;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    private static final class SimResponse {
+        final int status;
+        final String contentType;
+        final byte[] body;
+        final Map<String, String> headers = new HashMap<>();
+
+        SimResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator json) throws IOException;
+    }
+
+    private final Map<String, SimJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, QueueItem> queueItems = new ConcurrentHashMap<>();
+    private final AtomicLong nextQueueId = new AtomicLong(1);
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedHangs = new AtomicLong();
+    private final AtomicLong buildsTriggered = new AtomicLong();
+    private final Map<String, AtomicLong> requestsByEndpoint = new ConcurrentHashMap<>();
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ScheduledExecutorService responseScheduler = Executors.newScheduledThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "jenkins-sim-response-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HttpServer server;
+    private ExecutorService handlerExecutor;
+    private String baseUrl;
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Port 0 binds any free port
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        baseUrl = "http://localhost:" + server.getAddress().getPort() + "/";
+        long now = System.currentTimeMillis();
+        for (int i = 1; i <= initialJobs; i++) {
+            SimJob job = job(String.format("sim-job-%04d", i));
+            // Start every job with one finished build so lastBuild exists
+            synchronized (job) {
+                int number = job.nextBuildNumber++;
+                job.builds.addFirst(new SimBuild(number, now - buildDurationMs - 1000, buildDurationMs, "SUCCESS",
+                    job.url + number + "/", Map.of()));
+            }
+        }
+
+        handlerExecutor = Executors.newFixedThreadPool(handlerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "jenkins-sim-handler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(handlerExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+        responseScheduler.scheduleWithFixedDelay(this::purgeQueueItems, 1, 1, TimeUnit.MINUTES);
+        System.out.println("🧪 Jenkins simulator listening on " + baseUrl + " with " + initialJobs + " job(s)");
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (handlerExecutor != null) {
+            handlerExecutor.shutdownNow();
+        }
+        responseScheduler.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parseForm(exchange.getRequestURI().getRawQuery());
+            Map<String, String> form = "POST".equals(exchange.getRequestMethod())
+                ? parseForm(new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8))
+                : Map.of();
+
+            if (path.startsWith("/simulator/")) {
+                send(exchange, handleControl(exchange, path, query));
+                return;
+            }
+            requests.incrementAndGet();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < hangRate) {
+                injectedHangs.incrementAndGet();
+                responseScheduler.schedule(exchange::close, hangMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+            boolean fail = roll < hangRate + errorRate;
+            responseScheduler.schedule(() -> {
+                try {
+                    if (fail) {
+                        injectedErrors.incrementAndGet();
+                        int status = ThreadLocalRandom.current().nextBoolean() ? 500 : 503;
+                        send(exchange, text(status, "Simulated Jenkins error"));
+                    } else {
+                        send(exchange, route(exchange, path, query, form));
+                    }
+                } catch (Exception e) {
+                    sendQuietly(exchange, text(500, "Simulator error: " + e.getMessage()));
+                }
+            }, sampleLatencyMs(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            sendQuietly(exchange, text(500, "Simulator error: " + e.getMessage()));
+        }
+    }
+
+    private SimResponse route(HttpExchange exchange, String path, Map<String, String> query, Map<String, String> form)
+            throws IOException {
+        String method = exchange.getRequestMethod();
+        if (path.equals("/crumbIssuer/api/json")) {
+            count("crumbIssuer");
+            SimResponse response = json(200, json -> {
+                json.writeStringField("crumbRequestField", CRUMB_FIELD);
+                json.writeStringField("crumb", CRUMB);
+            });
+            response.headers.put("Set-Cookie", "JSESSIONID.sim=" + Long.toHexString(System.nanoTime()) + "; Path=/");
+            return response;
+        }
+        if (path.equals("/api/json") || path.equals("/")) {
+            count("jobsTree");
+            return jobsTree(query.get("tree"));
+        }
+        Matcher queueMatch = QUEUE_PATH.matcher(path);
+        if (queueMatch.matches()) {
+            count("queueItem");
+            return queueItem(Long.parseLong(queueMatch.group(1)));
+        }
+
+        Matcher jobMatch = JOB_PATH.matcher(path);
+        if (!jobMatch.matches()) {
+            return text(404, "Not found");
+        }
+        // The path is already decoded
+        SimJob job = job(jobMatch.group(1));
+        String rest = jobMatch.group(2) != null ? jobMatch.group(2) : "/";
+
+        if (rest.equals("/build") || rest.equals("/buildWithParameters")) {
+            count("trigger");
+            if (!"POST".equals(method)) {
+                return text(405, "Method not allowed");
+            }
+            if (!CRUMB.equals(exchange.getRequestHeaders().getFirst(CRUMB_FIELD))) {
+                return text(403, "No valid crumb was included in the request");
+            }
+            return trigger(job, form.isEmpty() ? query : form);
+        }
+        if (rest.equals("/api/json") || rest.equals("/api/json/")) {
+            count("job");
+            return jobInfo(job, query.get("tree"));
+        }
+
+        Matcher buildMatch = BUILD_PATH.matcher(rest);
+        if (!buildMatch.matches()) {
+            return text(404, "Not found");
+        }
+        SimBuild build = job.findBuild(buildMatch.group(1));
+        if (build == null) {
+            return text(404, "Build not found");
+        }
+        long now = System.currentTimeMillis();
+        switch (buildMatch.group(2)) {
+            case "/api/json" -> {
+                count("build");
+                return json(200, json -> writeBuild(json, build, now, false));
+            }
+            case "/consoleText" -> {
+                count("consoleText");
+                return new SimResponse(200, "text/plain;charset=UTF-8", consoleLog(build, now));
+            }
+            case "/logText/progressiveText" -> {
+                count("progressiveText");
+                byte[] log = consoleLog(build, now);
+                int start = (int) Math.min(log.length, Math.max(0, parseLong(query.get("start"), 0)));
+                byte[] slice = new byte[log.length - start];
+                System.arraycopy(log, start, slice, 0, slice.length);
+                SimResponse response = new SimResponse(200, "text/plain;charset=UTF-8", slice);
+                response.headers.put("X-Text-Size", String.valueOf(log.length));
+                if (build.building(now)) {
+                    response.headers.put("X-More-Data", "true");
+                }
+                return response;
+            }
+            default -> {
+                return text(404, "Not found");
+            }
+        }
+    }
+
+    private SimResponse trigger(SimJob job, Map<String, String> parameters) {
+        long id = nextQueueId.getAndIncrement();
+        QueueItem item = new QueueItem(id, job, Map.copyOf(parameters), System.currentTimeMillis());
+        queueItems.put(id, item);
+        buildsTriggered.incrementAndGet();
+        responseScheduler.schedule(() -> startBuild(item), queueDelayMs, TimeUnit.MILLISECONDS);
+
+        SimResponse response = new SimResponse(201, "text/plain;charset=UTF-8", new byte[0]);
+        response.headers.put("Location", baseUrl + "queue/item/" + id + "/");
+        return response;
+    }
+
+    private void startBuild(QueueItem item) {
+        SimJob job = item.job;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double jitter = 1 + (random.nextDouble() * 2 - 1) * buildDurationJitter;
+        long duration = Math.max(1000, (long) (buildDurationMs * jitter));
+        String outcome = random.nextDouble() < buildFailureRate ? "FAILURE" : "SUCCESS";
+        synchronized (job) {
+            int number = job.nextBuildNumber++;
+            SimBuild build = new SimBuild(number, System.currentTimeMillis(), duration, outcome,
+                job.url + number + "/", item.parameters);
+            job.builds.addFirst(build);
+            while (job.builds.size() > MAX_BUILDS_PER_JOB) {
+                job.builds.removeLast();
+            }
+            item.build = build;
+        }
+    }
+
+    private SimResponse queueItem(long id) throws IOException {
+        QueueItem item = queueItems.get(id);
+        if (item == null) {
+            return text(404, "Queue item not found");
+        }
+        SimBuild build = item.build;
+        return json(200, json -> {
+            json.writeNumberField("id", item.id);
+            json.writeBooleanField("cancelled", false);
+            json.writeNumberField("inQueueSince", item.queuedAt);
+            if (build != null) {
+                json.writeObjectFieldStart("executable");
+                json.writeNumberField("number", build.number);
+                json.writeStringField("url", build.url);
+                json.writeEndObject();
+            } else {
+                json.writeNullField("executable");
+            }
+        });
+    }
+
+    private SimResponse jobInfo(SimJob job, String tree) throws IOException {
+        int limit = buildsLimit(tree, MAX_BUILDS_PER_JOB);
+        long now = System.currentTimeMillis();
+        List<SimBuild> builds = job.recentBuilds(limit);
+        return json(200, json -> {
+            json.writeStringField("name", job.name);
+            json.writeStringField("url", job.url);
+            json.writeArrayFieldStart("builds");
+            for (SimBuild build : builds) {
+                json.writeStartObject();
+                writeBuild(json, build, now, true);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            // One declared parameter, so EnvPilot triggers with buildWithParameters
+            json.writeArrayFieldStart("property");
+            json.writeStartObject();
+            json.writeStringField("_class", "hudson.model.ParametersDefinitionProperty");
+            json.writeArrayFieldStart("parameterDefinitions");
+            json.writeStartObject();
+            json.writeStringField("_class", "hudson.model.StringParameterDefinition");
+            json.writeStringField("name", "VERSION");
+            json.writeStringField("type", "StringParameterDefinition");
+            json.writeStringField("description", "Version to deploy");
+            json.writeObjectFieldStart("defaultParameterValue");
+            json.writeStringField("value", "latest");
+            json.writeEndObject();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+        });
+    }
+
+    private SimResponse jobsTree(String tree) throws IOException {
+        int limit = buildsLimit(tree, MAX_BUILDS_PER_JOB);
+        long now = System.currentTimeMillis();
+        List<SimJob> snapshot = new ArrayList<>(jobs.values());
+        return json(200, json -> {
+            json.writeArrayFieldStart("jobs");
+            for (SimJob job : snapshot) {
+                json.writeStartObject();
+                json.writeStringField("name", job.name);
+                json.writeArrayFieldStart("builds");
+                for (SimBuild build : job.recentBuilds(limit)) {
+                    json.writeStartObject();
+                    writeBuild(json, build, now, false);
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        });
+    }
+
+    /**
+     * Fields of a build object; with actions, the parameters it was triggered with.
+     */
+    private void writeBuild(JsonGenerator json, SimBuild build, long now, boolean actions) throws IOException {
+        boolean building = build.building(now);
+        json.writeNumberField("number", build.number);
+        if (building) {
+            json.writeNullField("result");
+        } else {
+            json.writeStringField("result", build.outcome);
+        }
+        json.writeBooleanField("building", building);
+        json.writeNumberField("timestamp", build.startedAt);
+        json.writeNumberField("duration", building ? 0 : build.durationMs);
+        json.writeNumberField("estimatedDuration", buildDurationMs);
+        json.writeStringField("url", build.url);
+        json.writeNullField("description");
+        if (actions && !build.parameters.isEmpty()) {
+            json.writeArrayFieldStart("actions");
+            json.writeStartObject();
+            json.writeArrayFieldStart("parameters");
+            for (Map.Entry<String, String> parameter : build.parameters.entrySet()) {
+                json.writeStartObject();
+                json.writeStringField("name", parameter.getKey());
+                json.writeStringField("value", parameter.getValue());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * The part of the build's log written so far: LOG_LINES_PER_BUILD lines spread over
+     * its duration, then the "Finished:" line.
+     */
+    private static byte[] consoleLog(SimBuild build, long now) {
+        boolean building = build.building(now);
+        int lines = building
+            ? (int) (LOG_LINES_PER_BUILD * Math.max(0, now - build.startedAt) / build.durationMs)
+            : LOG_LINES_PER_BUILD;
+        StringBuilder log = new StringBuilder(lines * 48 + 64);
+        log.append("Started by EnvPilot load test\n");
+        for (int i = 1; i <= lines; i++) {
+            log.append("[sim] build #").append(build.number).append(" step ").append(i)
+                .append('/').append(LOG_LINES_PER_BUILD).append('\n');
+        }
+        if (!building) {
+            log.append("Finished: ").append(build.outcome).append('\n');
+        }
+        return log.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private SimResponse handleControl(HttpExchange exchange, String path, Map<String, String> query) throws IOException {
+        if (path.equals("/simulator/faults") && "POST".equals(exchange.getRequestMethod())) {
+            if (query.containsKey("errorRate")) {
+                errorRate = Double.parseDouble(query.get("errorRate"));
+            }
+            if (query.containsKey("hangRate")) {
+                hangRate = Double.parseDouble(query.get("hangRate"));
+            }
+            if (query.containsKey("latencyMedianMs")) {
+                latencyMedianMs = Long.parseLong(query.get("latencyMedianMs"));
+            }
+            if (query.containsKey("latencyP99Ms")) {
+                latencyP99Ms = Long.parseLong(query.get("latencyP99Ms"));
+            }
+            System.out.println("🧪 Jenkins simulator faults: errorRate=" + errorRate + ", hangRate=" + hangRate
+                + ", latency median=" + latencyMedianMs + "ms p99=" + latencyP99Ms + "ms");
+        } else if (!path.equals("/simulator/stats")) {
+            return text(404, "Not found");
+        }
+        return new SimResponse(200, "application/json;charset=UTF-8", STATS_MAPPER.writeValueAsBytes(getStats()));
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        int runningBuilds = 0;
+        for (SimJob job : jobs.values()) {
+            SimBuild last = job.findBuild("lastBuild");
+            if (last != null && last.building(now)) {
+                runningBuilds++;
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("jobs", jobs.size());
+        stats.put("runningBuilds", runningBuilds);
+        stats.put("queueItems", queueItems.size());
+        stats.put("buildsTriggered", buildsTriggered.get());
+        stats.put("requests", requests.get());
+        stats.put("injectedErrors", injectedErrors.get());
+        stats.put("injectedHangs", injectedHangs.get());
+        stats.put("errorRate", errorRate);
+        stats.put("hangRate", hangRate);
+        stats.put("latencyMedianMs", latencyMedianMs);
+        stats.put("latencyP99Ms", latencyP99Ms);
+        Map<String, Long> byEndpoint = new HashMap<>();
+        requestsByEndpoint.forEach((endpoint, count) -> byEndpoint.put(endpoint, count.get()));
+        stats.put("requestsByEndpoint", byEndpoint);
+        return stats;
+    }
+
+    private SimJob job(String name) {
+        return jobs.computeIfAbsent(name, jobName -> new SimJob(jobName, baseUrl + "job/" + jobName + "/"));
+    }
+
+    private void count(String endpoint) {
+        requestsByEndpoint.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private void purgeQueueItems() {
+        long cutoff = System.currentTimeMillis() - QUEUE_ITEM_RETENTION_MS;
+        queueItems.values().removeIf(item -> item.queuedAt < cutoff);
+    }
+
+    /**
+     * Log-normal latency with the configured median and 99th percentile.
+     */
+    private long sampleLatencyMs() {
+        long median = latencyMedianMs;
+        long p99 = latencyP99Ms;
+        if (median <= 0) {
+            return 0;
+        }
+        if (p99 <= median) {
+            return median;
+        }
+        double sigma = Math.log((double) p99 / median) / Z_99;
+        return (long) (median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    /**
+     * N of a builds[...]{0,N} range in a tree query, or defaultLimit.
+     */
+    private static int buildsLimit(String tree, int defaultLimit) {
+        if (tree == null) {
+            return defaultLimit;
+        }
+        Matcher range = BUILDS_RANGE.matcher(tree);
+        return range.find() ? Integer.parseInt(range.group(1)) : defaultLimit;
+    }
+
+    private static SimResponse json(int status, JsonWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            writer.write(json);
+            json.writeEndObject();
+        }
+        return new SimResponse(status, "application/json;charset=UTF-8", out.toByteArray());
+    }
+
+    private static SimResponse text(int status, String body) {
+        return new SimResponse(status, "text/plain;charset=UTF-8", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange exchange, SimResponse response) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", response.contentType);
+            response.headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+            exchange.sendResponseHeaders(response.status, response.body.length == 0 ? -1 : response.body.length);
+            if (response.body.length > 0) {
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(response.body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendQuietly(HttpExchange exchange, SimResponse response) {
+        try {
+            send(exchange, response);
+        } catch (Exception e) {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> parseForm(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            String value = eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+            values.put(name, value);
+        }
+        return values;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        try {
+            return value != null ? Long.parseLong(value.trim()) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}